@@ -0,0 +1,80 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate queries over 10M archived games spread across 48 national teams, on the heap and spilled to a mapped
+ * file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ArchiveBenchmark {
+    private static final int TEAMS = 48;
+
+    @Param({"10000000"})
+    private int games;
+
+    @Param({"false", "true"})
+    private boolean spilled;
+
+    private FinishedGamesArchive archive;
+    private Instant start;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        archive = spilled
+                ? FinishedGamesArchive.spillingTo(Files.createTempFile("archive-benchmark", ".bin"))
+                : FinishedGamesArchive.inMemory();
+        start = Instant.now();
+        final String[] teams = new String[TEAMS];
+        for (int i = 0; i < TEAMS; i++) {
+            teams[i] = "Nation " + i;
+        }
+        final Random random = new Random(18);
+        for (int i = 0; i < games; i++) {
+            final int home = random.nextInt(TEAMS);
+            final int away = (home + 1 + random.nextInt(TEAMS - 1)) % TEAMS;
+            archive.append(teams[home], teams[away], random.nextInt(6), random.nextInt(5), start.plusSeconds(i / 100));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        archive.close();
+    }
+
+    @Benchmark
+    public FinishedGamesArchive.TeamGoals goalsOfOneTeam() {
+        return archive.goalsOf("Nation 7");
+    }
+
+    @Benchmark
+    public List<FinishedGamesArchive.TeamGoals> goalsByTeam() {
+        return archive.goalsByTeam();
+    }
+
+    @Benchmark
+    public List<FinishedGamesArchive.ScorelineCount> topScorelines() {
+        return archive.topScorelines(10);
+    }
+
+    @Benchmark
+    public List<FinishedGamesArchive.ArchivedGame> highestScoringGames() {
+        return archive.highestScoringGames(10);
+    }
+
+    @Benchmark
+    public FinishedGamesArchive.ArchiveTotals totalsForWindow() {
+        return archive.totalsBetween(start.plusSeconds(games / 400), start.plusSeconds(games / 200));
+    }
+}
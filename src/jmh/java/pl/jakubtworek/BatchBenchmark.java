@@ -0,0 +1,75 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of score corrections applied one call at a time versus one {@link FootballScoreBoard#applyBatch} call.
+ * The grouped variants add a polling reader, which pays for a summary rebuild after every invalidation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class BatchBenchmark {
+    private static final int BOARD_SIZE = 1000;
+
+    @Param({"10", "100"})
+    private int burstSize;
+
+    private FootballScoreBoard board;
+    private int[] homeScores;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MatchRepository.getInstance().clear();
+        board = new FootballScoreBoard(MatchRepository.getInstance());
+        homeScores = new int[BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            board.startGame("Home " + i, "Away " + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MatchRepository.getInstance().clear();
+    }
+
+    @Benchmark
+    @Group("perCall")
+    public void perCallWriter() {
+        for (int i = 0; i < burstSize; i++) {
+            final int match = cursor++ % BOARD_SIZE;
+            board.updateScore("Home " + match, "Away " + match, ++homeScores[match] & MatchSlot.MAX_SCORE, 0);
+        }
+    }
+
+    @Benchmark
+    @Group("perCall")
+    public List<MatchRecord> perCallReader() {
+        return board.getSummary();
+    }
+
+    @Benchmark
+    @Group("batch")
+    public List<CommandResult> batchWriter() {
+        final List<ScoreCommand> burst = new ArrayList<>(burstSize);
+        for (int i = 0; i < burstSize; i++) {
+            final int match = cursor++ % BOARD_SIZE;
+            burst.add(new ScoreCommand.Update("Home " + match, "Away " + match, ++homeScores[match] & MatchSlot.MAX_SCORE, 0));
+        }
+        return board.applyBatch(burst);
+    }
+
+    @Benchmark
+    @Group("batch")
+    public List<MatchRecord> batchReader() {
+        return board.getSummary();
+    }
+}
@@ -0,0 +1,29 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one match start stamp: the {@link System#nanoTime()} read it replaces against a {@link HybridLogicalClock}
+ * shared by every benchmark thread. Run with {@code -t 4} to see the clock contended.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClockBenchmark {
+    private final HybridLogicalClock clock = new HybridLogicalClock(1);
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public long hybridLogicalClock() {
+        return clock.now();
+    }
+}
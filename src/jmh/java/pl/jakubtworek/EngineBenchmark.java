@@ -0,0 +1,77 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Score updates on 1k shared matches, applied by the calling threads against a {@link FootballScoreBoard}
+ * or handed to the {@link SingleWriterScoreBoard} writer (waiting for each result), followed by a summary read.
+ * Writers pick matches across the whole board, so the shared board sees real conflicts.
+ * Compare writer counts with {@code -t 1}, {@code -t 8} and {@code -t 64}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+    private static final int MATCHES = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Boards {
+        FootballScoreBoard shared;
+        SingleWriterScoreBoard singleWriter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            shared = new FootballScoreBoard(MatchRepository.inMemory());
+            singleWriter = new SingleWriterScoreBoard();
+            for (int i = 0; i < MATCHES; i++) {
+                shared.startGame("Home " + i, "Away " + i);
+                singleWriter.submit(new ScoreCommand.Start("Home " + i, "Away " + i)).join();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            singleWriter.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private int match;
+        private int step;
+        private int goals;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams params) {
+            match = params.getThreadIndex() % MATCHES;
+            step = 7 + 2 * params.getThreadIndex();
+            goals = (params.getThreadIndex() * 1_000_000) & MatchSlot.MAX_SCORE;
+        }
+
+        int nextMatch() {
+            match = (match + step) % MATCHES;
+            goals = (goals + 1) & MatchSlot.MAX_SCORE;
+            return match;
+        }
+    }
+
+    @Benchmark
+    public List<MatchRecord> sharedBoard(Boards boards, Writer writer) {
+        final int match = writer.nextMatch();
+        boards.shared.tryUpdateScore("Home " + match, "Away " + match, writer.goals, 0);
+        return boards.shared.getSummary();
+    }
+
+    @Benchmark
+    public List<MatchRecord> singleWriter(Boards boards, Writer writer) {
+        final int match = writer.nextMatch();
+        boards.singleWriter.submit(new ScoreCommand.Update("Home " + match, "Away " + match, writer.goals, 0)).join();
+        return boards.singleWriter.getSummary();
+    }
+}
@@ -0,0 +1,59 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of a bursty feed, a goal, its correction and a resend for each of 100 live matches followed by a
+ * summary read: every command applied on its own against the tick folded by {@link CoalescingIngestor} and applied
+ * as one batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestionBenchmark {
+    private static final int MATCHES = 100;
+
+    private FootballScoreBoard board;
+    private int goals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new FootballScoreBoard(MatchRepository.inMemory());
+        for (int i = 0; i < MATCHES; i++) {
+            board.startGame("Feed Home " + i, "Feed Away " + i);
+        }
+    }
+
+    @Benchmark
+    public List<MatchRecord> eachCommand() {
+        for (ScoreCommand command : nextTick()) {
+            board.applyBatch(List.of(command));
+        }
+        return board.getSummary();
+    }
+
+    @Benchmark
+    public List<MatchRecord> coalescedTick() {
+        final List<ScoreCommand> commands = nextTick();
+        board.applyBatch(CoalescingIngestor.coalesce(commands, new int[commands.size()]));
+        return board.getSummary();
+    }
+
+    private List<ScoreCommand> nextTick() {
+        goals = goals + 2 > MatchSlot.MAX_SCORE ? 1 : goals + 2;
+        final List<ScoreCommand> commands = new ArrayList<>(3 * MATCHES);
+        for (int i = 0; i < MATCHES; i++) {
+            commands.add(new ScoreCommand.Update("Feed Home " + i, "Feed Away " + i, goals + 1, 0));
+            commands.add(new ScoreCommand.Update("Feed Home " + i, "Feed Away " + i, goals, 0));
+            commands.add(new ScoreCommand.Update("Feed Home " + i, "Feed Away " + i, goals, 0));
+        }
+        return commands;
+    }
+}
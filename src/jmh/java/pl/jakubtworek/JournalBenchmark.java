@@ -0,0 +1,96 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Score updates per second with journaling off and with each fsync policy. The eight-thread variant
+ * shows how much group commit recovers under {@link FsyncPolicy#EVERY_OP}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+    private static final int BOARD_SIZE = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Board {
+        @Param({"OFF", "NEVER", "INTERVAL", "EVERY_OP"})
+        String journaling;
+
+        Path directory;
+        MatchJournal journal;
+        FootballScoreBoard board;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            final MatchRepository repository;
+            if (journaling.equals("OFF")) {
+                repository = MatchRepository.getInstance();
+                repository.clear();
+            } else {
+                directory = Files.createTempDirectory("scoreboard-journal");
+                journal = MatchJournal.open(JournalConfig.of(directory, FsyncPolicy.valueOf(journaling)));
+                repository = MatchRepository.journaled(journal);
+            }
+            board = new FootballScoreBoard(repository);
+            for (int i = 0; i < BOARD_SIZE; i++) {
+                board.startGame("Home " + i, "Away " + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (journal == null) {
+                MatchRepository.getInstance().clear();
+                return;
+            }
+            journal.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private int first;
+        private int count;
+        private int cursor;
+        private int[] homeScores;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams params) {
+            count = BOARD_SIZE / params.getThreadCount();
+            first = params.getThreadIndex() * count;
+            homeScores = new int[count];
+        }
+
+        void updateNext(FootballScoreBoard board) {
+            final int slot = cursor++ % count;
+            board.updateScore("Home " + (first + slot), "Away " + (first + slot), ++homeScores[slot] & MatchSlot.MAX_SCORE, 0);
+        }
+    }
+
+    @Benchmark
+    public void updateScore(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void updateScoreEightWriters(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+}
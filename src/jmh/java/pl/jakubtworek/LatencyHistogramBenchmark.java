@@ -0,0 +1,29 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the board's instrumentation adds to each operation: a {@link System#nanoTime()} read on entry and a histogram
+ * record on exit. Run with {@code -t 1} and {@code -t 8} to see the effect of striping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Benchmark
+    public long nanoTimeOnly() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void timeAndRecord() {
+        histogram.recordSince(System.nanoTime());
+    }
+}
@@ -0,0 +1,135 @@
+package pl.jakubtworek;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Outcome of one {@link MatchDayLoad} run, printable as a table and storable as a properties file to serve as the
+ * baseline of later runs.
+ */
+record LoadReport(String config, double seconds, List<OpResult> operations, long gcCollections, long gcMillis,
+                  double summaryCacheHitRatio, long liveMatches) {
+
+    record OpResult(String op, long count, long errors, double throughput, long p50Nanos, long p99Nanos,
+                    long p999Nanos, long maxNanos) {
+
+        static OpResult of(String op, LatencyStats stats, long errors, double seconds) {
+            return new OpResult(op, stats.count(), errors, stats.count() / seconds, stats.p50Nanos(), stats.p99Nanos(),
+                    stats.p999Nanos(), stats.maxNanos());
+        }
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    void print(PrintStream out) {
+        out.println(config);
+        out.printf("%nMeasured %.1f s%n%n", seconds);
+        out.printf("%-11s %12s %12s %8s %12s %12s %12s %12s%n",
+                "Operation", "Count", "Ops/s", "Errors", "p50 us", "p99 us", "p99.9 us", "Max us");
+        for (OpResult result : operations) {
+            out.printf("%-11s %12d %12.1f %7.2f%% %12.1f %12.1f %12.1f %12.1f%n", result.op(), result.count(),
+                    result.throughput(), result.errorRate() * 100, result.p50Nanos() / 1e3, result.p99Nanos() / 1e3,
+                    result.p999Nanos() / 1e3, result.maxNanos() / 1e3);
+        }
+        out.printf("%nGC: %d collections, %d ms (%.2f%% of the run)%n", gcCollections, gcMillis,
+                gcMillis / (seconds * 10));
+        out.printf("Summary cache hit ratio %.3f, %d live matches at the end%n", summaryCacheHitRatio, liveMatches);
+    }
+
+    void save(Path file) {
+        final Properties properties = new Properties();
+        properties.setProperty("config", config);
+        properties.setProperty("seconds", Double.toString(seconds));
+        properties.setProperty("gc.collections", Long.toString(gcCollections));
+        properties.setProperty("gc.millis", Long.toString(gcMillis));
+        properties.setProperty("summary.hitRatio", Double.toString(summaryCacheHitRatio));
+        properties.setProperty("liveMatches", Long.toString(liveMatches));
+        for (OpResult result : operations) {
+            final String prefix = result.op() + ".";
+            properties.setProperty(prefix + "count", Long.toString(result.count()));
+            properties.setProperty(prefix + "errors", Long.toString(result.errors()));
+            properties.setProperty(prefix + "throughput", Double.toString(result.throughput()));
+            properties.setProperty(prefix + "p50", Long.toString(result.p50Nanos()));
+            properties.setProperty(prefix + "p99", Long.toString(result.p99Nanos()));
+            properties.setProperty(prefix + "p999", Long.toString(result.p999Nanos()));
+            properties.setProperty(prefix + "max", Long.toString(result.maxNanos()));
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "MatchDayLoad baseline");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save baseline " + file, e);
+        }
+    }
+
+    static LoadReport load(Path file) {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read baseline " + file, e);
+        }
+        final List<OpResult> operations = new ArrayList<>();
+        for (MatchDayLoad.Op op : MatchDayLoad.Op.values()) {
+            final String prefix = op.name() + ".";
+            if (properties.getProperty(prefix + "count") != null) {
+                operations.add(new OpResult(op.name(),
+                        Long.parseLong(properties.getProperty(prefix + "count")),
+                        Long.parseLong(properties.getProperty(prefix + "errors")),
+                        Double.parseDouble(properties.getProperty(prefix + "throughput")),
+                        Long.parseLong(properties.getProperty(prefix + "p50")),
+                        Long.parseLong(properties.getProperty(prefix + "p99")),
+                        Long.parseLong(properties.getProperty(prefix + "p999")),
+                        Long.parseLong(properties.getProperty(prefix + "max"))));
+            }
+        }
+        return new LoadReport(properties.getProperty("config"), Double.parseDouble(properties.getProperty("seconds")),
+                operations, Long.parseLong(properties.getProperty("gc.collections")),
+                Long.parseLong(properties.getProperty("gc.millis")),
+                Double.parseDouble(properties.getProperty("summary.hitRatio")),
+                Long.parseLong(properties.getProperty("liveMatches")));
+    }
+
+    /**
+     * Prints the change of every operation against {@code baseline} and returns {@code false} when one of them lost
+     * more than {@code tolerance} of its throughput, or its p99 latency grew by more than that.
+     */
+    boolean compareTo(LoadReport baseline, double tolerance, PrintStream out) {
+        if (!baseline.config().equals(config)) {
+            out.printf("%nBaseline ran with a different configuration:%n  %s%n", baseline.config());
+        }
+        out.printf("%n%-11s %12s %12s %12s%n", "vs baseline", "Ops/s", "p99", "Errors");
+        boolean passed = true;
+        for (OpResult result : operations) {
+            final OpResult before = baseline.operations().stream()
+                    .filter(candidate -> candidate.op().equals(result.op()))
+                    .findFirst()
+                    .orElse(null);
+            if (before == null || before.count() == 0) {
+                out.printf("%-11s %12s%n", result.op(), "no baseline");
+                continue;
+            }
+            final double throughput = change(before.throughput(), result.throughput());
+            final double p99 = change(before.p99Nanos(), result.p99Nanos());
+            final boolean regressed = throughput < -tolerance || p99 > tolerance;
+            passed &= !regressed;
+            out.printf("%-11s %+11.1f%% %+11.1f%% %+11.2f%%%s%n", result.op(), throughput * 100, p99 * 100,
+                    (result.errorRate() - before.errorRate()) * 100, regressed ? "  REGRESSED" : "");
+        }
+        out.printf("GC time %d ms -> %d ms%n", baseline.gcMillis(), gcMillis);
+        return passed;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+}
@@ -0,0 +1,342 @@
+package pl.jakubtworek;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Soak test that plays a tournament day against one {@link FootballScoreBoard}, as opposed to the JMH benchmarks,
+ * which each time a single operation in a steady state.
+ *
+ * <p>Every match slot plays back-to-back matches of {@code match-length}, with kick-offs staggered so that matches
+ * overlap at every stage. Goals arrive as a Poisson process averaging {@code goals-per-match} per match, and a share
+ * of them is taken back by a correction a few seconds later. Writers own disjoint sets of matches and run each event
+ * at its scheduled time; steady readers poll the summary, and every {@code burst-every} a crowd of
+ * {@code burst-readers} asks for it at the same instant. Latencies are service times of the board calls, recorded
+ * after {@code warmup}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@load -Dload.args="--duration=10m --threads=virtual --save-baseline=base.properties"
+ * mvn -Pjmh test-compile exec:exec@load -Dload.args="--duration=10m --threads=virtual --baseline=base.properties"
+ * </pre>
+ *
+ * Run against a baseline, the harness exits with status 1 when any operation lost more throughput or gained more p99
+ * latency than {@code tolerance}.
+ */
+public final class MatchDayLoad {
+
+    enum Op { START, GOAL, CORRECTION, FINISH, SUMMARY }
+
+    record Config(Duration duration, Duration warmup, int matches, int writers, int readers, Duration readInterval,
+                  int burstReaders, Duration burstEvery, Duration matchLength, double goalsPerMatch,
+                  double correctionRate, boolean virtualThreads, Path baseline, Path saveBaseline, double tolerance) {
+
+        static Config parse(String[] args) {
+            final Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            final Config config = new Config(
+                    duration(take(options, "duration", "60s")),
+                    duration(take(options, "warmup", "10s")),
+                    Integer.parseInt(take(options, "matches", "2000")),
+                    Integer.parseInt(take(options, "writers", "8")),
+                    Integer.parseInt(take(options, "readers", "4")),
+                    duration(take(options, "read-interval", "1ms")),
+                    Integer.parseInt(take(options, "burst-readers", "500")),
+                    duration(take(options, "burst-every", "5s")),
+                    duration(take(options, "match-length", "90s")),
+                    Double.parseDouble(take(options, "goals-per-match", "2.7")),
+                    Double.parseDouble(take(options, "correction-rate", "0.05")),
+                    switch (take(options, "threads", "platform")) {
+                        case "platform" -> false;
+                        case "virtual" -> true;
+                        default -> throw new IllegalArgumentException("--threads must be platform or virtual");
+                    },
+                    path(take(options, "baseline", null)),
+                    path(take(options, "save-baseline", null)),
+                    Double.parseDouble(take(options, "tolerance", "0.2")));
+            if (!options.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options " + options.keySet());
+            }
+            if (config.matches() < 1 || config.writers() < 1 || config.readers() < 0 || config.burstReaders() < 0) {
+                throw new IllegalArgumentException("Matches and writers must be positive, readers not negative");
+            }
+            return config;
+        }
+
+        /**
+         * The workload settings, which decide whether two runs are comparable.
+         */
+        String workload() {
+            return String.format("%s after %s warmup, %d matches of %s with %.1f goals (%.0f%% corrected), %d writers, "
+                            + "%d readers every %s, %d burst readers every %s, %s threads",
+                    duration, warmup, matches, matchLength, goalsPerMatch, correctionRate * 100, writers, readers,
+                    readInterval, burstReaders, burstEvery, virtualThreads ? "virtual" : "platform");
+        }
+
+        private static String take(Map<String, String> options, String name, String defaultValue) {
+            final String value = options.remove(name);
+            return value == null ? defaultValue : value;
+        }
+
+        private static Duration duration(String text) {
+            final int unit = text.length() - (text.endsWith("ms") ? 2 : 1);
+            final long amount = Long.parseLong(text.substring(0, unit));
+            return switch (text.substring(unit)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                case "m" -> Duration.ofMinutes(amount);
+                case "h" -> Duration.ofHours(amount);
+                default -> throw new IllegalArgumentException("Duration needs a unit of ms, s, m or h: " + text);
+            };
+        }
+
+        private static Path path(String value) {
+            return value == null ? null : Path.of(value);
+        }
+    }
+
+    /**
+     * Latencies and failures of one measurement window; replaced wholesale when the warmup ends.
+     */
+    private static final class Recorder {
+        final LatencyHistogram[] latencies = new LatencyHistogram[Op.values().length];
+        final LongAdder[] errors = new LongAdder[Op.values().length];
+
+        Recorder() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+                errors[i] = new LongAdder();
+            }
+        }
+    }
+
+    private record Event(long due, int match, Op op) {}
+
+    private static final long MAX_PARK_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final Config config;
+    private final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+    private volatile Recorder recorder = new Recorder();
+    private volatile boolean running = true;
+
+    private MatchDayLoad(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Config config = Config.parse(args);
+        final LoadReport report = new MatchDayLoad(config).run();
+        report.print(System.out);
+        if (config.saveBaseline() != null) {
+            report.save(config.saveBaseline());
+            System.out.println("Baseline saved to " + config.saveBaseline());
+        }
+        if (config.baseline() != null && !report.compareTo(LoadReport.load(config.baseline()), config.tolerance(), System.out)) {
+            System.exit(1);
+        }
+    }
+
+    private LoadReport run() throws InterruptedException {
+        final ThreadFactory threads = config.virtualThreads()
+                ? Thread.ofVirtual().name("load-", 0).factory()
+                : Thread.ofPlatform().name("load-", 0).factory();
+        final long start = System.nanoTime();
+        final List<Thread> workers = new ArrayList<>();
+        for (int writer = 0; writer < config.writers(); writer++) {
+            final int id = writer;
+            workers.add(threads.newThread(() -> write(id, start)));
+        }
+        for (int reader = 0; reader < config.readers(); reader++) {
+            workers.add(threads.newThread(this::read));
+        }
+        workers.add(threads.newThread(() -> burst(threads)));
+        workers.forEach(Thread::start);
+
+        Thread.sleep(config.warmup());
+        recorder = new Recorder();
+        final long gcCount = gcCount();
+        final long gcMillis = gcMillis();
+        final long measuredFrom = System.nanoTime();
+        Thread.sleep(config.duration());
+        final Recorder measured = recorder;
+        final double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+        final long gcCollections = gcCount() - gcCount;
+        final long gcTime = gcMillis() - gcMillis;
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        final List<LoadReport.OpResult> results = new ArrayList<>();
+        for (Op op : Op.values()) {
+            results.add(LoadReport.OpResult.of(op.name(), measured.latencies[op.ordinal()].stats(),
+                    measured.errors[op.ordinal()].sum(), seconds));
+        }
+        final ScoreBoardStats boardStats = board.getStats();
+        return new LoadReport(config.workload(), seconds, results, gcCollections, gcTime,
+                boardStats.summaryCacheHitRatio(), boardStats.liveMatches());
+    }
+
+    /**
+     * Plays the matches {@code writer}, {@code writer + writers}, ... from one event queue ordered by due time.
+     */
+    private void write(int writer, long start) {
+        final Random random = new Random(writer);
+        final long matchLength = config.matchLength().toNanos();
+        final long pause = matchLength / 10;
+        final double goalsPerNano = config.goalsPerMatch() / matchLength;
+        final int[] homeScore = new int[config.matches()];
+        final int[] awayScore = new int[config.matches()];
+        final long[] finishAt = new long[config.matches()];
+        final PriorityQueue<Event> events = new PriorityQueue<>(Comparator.comparingLong(Event::due));
+        for (int match = writer; match < config.matches(); match += config.writers()) {
+            events.add(new Event(start + (long) (random.nextDouble() * (matchLength + pause)), match, Op.START));
+        }
+
+        while (running && !events.isEmpty()) {
+            final Event event = events.peek();
+            final long now = System.nanoTime();
+            if (event.due() > now) {
+                LockSupport.parkNanos(Math.min(event.due() - now, MAX_PARK_NANOS));
+                continue;
+            }
+            events.poll();
+            final int match = event.match();
+            final String home = "Team " + 2 * match;
+            final String away = "Team " + (2 * match + 1);
+            switch (event.op()) {
+                case START -> {
+                    homeScore[match] = 0;
+                    awayScore[match] = 0;
+                    finishAt[match] = now + matchLength;
+                    timed(Op.START, () -> board.startGame(home, away));
+                    events.add(new Event(finishAt[match], match, Op.FINISH));
+                    scheduleGoal(events, random, match, now, finishAt[match], goalsPerNano);
+                }
+                case GOAL -> {
+                    if (random.nextBoolean()) {
+                        homeScore[match]++;
+                    } else {
+                        awayScore[match]++;
+                    }
+                    final int h = homeScore[match];
+                    final int a = awayScore[match];
+                    timed(Op.GOAL, () -> board.updateScore(home, away, h, a));
+                    if (random.nextDouble() < config.correctionRate()) {
+                        final long due = now + Duration.ofSeconds(2 + random.nextInt(4)).toNanos();
+                        if (due < finishAt[match]) {
+                            events.add(new Event(due, match, Op.CORRECTION));
+                        }
+                    }
+                    scheduleGoal(events, random, match, now, finishAt[match], goalsPerNano);
+                }
+                case CORRECTION -> {
+                    if (homeScore[match] >= awayScore[match] && homeScore[match] > 0) {
+                        homeScore[match]--;
+                    } else if (awayScore[match] > 0) {
+                        awayScore[match]--;
+                    }
+                    final int h = homeScore[match];
+                    final int a = awayScore[match];
+                    timed(Op.CORRECTION, () -> board.updateScore(home, away, h, a));
+                }
+                case FINISH -> {
+                    timed(Op.FINISH, () -> board.finishGame(home, away));
+                    events.add(new Event(now + pause, match, Op.START));
+                }
+                case SUMMARY -> throw new IllegalStateException("Writers do not read");
+            }
+        }
+    }
+
+    private static void scheduleGoal(PriorityQueue<Event> events, Random random, int match, long now, long finishAt,
+                                     double goalsPerNano) {
+        final long due = now + (long) (-Math.log(1 - random.nextDouble()) / goalsPerNano);
+        if (due < finishAt) {
+            events.add(new Event(due, match, Op.GOAL));
+        }
+    }
+
+    private void read() {
+        final long interval = config.readInterval().toNanos();
+        while (running) {
+            timed(Op.SUMMARY, board::getSummary);
+            LockSupport.parkNanos(interval);
+        }
+    }
+
+    /**
+     * Every {@code burst-every}, starts {@code burst-readers} threads that read the summary together.
+     */
+    private void burst(ThreadFactory threads) {
+        final long every = config.burstEvery().toNanos();
+        long next = System.nanoTime() + every;
+        while (running) {
+            LockSupport.parkNanos(Math.min(next - System.nanoTime(), MAX_PARK_NANOS));
+            if (!running || config.burstReaders() == 0 || System.nanoTime() < next) {
+                continue;
+            }
+            next += every;
+            final CountDownLatch go = new CountDownLatch(1);
+            final List<Thread> crowd = new ArrayList<>(config.burstReaders());
+            for (int i = 0; i < config.burstReaders(); i++) {
+                final Thread reader = threads.newThread(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    timed(Op.SUMMARY, board::getSummary);
+                });
+                reader.start();
+                crowd.add(reader);
+            }
+            go.countDown();
+            for (Thread reader : crowd) {
+                try {
+                    reader.join();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void timed(Op op, Runnable call) {
+        final Recorder current = recorder;
+        final long started = System.nanoTime();
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            current.errors[op.ordinal()].increment();
+        }
+        current.latencies[op.ordinal()].recordSince(started);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
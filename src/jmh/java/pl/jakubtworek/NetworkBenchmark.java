@@ -0,0 +1,92 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Board operations through a {@link ScoreBoardServer} on loopback, one {@link ScoreBoardClient} connection per
+ * benchmark thread: one request per round trip against {@value #PIPELINE} requests in flight. Run with {@code -t 16}
+ * or more to see many concurrent clients.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkBenchmark {
+    private static final int PIPELINE = 64;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        FootballScoreBoard board;
+        ScoreBoardServer server;
+        final AtomicInteger clients = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            board = new FootballScoreBoard(MatchRepository.inMemory());
+            server = ScoreBoardServer.start(board, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            for (int i = 0; i < 1_000; i++) {
+                board.startGame("Background " + i, "Opponent " + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        ScoreBoardClient client;
+        String homeTeam;
+        String awayTeam;
+        int goals;
+        final CompletableFuture<?>[] inFlight = new CompletableFuture<?>[PIPELINE];
+
+        @Setup(Level.Trial)
+        public void setUp(Server server) {
+            client = ScoreBoardClient.connect(server.server.address());
+            final int id = server.clients.incrementAndGet();
+            homeTeam = "Client Home " + id;
+            awayTeam = "Client Away " + id;
+            client.startGame(homeTeam, awayTeam);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+        }
+
+        int nextScore() {
+            goals = goals == MatchSlot.MAX_SCORE ? 1 : goals + 1;
+            return goals;
+        }
+    }
+
+    @Benchmark
+    public void updateRoundTrip(Client state) {
+        state.client.updateScore(state.homeTeam, state.awayTeam, state.nextScore(), 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public void updatePipelined(Client state) {
+        for (int i = 0; i < PIPELINE; i++) {
+            state.inFlight[i] = state.client.updateScoreAsync(state.homeTeam, state.awayTeam, state.nextScore(), 0);
+        }
+        CompletableFuture.allOf(state.inFlight).join();
+    }
+
+    @Benchmark
+    public List<MatchRecord> summaryRoundTrip(Client state) {
+        return state.client.getSummary();
+    }
+}
@@ -0,0 +1,59 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Score updates on a primary with one follower on loopback, not waiting for it against waiting for its
+ * acknowledgement of every write.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplicationBenchmark {
+    private static final InetSocketAddress ANY_PORT = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Param({"0", "1"})
+    private int syncFollowers;
+
+    private ReplicatedScoreBoard primary;
+    private ReplicatedScoreBoard follower;
+    private FootballScoreBoard board;
+    private int goals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primary = ReplicatedScoreBoard.primary(ANY_PORT, syncFollowers, Duration.ofSeconds(1));
+        follower = ReplicatedScoreBoard.follower(ANY_PORT, primary.replicationAddress());
+        board = primary.board();
+        for (int i = 0; i < 1_000; i++) {
+            board.startGame("Background " + i, "Opponent " + i);
+        }
+        board.startGame("Replicated Home", "Replicated Away");
+        while (primary.getReplicationStats().followers().isEmpty()) {
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(primary.getReplicationStats());
+        follower.close();
+        primary.close();
+    }
+
+    @Benchmark
+    public void updateScore() {
+        goals = goals == MatchSlot.MAX_SCORE ? 1 : goals + 1;
+        board.updateScore("Replicated Home", "Replicated Away", goals, 0);
+    }
+}
@@ -0,0 +1,168 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the public {@link FootballScoreBoard} operations. Run with {@code -prof gc}
+ * (the profile default) to get the allocation rate next to each score.
+ *
+ * <p>Every writer thread owns a disjoint stripe of the pre-started matches, so the numbers
+ * measure the board rather than optimistic-lock retries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreBoardBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Board {
+        @Param({"100", "1000", "10000"})
+        int boardSize;
+
+        FootballScoreBoard board;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MatchRepository.getInstance().clear();
+            board = new FootballScoreBoard(MatchRepository.getInstance());
+            for (int i = 0; i < boardSize; i++) {
+                board.startGame(homeTeam(i), awayTeam(i));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MatchRepository.getInstance().clear();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private int first;
+        private int count;
+        private int cursor;
+        private int[] homeScores;
+        private int thread;
+        private long games;
+
+        @Setup(Level.Trial)
+        public void setUp(Board board, ThreadParams params) {
+            // group-wide numbering: subgroups of different sizes (lifecycleMix runs 2/4/2) must not share stripes
+            final int stripes = params.getGroupCount() * params.getGroupThreadCount();
+            final int stripe = params.getGroupIndex() * params.getGroupThreadCount() + params.getGroupThreadIndex();
+            thread = params.getThreadIndex();
+            count = Math.max(1, board.boardSize / stripes);
+            first = Math.min(stripe * count, board.boardSize - count);
+            homeScores = new int[count];
+        }
+
+        void updateNext(FootballScoreBoard board) {
+            final int slot = cursor++ % count;
+            final int match = first + slot;
+            board.updateScore(homeTeam(match), awayTeam(match), ++homeScores[slot] & MatchSlot.MAX_SCORE, 0);
+        }
+
+        void startAndFinishNext(FootballScoreBoard board) {
+            final String home = "Guest " + thread + " " + games;
+            final String away = "Visitor " + thread + " " + games++;
+            board.startGame(home, away);
+            board.finishGame(home, away);
+        }
+    }
+
+    @Benchmark
+    public void updateScore(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+
+    @Benchmark
+    public void startAndFinishGame(Board board, Writer writer) {
+        writer.startAndFinishNext(board.board);
+    }
+
+    @Benchmark
+    public List<MatchRecord> summaryCacheHit(Board board) {
+        return board.board.getSummary();
+    }
+
+    @Benchmark
+    public List<MatchRecord> summaryCacheMiss(Board board, Writer writer) {
+        writer.updateNext(board.board);
+        return board.board.getSummary();
+    }
+
+    @Benchmark
+    public List<MatchRecord> topTenAfterUpdate(Board board, Writer writer) {
+        writer.updateNext(board.board);
+        return board.board.getTopSummary(10);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void updateScoreContended(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(7)
+    public List<MatchRecord> readHeavyReader(Board board) {
+        return board.board.getSummary();
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public void readHeavyWriter(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(1)
+    public List<MatchRecord> writeHeavyReader(Board board) {
+        return board.board.getSummary();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(7)
+    public void writeHeavyWriter(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+
+    @Benchmark
+    @Group("lifecycleMix")
+    @GroupThreads(2)
+    public void lifecycleMixStartFinish(Board board, Writer writer) {
+        writer.startAndFinishNext(board.board);
+    }
+
+    @Benchmark
+    @Group("lifecycleMix")
+    @GroupThreads(4)
+    public void lifecycleMixUpdate(Board board, Writer writer) {
+        writer.updateNext(board.board);
+    }
+
+    @Benchmark
+    @Group("lifecycleMix")
+    @GroupThreads(2)
+    public List<MatchRecord> lifecycleMixSummary(Board board) {
+        return board.board.getSummary();
+    }
+
+    static String homeTeam(int match) {
+        return "Home " + match;
+    }
+
+    static String awayTeam(int match) {
+        return "Away " + match;
+    }
+}
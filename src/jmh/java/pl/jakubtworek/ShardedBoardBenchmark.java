@@ -0,0 +1,76 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and global summary reads on a {@link ShardedScoreBoard} holding 10k matches split across 1 or 8
+ * competitions. Writer threads score disjoint matches; run with {@code -t} to compare contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedBoardBenchmark {
+    private static final int MATCHES = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class Board {
+        @Param({"1", "8"})
+        int competitions;
+
+        ShardedScoreBoard board;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            board = new ShardedScoreBoard();
+            for (int i = 0; i < MATCHES; i++) {
+                board.competition(competition(i % competitions)).startGame("Home " + i, "Away " + i);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private ShardedScoreBoard board;
+        private int competitions;
+        private int thread;
+        private int threads;
+        private int[] goals;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(Board board, ThreadParams params) {
+            this.board = board.board;
+            competitions = board.competitions;
+            thread = params.getThreadIndex();
+            threads = params.getThreadCount();
+            goals = new int[MATCHES / threads];
+        }
+
+        void scoreNext() {
+            final int slot = cursor++ % goals.length;
+            final int match = thread + threads * slot;
+            board.competition(competition(match % competitions)).updateScore("Home " + match, "Away " + match, ++goals[slot] & MatchSlot.MAX_SCORE, 0);
+        }
+    }
+
+    @Benchmark
+    public void updateScore(Writer writer) {
+        writer.scoreNext();
+    }
+
+    @Benchmark
+    public List<MatchRecord> updateThenGlobalSummary(Board board, Writer writer) {
+        writer.scoreNext();
+        return board.board.getSummary();
+    }
+
+    private static String competition(int index) {
+        return "Competition " + index;
+    }
+}
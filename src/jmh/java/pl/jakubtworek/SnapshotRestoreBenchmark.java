@@ -0,0 +1,63 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Warm restart time: load the latest snapshot and replay the (empty) journal tail into a fresh repository.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SnapshotRestoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int liveMatches;
+
+    private Path directory;
+    private JournalConfig journalConfig;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        try {
+            directory = Files.createTempDirectory("scoreboard-snapshot");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        journalConfig = JournalConfig.of(directory.resolve("journal"), FsyncPolicy.NEVER);
+        try (var journal = MatchJournal.open(journalConfig); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var repository = MatchRepository.journaled(journal);
+            for (int i = 0; i < liveMatches; i++) {
+                final var match = new Match("Home " + i, "Away " + i);
+                repository.save(match);
+                repository.update(match, match.withUpdatedScore(i % 7, i % 5 + 1));
+            }
+            snapshots.write(repository, journal);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public MatchRepository restore() {
+        try (var journal = MatchJournal.open(journalConfig); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            return MatchRepository.journaled(journal, snapshots);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap-backed against off-heap match storage with 100k / 1M live matches. {@code fullGc} times a full collection
+ * with the board populated, i.e. how much of the board the collector has to trace; the setup prints the heap each
+ * live match retains. Run with {@code -prof gc} for the allocation rate of the update and lookup paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+
+    @Param({"heap", "offHeap"})
+    private String storage;
+
+    @Param({"100000", "1000000"})
+    private int liveMatches;
+
+    private MatchRepository repository;
+    private String[] homeTeams;
+    private String[] awayTeams;
+    private int[] goals;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        homeTeams = new String[liveMatches];
+        awayTeams = new String[liveMatches];
+        goals = new int[liveMatches];
+        for (int i = 0; i < liveMatches; i++) {
+            homeTeams[i] = "Home " + i;
+            awayTeams[i] = "Away " + i;
+            MatchKey.of(homeTeams[i], awayTeams[i]);
+        }
+
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        final long before = memory.getHeapMemoryUsage().getUsed();
+        repository = storage.equals("offHeap") ? MatchRepository.offHeap(liveMatches) : MatchRepository.inMemory();
+        for (int i = 0; i < liveMatches; i++) {
+            repository.save(new Match(homeTeams[i], awayTeams[i]));
+        }
+        System.gc();
+        final long after = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%s: %d heap bytes per live match%n", storage, (after - before) / liveMatches);
+    }
+
+    @Benchmark
+    public CommandResult updateScore() {
+        final int slot = next++ % liveMatches;
+        return repository.updateScore(homeTeams[slot], awayTeams[slot], ++goals[slot] & MatchSlot.MAX_SCORE, 0, 0);
+    }
+
+    @Benchmark
+    public Match findBy() {
+        final int slot = next++ % liveMatches;
+        return repository.find(homeTeams[slot], awayTeams[slot]);
+    }
+
+    @Benchmark
+    public List<MatchRecord> topTen() {
+        return repository.findTop(10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 10)
+    public void fullGc() {
+        System.gc();
+    }
+}
@@ -0,0 +1,54 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serving an unchanged summary as bytes: encoding it on every request, as the HTTP layer did, against the buffer
+ * cached per summary version.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SummaryEncodingBenchmark {
+
+    @Param({"100", "1000"})
+    private int liveMatches;
+
+    private FootballScoreBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final MatchRepository repository = MatchRepository.inMemory();
+        board = new FootballScoreBoard(repository);
+        for (int i = 0; i < liveMatches; i++) {
+            board.startGame("Home " + i, "Away " + i);
+            board.updateScore("Home " + i, "Away " + i, 1 + i % 5, i % 3);
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer jsonPerRequest() {
+        return ByteBuffer.wrap(SummaryEncoder.JSON.encode(board.getSummary()));
+    }
+
+    @Benchmark
+    public ByteBuffer jsonCached() {
+        return board.getEncodedSummary(SummaryEncoder.JSON);
+    }
+
+    @Benchmark
+    public ByteBuffer binaryPerRequest() {
+        return ByteBuffer.wrap(SummaryEncoder.BINARY.encode(board.getSummary()));
+    }
+
+    @Benchmark
+    public ByteBuffer binaryCached() {
+        return board.getEncodedSummary(SummaryEncoder.BINARY);
+    }
+}
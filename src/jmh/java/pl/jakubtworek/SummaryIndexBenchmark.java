@@ -0,0 +1,69 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one goal followed by a summary read: the incrementally maintained summary index
+ * against the previous copy-and-sort of every live match.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SummaryIndexBenchmark {
+
+    @Param({"10000", "100000"})
+    private int liveMatches;
+
+    private MatchRepository repository;
+    private Match[] live;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = MatchRepository.getInstance();
+        repository.clear();
+        live = new Match[liveMatches];
+        for (int i = 0; i < liveMatches; i++) {
+            live[i] = new Match("Home " + i, "Away " + i);
+            repository.save(live[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.clear();
+    }
+
+    @Benchmark
+    public List<MatchRecord> goalThenIndexedSummary() {
+        scoreGoal();
+        return repository.findAllByOrderByTotalScoreDescAddedAtDesc();
+    }
+
+    @Benchmark
+    public List<MatchRecord> goalThenFullResort() {
+        scoreGoal();
+        final List<Match> snapshot = new ArrayList<>(Arrays.asList(live));
+        return snapshot.stream()
+                .sorted(Match.SORT_BY_SCORE_THEN_TIME_DESC)
+                .map(Match::toRecord)
+                .toList();
+    }
+
+    private void scoreGoal() {
+        final int slot = next++ % liveMatches;
+        final Match current = live[slot];
+        final MatchRecord record = current.toRecord();
+        final Match updated = current.withUpdatedScore((record.homeScore() + 1) & MatchSlot.MAX_SCORE, record.awayScore());
+        repository.update(current, updated);
+        live[slot] = updated;
+    }
+}
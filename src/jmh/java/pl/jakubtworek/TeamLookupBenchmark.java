@@ -0,0 +1,80 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving a match from the team names a caller passes in: the dictionary-encoded key against the
+ * previous key of two lower-cased strings, plus a whole score update through the board.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TeamLookupBenchmark {
+
+    @Param({"1000"})
+    private int liveMatches;
+
+    private MatchRepository repository;
+    private FootballScoreBoard board;
+    private Map<StringKey, Match> stringKeyed;
+    private String[] homeTeams;
+    private String[] awayTeams;
+    private int[] goals;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = MatchRepository.getInstance();
+        repository.clear();
+        board = new FootballScoreBoard(repository);
+        stringKeyed = new ConcurrentHashMap<>();
+        homeTeams = new String[liveMatches];
+        awayTeams = new String[liveMatches];
+        goals = new int[liveMatches];
+        for (int i = 0; i < liveMatches; i++) {
+            homeTeams[i] = "Home Team " + i;
+            awayTeams[i] = "Away Team " + i;
+            board.startGame(homeTeams[i], awayTeams[i]);
+            stringKeyed.put(StringKey.of(homeTeams[i], awayTeams[i]), repository.findBy(homeTeams[i], awayTeams[i]).orElseThrow());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.clear();
+    }
+
+    @Benchmark
+    public Optional<Match> findByDictionaryKey() {
+        final int slot = next++ % liveMatches;
+        return repository.findBy(homeTeams[slot], awayTeams[slot]);
+    }
+
+    @Benchmark
+    public Match findByStringKey() {
+        final int slot = next++ % liveMatches;
+        return stringKeyed.get(StringKey.of(homeTeams[slot], awayTeams[slot]));
+    }
+
+    @Benchmark
+    public void updateScore() {
+        final int slot = next++ % liveMatches;
+        board.updateScore(homeTeams[slot], awayTeams[slot], ++goals[slot] & MatchSlot.MAX_SCORE, 0);
+    }
+
+    private record StringKey(String team1, String team2) {
+        static StringKey of(String t1, String t2) {
+            final String a = t1.toLowerCase();
+            final String b = t2.toLowerCase();
+            return a.compareTo(b) <= 0 ? new StringKey(a, b) : new StringKey(b, a);
+        }
+    }
+}
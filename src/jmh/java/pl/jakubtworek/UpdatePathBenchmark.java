@@ -0,0 +1,94 @@
+package pl.jakubtworek;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwing {@code updateScore} against result-code {@code tryUpdateScore} on a successful update and on the two
+ * routine rejections of a score feed: an unknown match and a repeated score. Run with {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UpdatePathBenchmark {
+
+    @Param({"1000"})
+    private int liveMatches;
+
+    private MatchRepository repository;
+    private FootballScoreBoard board;
+    private String[] homeTeams;
+    private String[] awayTeams;
+    private int[] goals;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = MatchRepository.getInstance();
+        repository.clear();
+        board = new FootballScoreBoard(repository);
+        homeTeams = new String[liveMatches];
+        awayTeams = new String[liveMatches];
+        goals = new int[liveMatches];
+        for (int i = 0; i < liveMatches; i++) {
+            homeTeams[i] = "Home " + i;
+            awayTeams[i] = "Away " + i;
+            board.startGame(homeTeams[i], awayTeams[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.clear();
+    }
+
+    @Benchmark
+    public void updateScore() {
+        final int slot = next++ % liveMatches;
+        board.updateScore(homeTeams[slot], awayTeams[slot], ++goals[slot] & MatchSlot.MAX_SCORE, 0);
+    }
+
+    @Benchmark
+    public CommandResult tryUpdateScore() {
+        final int slot = next++ % liveMatches;
+        return board.tryUpdateScore(homeTeams[slot], awayTeams[slot], ++goals[slot] & MatchSlot.MAX_SCORE, 0);
+    }
+
+    @Benchmark
+    public Object updateScoreNotFound() {
+        final int slot = next++ % liveMatches;
+        try {
+            board.updateScore(homeTeams[slot], homeTeams[(slot + 1) % liveMatches], 1, 0);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public CommandResult tryUpdateScoreNotFound() {
+        final int slot = next++ % liveMatches;
+        return board.tryUpdateScore(homeTeams[slot], homeTeams[(slot + 1) % liveMatches], 1, 0);
+    }
+
+    @Benchmark
+    public Object updateScoreUnchanged() {
+        final int slot = next++ % liveMatches;
+        try {
+            board.updateScore(homeTeams[slot], awayTeams[slot], goals[slot] & MatchSlot.MAX_SCORE, 0);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public CommandResult tryUpdateScoreUnchanged() {
+        final int slot = next++ % liveMatches;
+        return board.tryUpdateScore(homeTeams[slot], awayTeams[slot], goals[slot] & MatchSlot.MAX_SCORE, 0);
+    }
+}
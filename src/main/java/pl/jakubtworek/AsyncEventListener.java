@@ -0,0 +1,147 @@
+package pl.jakubtworek;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes events on a background thread. The calling thread only claims a slot in a lock-free ring buffer;
+ * formatting and I/O happen in batches with one flush per batch. When the ring is full the event is dropped
+ * and counted rather than blocking the writer. Output failures are counted as dropped events and the latest
+ * one is kept for {@link #lastFailure()}.
+ */
+public final class AsyncEventListener implements ScoreBoardEventListener, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MpscRingBuffer<ScoreBoardEvent> ring;
+    private final Writer out;
+    private final boolean ownsWriter;
+    private final LongAdder dropped = new LongAdder();
+    private final FailureRecorder failures = new FailureRecorder();
+    private final StringBuilder line = new StringBuilder(128);
+    private int unwritten;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    AsyncEventListener(Writer out, boolean ownsWriter, int capacity) {
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.out = out;
+        this.ownsWriter = ownsWriter;
+        this.drainer = Thread.ofPlatform()
+                .name("scoreboard-events")
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    public static AsyncEventListener toStdout() {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+        return new AsyncEventListener(writer, false, DEFAULT_CAPACITY);
+    }
+
+    public static AsyncEventListener toFile(Path file) throws IOException {
+        final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new AsyncEventListener(writer, true, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void onEvent(ScoreBoardEvent event) {
+        if (!running || !ring.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    public Optional<Exception> lastFailure() {
+        return failures.last();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // events offered by callers that saw running just before close() may land after the drainer's last batch
+        int leftover;
+        while ((leftover = ring.drain(event -> { }, BATCH_SIZE)) > 0) {
+            dropped.add(leftover);
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        while (drainBatch() > 0) {
+            // flush whatever was published before close()
+        }
+        try {
+            if (ownsWriter) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            failures.record(e);
+        }
+    }
+
+    private int drainBatch() {
+        unwritten = 0;
+        final int drained = ring.drain(this::write, BATCH_SIZE);
+        if (drained > 0) {
+            try {
+                out.flush();
+                dropped.add(unwritten);
+            } catch (IOException e) {
+                // what the flush did not get out is unknown, so the whole batch counts as dropped
+                dropped.add(drained);
+                failures.record(e);
+            }
+        }
+        return drained;
+    }
+
+    private void write(ScoreBoardEvent event) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(event.timestamp())).append(' ');
+        switch (event) {
+            case ScoreBoardEvent.GameStarted e ->
+                    line.append("Starting game: ").append(e.homeTeam()).append(" vs ").append(e.awayTeam());
+            case ScoreBoardEvent.ScoreUpdated e ->
+                    line.append("Updating score for: ").append(e.homeTeam()).append(" vs ").append(e.awayTeam())
+                            .append(" → ").append(e.homeScore()).append(':').append(e.awayScore());
+            case ScoreBoardEvent.GameFinished e ->
+                    line.append("Finishing game: ").append(e.homeTeam()).append(" vs ").append(e.awayTeam());
+            case ScoreBoardEvent.OperationRejected e ->
+                    line.append(e.operation()).append(" failed for ").append(e.homeTeam()).append(" vs ").append(e.awayTeam())
+                            .append(": ").append(e.reason());
+        }
+        line.append(System.lineSeparator());
+        try {
+            out.append(line);
+        } catch (IOException e) {
+            unwritten++;
+            failures.record(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package pl.jakubtworek;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BinarySummaryEncoder implements SummaryEncoder {
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    @Override
+    public byte[] encode(List<MatchRecord> summary) {
+        final byte[][] names = new byte[summary.size() * 2][];
+        int size = Integer.BYTES;
+        for (int i = 0; i < summary.size(); i++) {
+            names[2 * i] = name(summary.get(i).homeTeam());
+            names[2 * i + 1] = name(summary.get(i).awayTeam());
+            size += 4 * Short.BYTES + names[2 * i].length + names[2 * i + 1].length;
+        }
+
+        final ByteBuffer out = ByteBuffer.allocate(size).putInt(summary.size());
+        for (int i = 0; i < summary.size(); i++) {
+            final MatchRecord match = summary.get(i);
+            out.putShort((short) names[2 * i].length).put(names[2 * i]);
+            out.putShort((short) names[2 * i + 1].length).put(names[2 * i + 1]);
+            out.putShort((short) match.homeScore()).putShort((short) match.awayScore());
+        }
+        return out.array();
+    }
+
+    /**
+     * Reads a summary written by {@link #encode}, advancing {@code in} past it.
+     */
+    static List<MatchRecord> decode(ByteBuffer in) {
+        final int count = in.getInt();
+        final List<MatchRecord> summary = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String homeTeam = readName(in);
+            final String awayTeam = readName(in);
+            summary.add(new MatchRecord(homeTeam, awayTeam, Short.toUnsignedInt(in.getShort()), Short.toUnsignedInt(in.getShort())));
+        }
+        return summary;
+    }
+
+    private static byte[] name(String team) {
+        final byte[] bytes = team.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Team name too long to encode: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String readName(ByteBuffer in) {
+        final byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package pl.jakubtworek;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Board version counter plus the most recent changes, kept in a fixed ring indexed by version.
+ *
+ * <p>Writers take the next version and publish their entry into its slot; readers walk the slots from the version
+ * they already have and stop at the first one that is not written yet, so a change is never skipped just because a
+ * later version finished first. A slot holding a newer version than expected means the ring has wrapped past it.
+ */
+final class ChangeLog {
+    private final int mask;
+    private final AtomicReferenceArray<Change> ring;
+    private final AtomicLong version = new AtomicLong();
+
+    ChangeLog(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * Records that the match under {@code key} was started, scored or removed.
+     */
+    void recordChange(MatchKey key, MatchSlot match) {
+        publish(key, match);
+    }
+
+    /**
+     * Records a change that cannot be expressed per match; readers behind it have to start over.
+     */
+    void recordReset() {
+        publish(null, null);
+    }
+
+    /**
+     * Changes made after {@code since}, oldest first, or {@code null} when they are no longer all available.
+     */
+    List<Change> changesSince(long since) {
+        final List<Change> changes = new ArrayList<>();
+        for (long next = since + 1; ; next++) {
+            final Change change = ring.get((int) next & mask);
+            if (change == null || change.version() < next) {
+                return changes;
+            }
+            if (change.version() > next || change.key() == null) {
+                return null;
+            }
+            changes.add(change);
+        }
+    }
+
+    private void publish(MatchKey key, MatchSlot match) {
+        final long next = version.incrementAndGet();
+        ring.set((int) next & mask, new Change(next, key, match));
+    }
+
+    record Change(long version, MatchKey key, MatchSlot match) {}
+}
@@ -0,0 +1,203 @@
+package pl.jakubtworek;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Front stage for bursty score feeds: buffers commands for one tick and applies what is left of them to a
+ * {@link FootballScoreBoard} as a single {@link FootballScoreBoard#applyBatch batch}.
+ *
+ * <p>Within a tick, an update replaces the previous update of the same match (by {@link MatchKey}, so the teams'
+ * order does not matter) unless a start or finish of that match came in between; starts and finishes are never
+ * merged and keep their order. A goal, its VAR correction and a duplicate resend arriving in the same tick thus cost
+ * one write and one summary change. Every command's future completes with the result of the command it was folded
+ * into. Commands naming a team the board has never seen, or failing validation, are passed through unmerged.
+ *
+ * <p>Callers enqueue into a lock-free ring; when it is full they park with a growing back-off, capped at a
+ * millisecond, until the next tick drains it. Futures are completed on the ingestion thread, and only there.
+ */
+public final class CoalescingIngestor implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final FootballScoreBoard board;
+    private final long tickNanos;
+    private final int capacity;
+    private final MpscRingBuffer<Submission> ring;
+    private final List<Submission> drained = new ArrayList<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final Thread ingester;
+    private volatile boolean running = true;
+
+    public CoalescingIngestor(FootballScoreBoard board, Duration tick) {
+        this(board, tick, DEFAULT_CAPACITY);
+    }
+
+    CoalescingIngestor(FootballScoreBoard board, Duration tick, int capacity) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.board = Objects.requireNonNull(board, "board");
+        this.tickNanos = tick.toNanos();
+        this.capacity = capacity;
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.ingester = Thread.ofPlatform()
+                .name("scoreboard-ingestor")
+                .daemon()
+                .start(this::tickLoop);
+    }
+
+    /**
+     * Queues {@code command} for the next tick. Throws {@link IllegalStateException} once the ingestor is closing;
+     * a command accepted before that is always applied.
+     */
+    public CompletableFuture<CommandResult> submit(ScoreCommand command) {
+        Objects.requireNonNull(command, "command");
+        submitting.incrementAndGet();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Ingestor is closed");
+            }
+            final Submission submission = new Submission(command, new CompletableFuture<>());
+            for (long backoff = MIN_BACKOFF_NANOS; !ring.offer(submission); backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS)) {
+                LockSupport.parkNanos(this, backoff);
+            }
+            return submission.result();
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    public IngestionStats getStats() {
+        return new IngestionStats(received.sum(), merged.sum(), applied.sum(), batches.sum());
+    }
+
+    /**
+     * Stops accepting commands, applies everything already queued and waits for the ingestion thread to finish.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ingester);
+        try {
+            ingester.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Folds {@code commands} as described above and returns the batch to apply. {@code into[i]} is set to the index
+     * of the batch command that stands for {@code commands.get(i)}.
+     */
+    static List<ScoreCommand> coalesce(List<ScoreCommand> commands, int[] into) {
+        final List<ScoreCommand> batch = new ArrayList<>(commands.size());
+        final Map<MatchKey, Integer> openUpdates = new HashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            final ScoreCommand command = commands.get(i);
+            final MatchKey key = mergeKey(command);
+            if (key != null) {
+                if (command instanceof ScoreCommand.Update) {
+                    final Integer open = openUpdates.putIfAbsent(key, batch.size());
+                    if (open != null) {
+                        batch.set(open, command);
+                        into[i] = open;
+                        continue;
+                    }
+                } else {
+                    openUpdates.remove(key);
+                }
+            }
+            into[i] = batch.size();
+            batch.add(command);
+        }
+        return batch;
+    }
+
+    /**
+     * Key under which {@code command} may be merged, or {@code null} if it must pass through as it is.
+     */
+    private static MatchKey mergeKey(ScoreCommand command) {
+        if (isBlank(command.homeTeam()) || isBlank(command.awayTeam())) {
+            return null;
+        }
+        if (command instanceof ScoreCommand.Update update && (update.homeScore() < 0 || update.awayScore() < 0
+                || update.homeScore() > MatchSlot.MAX_SCORE || update.awayScore() > MatchSlot.MAX_SCORE)) {
+            return null;
+        }
+        return MatchKey.find(command.homeTeam(), command.awayTeam());
+    }
+
+    private static boolean isBlank(String team) {
+        return team == null || team.isBlank();
+    }
+
+    private void tickLoop() {
+        long nextTick = System.nanoTime() + tickNanos;
+        while (running) {
+            final long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            applyTick();
+            nextTick = Math.max(nextTick + tickNanos, System.nanoTime());
+        }
+        // drain until no submitter that saw the ingestor open is still offering
+        while (true) {
+            final boolean quiet = submitting.get() == 0;
+            if (applyTick() == 0) {
+                if (quiet) {
+                    return;
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    private int applyTick() {
+        final int count = ring.drain(drained::add, capacity);
+        if (count == 0) {
+            return 0;
+        }
+        final List<ScoreCommand> commands = new ArrayList<>(count);
+        for (Submission submission : drained) {
+            commands.add(submission.command());
+        }
+        final int[] into = new int[count];
+        final List<ScoreCommand> batch = coalesce(commands, into);
+        received.add(count);
+        final List<CommandResult> results;
+        try {
+            results = board.applyBatch(batch);
+        } catch (RuntimeException e) {
+            drained.forEach(submission -> submission.result().completeExceptionally(e));
+            drained.clear();
+            return count;
+        }
+        merged.add(count - batch.size());
+        applied.add(batch.size());
+        batches.increment();
+        for (int i = 0; i < count; i++) {
+            drained.get(i).result().complete(results.get(into[i]));
+        }
+        drained.clear();
+        return count;
+    }
+
+    private record Submission(ScoreCommand command, CompletableFuture<CommandResult> result) {}
+}
@@ -0,0 +1,12 @@
+package pl.jakubtworek;
+
+public enum CommandResult {
+    SUCCESS,
+    /** The score is already the requested one; nothing was written. */
+    UNCHANGED,
+    NOT_FOUND,
+    /** A team is already playing, the match already exists, or the match changed concurrently. */
+    CONFLICT,
+    /** The command failed validation and was not attempted. */
+    INVALID
+}
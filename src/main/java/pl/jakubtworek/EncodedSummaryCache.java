@@ -0,0 +1,45 @@
+package pl.jakubtworek;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * One encoder's output for the summary currently served by {@link SummaryCache}. The summary list is the version
+ * key: the summary cache hands out the same instance until a write makes it rebuild, so a reference comparison is
+ * enough to tell whether the bytes are current. Readers arriving together for a new summary encode it once.
+ *
+ * <p>The bytes are copied once into a direct buffer, which a socket channel writes without staging them through a
+ * temporary buffer of its own.
+ */
+final class EncodedSummaryCache {
+    private final SummaryEncoder encoder;
+    private volatile Encoded current;
+
+    EncodedSummaryCache(SummaryEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * A read-only view of the encoded {@code summary} with its own position and limit over the shared bytes.
+     */
+    ByteBuffer get(List<MatchRecord> summary) {
+        Encoded encoded = current;
+        if (encoded == null || encoded.summary() != summary) {
+            encoded = encode(summary);
+        }
+        return encoded.bytes().duplicate();
+    }
+
+    private synchronized Encoded encode(List<MatchRecord> summary) {
+        Encoded encoded = current;
+        if (encoded == null || encoded.summary() != summary) {
+            final byte[] bytes = encoder.encode(summary);
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+            encoded = new Encoded(summary, buffer);
+            current = encoded;
+        }
+        return encoded;
+    }
+
+    private record Encoded(List<MatchRecord> summary, ByteBuffer bytes) {}
+}
@@ -0,0 +1,18 @@
+package pl.jakubtworek;
+
+import java.util.Optional;
+
+/**
+ * Keeps the latest failure of a background thread that has nobody to throw it to.
+ */
+final class FailureRecorder {
+    private volatile Exception last;
+
+    void record(Exception failure) {
+        last = failure;
+    }
+
+    Optional<Exception> last() {
+        return Optional.ofNullable(last);
+    }
+}
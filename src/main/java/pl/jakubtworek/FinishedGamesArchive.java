@@ -0,0 +1,465 @@
+package pl.jakubtworek;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Append-only archive of finished games, stored column by column for aggregate queries.
+ *
+ * <p>Games go into chunks of {@link #CHUNK_ROWS} rows holding five {@code int} columns: home and away
+ * {@link TeamDictionary} id, both final scores, and the finish time in seconds since {@link #EPOCH} (good until
+ * 2068). A full chunk is sealed with its time range and goal sums, which lets range queries skip or count whole
+ * chunks without touching their rows; an archive created with {@link #spillingTo} also moves sealed chunks out of the
+ * heap into a memory-mapped file. Team ids are only meaningful within the process, so that file is scratch space and is deleted
+ * on close.
+ *
+ * <p>Query loops run over plain {@code int[]} columns using only arithmetic, no branches, so the JIT can vectorize
+ * them; mapped chunks are first copied into a scratch array with one bulk read. Appends are serialized; queries never
+ * block them and see every game appended before they started.
+ */
+final class FinishedGamesArchive implements AutoCloseable {
+    static final int CHUNK_ROWS = 1 << 16;
+    private static final int HOME_TEAM = 0;
+    private static final int AWAY_TEAM = 1;
+    private static final int HOME_SCORE = 2;
+    private static final int AWAY_SCORE = 3;
+    private static final int FINISHED_AT = 4;
+    private static final int COLUMNS = 5;
+    private static final int COMMON_SCORE = 16;
+    static final Instant EPOCH = Instant.parse("2000-01-01T00:00:00Z");
+
+    private final long epochSecond = EPOCH.getEpochSecond();
+    private final FileChannel spill;
+    private final Path spillFile;
+    private volatile Chunk[] chunks = new Chunk[0];
+    private Chunk active;
+    private volatile int maxTeamId = -1;
+
+    private FinishedGamesArchive(Path spillFile) {
+        this.spillFile = spillFile;
+        try {
+            this.spill = spillFile == null ? null : FileChannel.open(spillFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open archive spill file " + spillFile, e);
+        }
+    }
+
+    static FinishedGamesArchive inMemory() {
+        return new FinishedGamesArchive(null);
+    }
+
+    /**
+     * An archive that keeps only its newest chunk on the heap and maps every sealed chunk from {@code file}.
+     */
+    static FinishedGamesArchive spillingTo(Path file) {
+        return new FinishedGamesArchive(file);
+    }
+
+    void append(String homeTeam, String awayTeam, int homeScore, int awayScore, Instant finishedAt) {
+        append(homeTeam, awayTeam, homeScore, awayScore, finishedAt, () -> { });
+    }
+
+    /**
+     * Appends a game, running {@code beforeWrite} once there is room for it and nothing can fail any more but the
+     * callback itself. If either throws, the game is not archived; no other append runs in between.
+     */
+    synchronized void append(String homeTeam, String awayTeam, int homeScore, int awayScore, Instant finishedAt,
+                             Runnable beforeWrite) {
+        final TeamDictionary teams = TeamDictionary.getInstance();
+        final int home = teams.idOf(homeTeam);
+        final int away = teams.idOf(awayTeam);
+        final long seconds = finishedAt.getEpochSecond() - epochSecond;
+        if (seconds < 0 || seconds > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Finish time is outside the archive's range");
+        }
+        if (active == null || active.size == CHUNK_ROWS) {
+            if (active != null) {
+                seal(active);
+            }
+            active = new Chunk();
+            final Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = active;
+            chunks = grown;
+        }
+        beforeWrite.run();
+        maxTeamId = Math.max(maxTeamId, Math.max(home, away));
+        active.append(home, away, homeScore, awayScore, (int) seconds);
+    }
+
+    long size() {
+        long size = 0;
+        for (Chunk chunk : chunks) {
+            size += chunk.size;
+        }
+        return size;
+    }
+
+    /**
+     * Games played, goals scored and goals conceded by {@code team}, home and away together.
+     */
+    TeamGoals goalsOf(String team) {
+        final int id = TeamDictionary.getInstance().find(team);
+        if (id == TeamDictionary.UNKNOWN) {
+            return new TeamGoals(team, 0, 0, 0);
+        }
+        final Scratch scratch = new Scratch();
+        long played = 0;
+        long goalsFor = 0;
+        long goalsAgainst = 0;
+        for (Chunk chunk : chunks) {
+            final int rows = chunk.size;
+            final int[] homeTeam = chunk.column(HOME_TEAM, scratch);
+            final int[] awayTeam = chunk.column(AWAY_TEAM, scratch);
+            final int[] homeScore = chunk.column(HOME_SCORE, scratch);
+            final int[] awayScore = chunk.column(AWAY_SCORE, scratch);
+            int chunkPlayed = 0;
+            int chunkFor = 0;
+            int chunkAgainst = 0;
+            for (int i = 0; i < rows; i++) {
+                final int atHome = ((homeTeam[i] ^ id) - 1) >>> 31;
+                final int atAway = ((awayTeam[i] ^ id) - 1) >>> 31;
+                chunkPlayed += atHome + atAway;
+                chunkFor += atHome * homeScore[i] + atAway * awayScore[i];
+                chunkAgainst += atHome * awayScore[i] + atAway * homeScore[i];
+            }
+            played += chunkPlayed;
+            goalsFor += Integer.toUnsignedLong(chunkFor);
+            goalsAgainst += Integer.toUnsignedLong(chunkAgainst);
+        }
+        return new TeamGoals(TeamDictionary.getInstance().nameOf(id), played, goalsFor, goalsAgainst);
+    }
+
+    /**
+     * {@link #goalsOf} for every team in the archive, in one pass, most goals scored first.
+     */
+    List<TeamGoals> goalsByTeam() {
+        final Chunk[] current = chunks;
+        final int lastRows = current.length == 0 ? 0 : current[current.length - 1].size;
+        final int teams = maxTeamId + 1;
+        final long[] played = new long[teams];
+        final long[] goalsFor = new long[teams];
+        final long[] goalsAgainst = new long[teams];
+        final Scratch scratch = new Scratch();
+        for (int c = 0; c < current.length; c++) {
+            final Chunk chunk = current[c];
+            final int rows = c == current.length - 1 ? lastRows : chunk.size;
+            final int[] homeTeam = chunk.column(HOME_TEAM, scratch);
+            final int[] awayTeam = chunk.column(AWAY_TEAM, scratch);
+            final int[] homeScore = chunk.column(HOME_SCORE, scratch);
+            final int[] awayScore = chunk.column(AWAY_SCORE, scratch);
+            for (int i = 0; i < rows; i++) {
+                final int home = homeTeam[i];
+                final int away = awayTeam[i];
+                played[home]++;
+                played[away]++;
+                goalsFor[home] += homeScore[i];
+                goalsAgainst[home] += awayScore[i];
+                goalsFor[away] += awayScore[i];
+                goalsAgainst[away] += homeScore[i];
+            }
+        }
+        final List<TeamGoals> result = new ArrayList<>();
+        for (int id = 0; id < teams; id++) {
+            if (played[id] > 0) {
+                result.add(new TeamGoals(TeamDictionary.getInstance().nameOf(id), played[id], goalsFor[id], goalsAgainst[id]));
+            }
+        }
+        result.sort(Comparator.comparingLong(TeamGoals::goalsFor).reversed());
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * The {@code k} most frequent final scorelines, most frequent first.
+     */
+    List<ScorelineCount> topScorelines(int k) {
+        validateLimit(k);
+        final int[] common = new int[COMMON_SCORE * COMMON_SCORE];
+        final Map<Long, Long> rare = new HashMap<>();
+        final Scratch scratch = new Scratch();
+        for (Chunk chunk : chunks) {
+            final int rows = chunk.size;
+            final int[] homeScore = chunk.column(HOME_SCORE, scratch);
+            final int[] awayScore = chunk.column(AWAY_SCORE, scratch);
+            for (int i = 0; i < rows; i++) {
+                final int home = homeScore[i];
+                final int away = awayScore[i];
+                if ((home | away) < COMMON_SCORE) {
+                    common[home * COMMON_SCORE + away]++;
+                } else {
+                    rare.merge((long) home << 32 | away, 1L, Long::sum);
+                }
+            }
+        }
+        final List<ScorelineCount> counts = new ArrayList<>();
+        for (int cell = 0; cell < common.length; cell++) {
+            if (common[cell] > 0) {
+                counts.add(new ScorelineCount(cell / COMMON_SCORE, cell % COMMON_SCORE, common[cell]));
+            }
+        }
+        rare.forEach((scoreline, games) -> counts.add(new ScorelineCount((int) (scoreline >>> 32), (int) (long) scoreline, games)));
+        counts.sort(Comparator.comparingLong(ScorelineCount::games).reversed());
+        return List.copyOf(counts.subList(0, Math.min(k, counts.size())));
+    }
+
+    /**
+     * The {@code k} games with the most goals, most recent first among equal totals. Sealed chunks whose
+     * highest-scoring game cannot make the list are skipped without reading their rows.
+     */
+    List<ArchivedGame> highestScoringGames(int k) {
+        validateLimit(k);
+        if (k == 0) {
+            return List.of();
+        }
+        final long[] best = new long[k];
+        int found = 0;
+        final Chunk[] current = chunks;
+        final Scratch scratch = new Scratch();
+        for (int c = current.length - 1; c >= 0; c--) {
+            final Chunk chunk = current[c];
+            final int rows = chunk.size;
+            if (found == k && chunk.sealed && chunk.maxTotal <= best[0] >>> 40) {
+                continue;
+            }
+            final int[] homeScore = chunk.column(HOME_SCORE, scratch);
+            final int[] awayScore = chunk.column(AWAY_SCORE, scratch);
+            for (int i = 0; i < rows; i++) {
+                final long candidate = (long) (homeScore[i] + awayScore[i]) << 40 | (long) c * CHUNK_ROWS + i;
+                if (found < k) {
+                    best[found++] = candidate;
+                    if (found == k) {
+                        Arrays.sort(best);
+                    }
+                } else if (candidate > best[0]) {
+                    replaceSmallest(best, candidate);
+                }
+            }
+        }
+        final long[] ranked = Arrays.copyOf(best, found);
+        Arrays.sort(ranked);
+        final List<ArchivedGame> games = new ArrayList<>(found);
+        for (int i = found - 1; i >= 0; i--) {
+            final long row = ranked[i] & (1L << 40) - 1;
+            games.add(current[(int) (row / CHUNK_ROWS)].game((int) (row % CHUNK_ROWS), epochSecond));
+        }
+        return Collections.unmodifiableList(games);
+    }
+
+    /**
+     * Games and goals of the games finished in {@code [from, to)}. Sealed chunks lying entirely inside the window
+     * contribute their precomputed sums; only chunks straddling an edge are scanned.
+     */
+    ArchiveTotals totalsBetween(Instant from, Instant to) {
+        final int start = Math.clamp(from.getEpochSecond() - epochSecond, 0, Integer.MAX_VALUE);
+        final int end = Math.clamp(to.getEpochSecond() - epochSecond, 0, Integer.MAX_VALUE);
+        long games = 0;
+        long homeGoals = 0;
+        long awayGoals = 0;
+        final Scratch scratch = new Scratch();
+        for (Chunk chunk : chunks) {
+            final int rows = chunk.size;
+            if (chunk.sealed) {
+                if (chunk.maxFinishedAt < start || chunk.minFinishedAt >= end) {
+                    continue;
+                }
+                if (chunk.minFinishedAt >= start && chunk.maxFinishedAt < end) {
+                    games += rows;
+                    homeGoals += chunk.homeGoals;
+                    awayGoals += chunk.awayGoals;
+                    continue;
+                }
+            }
+            final int[] finishedAt = chunk.column(FINISHED_AT, scratch);
+            final int[] homeScore = chunk.column(HOME_SCORE, scratch);
+            final int[] awayScore = chunk.column(AWAY_SCORE, scratch);
+            int chunkGames = 0;
+            int chunkHome = 0;
+            int chunkAway = 0;
+            for (int i = 0; i < rows; i++) {
+                final int inside = (~(finishedAt[i] - start) >>> 31) & ((finishedAt[i] - end) >>> 31);
+                chunkGames += inside;
+                chunkHome += inside * homeScore[i];
+                chunkAway += inside * awayScore[i];
+            }
+            games += chunkGames;
+            homeGoals += Integer.toUnsignedLong(chunkHome);
+            awayGoals += Integer.toUnsignedLong(chunkAway);
+        }
+        return new ArchiveTotals(games, homeGoals, awayGoals);
+    }
+
+    @Override
+    public void close() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spill.close();
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete archive spill file " + spillFile, e);
+        }
+    }
+
+    private static void validateLimit(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+    }
+
+    private void seal(Chunk chunk) {
+        chunk.summarize();
+        if (spill != null) {
+            chunk.spill(spill, (long) (chunks.length - 1) * CHUNK_ROWS * COLUMNS * Integer.BYTES);
+        }
+        chunk.sealed = true;
+    }
+
+    private static void replaceSmallest(long[] heap, long value) {
+        heap[0] = value;
+        for (int i = 0; ; ) {
+            final int left = 2 * i + 1;
+            if (left >= heap.length) {
+                return;
+            }
+            final int child = left + 1 < heap.length && heap[left + 1] < heap[left] ? left + 1 : left;
+            if (heap[i] <= heap[child]) {
+                return;
+            }
+            final long swap = heap[i];
+            heap[i] = heap[child];
+            heap[child] = swap;
+            i = child;
+        }
+    }
+
+    /**
+     * Per-query arrays that mapped chunks are copied into, one per column.
+     */
+    private static final class Scratch {
+        private final int[][] columns = new int[COLUMNS][];
+
+        int[] column(int column) {
+            if (columns[column] == null) {
+                columns[column] = new int[CHUNK_ROWS];
+            }
+            return columns[column];
+        }
+    }
+
+    private static final class Chunk {
+        private volatile int[][] resident = new int[COLUMNS][CHUNK_ROWS];
+        private volatile IntBuffer[] mapped;
+        private volatile int size;
+        private volatile boolean sealed;
+        private int minFinishedAt;
+        private int maxFinishedAt;
+        private int maxTotal;
+        private long homeGoals;
+        private long awayGoals;
+
+        void append(int home, int away, int homeScore, int awayScore, int finishedAt) {
+            final int[][] columns = resident;
+            final int row = size;
+            columns[HOME_TEAM][row] = home;
+            columns[AWAY_TEAM][row] = away;
+            columns[HOME_SCORE][row] = homeScore;
+            columns[AWAY_SCORE][row] = awayScore;
+            columns[FINISHED_AT][row] = finishedAt;
+            size = row + 1;
+        }
+
+        int[] column(int column, Scratch scratch) {
+            final int[][] columns = resident;
+            if (columns != null) {
+                return columns[column];
+            }
+            final int[] copy = scratch.column(column);
+            mapped[column].get(0, copy, 0, size);
+            return copy;
+        }
+
+        void summarize() {
+            final int[][] columns = resident;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            int top = 0;
+            long home = 0;
+            long away = 0;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, columns[FINISHED_AT][i]);
+                max = Math.max(max, columns[FINISHED_AT][i]);
+                top = Math.max(top, columns[HOME_SCORE][i] + columns[AWAY_SCORE][i]);
+                home += columns[HOME_SCORE][i];
+                away += columns[AWAY_SCORE][i];
+            }
+            minFinishedAt = min;
+            maxFinishedAt = max;
+            maxTotal = top;
+            homeGoals = home;
+            awayGoals = away;
+        }
+
+        void spill(FileChannel file, long position) {
+            final int columnBytes = CHUNK_ROWS * Integer.BYTES;
+            final ByteBuffer buffer = ByteBuffer.allocate(COLUMNS * columnBytes).order(ByteOrder.nativeOrder());
+            for (int[] column : resident) {
+                buffer.asIntBuffer().put(column);
+                buffer.position(buffer.position() + columnBytes);
+            }
+            buffer.flip();
+            try {
+                for (long at = position; buffer.hasRemaining(); ) {
+                    at += file.write(buffer, at);
+                }
+                final MappedByteBuffer region = file.map(FileChannel.MapMode.READ_ONLY, position, (long) COLUMNS * columnBytes);
+                final IntBuffer[] views = new IntBuffer[COLUMNS];
+                for (int column = 0; column < COLUMNS; column++) {
+                    views[column] = region.slice(column * columnBytes, columnBytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+                }
+                mapped = views;
+                resident = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not spill archive chunk", e);
+            }
+        }
+
+        ArchivedGame game(int row, long epochSecond) {
+            final TeamDictionary teams = TeamDictionary.getInstance();
+            return new ArchivedGame(
+                    teams.nameOf(value(HOME_TEAM, row)),
+                    teams.nameOf(value(AWAY_TEAM, row)),
+                    value(HOME_SCORE, row),
+                    value(AWAY_SCORE, row),
+                    Instant.ofEpochSecond(epochSecond + value(FINISHED_AT, row)));
+        }
+
+        private int value(int column, int row) {
+            final int[][] columns = resident;
+            return columns != null ? columns[column][row] : mapped[column].get(row);
+        }
+    }
+
+    public record TeamGoals(String team, long played, long goalsFor, long goalsAgainst) {}
+
+    public record ScorelineCount(int homeScore, int awayScore, long games) {}
+
+    public record ArchivedGame(String homeTeam, String awayTeam, int homeScore, int awayScore, Instant finishedAt) {}
+
+    public record ArchiveTotals(long games, long homeGoals, long awayGoals) {
+
+        public double averageGoals() {
+            return games == 0 ? 0 : (double) (homeGoals + awayGoals) / games;
+        }
+    }
+}
@@ -1,63 +1,428 @@
 package pl.jakubtworek;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+import static pl.jakubtworek.ScoreBoardEvent.*;
 
 public class FootballScoreBoard {
-    private final AtomicReference<List<MatchRecord>> cachedSummary;
+    private final SummaryCache summaryCache;
     private final MatchRepository repository;
+    private final ScoreBoardEventListener listener;
+    private final int maxUpdateRetries;
+    private final List<SummaryPublisher> summaryPublishers = new CopyOnWriteArrayList<>();
+    private final Map<SummaryEncoder, EncodedSummaryCache> encodedSummaries = new ConcurrentHashMap<>();
+    private final LatencyHistogram startLatency = new LatencyHistogram();
+    private final LatencyHistogram updateLatency = new LatencyHistogram();
+    private final LatencyHistogram finishLatency = new LatencyHistogram();
+    private final LatencyHistogram summaryLatency = new LatencyHistogram();
 
     public FootballScoreBoard(MatchRepository matchRepository) {
-        this.cachedSummary = new AtomicReference<>();
+        this(matchRepository, ScoreBoardEventListener.noOp());
+    }
+
+    public FootballScoreBoard(MatchRepository matchRepository, ScoreBoardEventListener listener) {
+        this(matchRepository, listener, 0);
+    }
+
+    /**
+     * @param maxUpdateRetries how many times a score update that lost a race with a concurrent update of the same
+     *                         match is retried against the newer state before it is reported as a conflict
+     */
+    public FootballScoreBoard(MatchRepository matchRepository, ScoreBoardEventListener listener, int maxUpdateRetries) {
+        if (maxUpdateRetries < 0) {
+            throw new IllegalArgumentException("Retries cannot be negative");
+        }
+        this.maxUpdateRetries = maxUpdateRetries;
+        this.summaryCache = new SummaryCache(matchRepository::version, matchRepository::findAllByOrderByTotalScoreDescAddedAtDesc);
         this.repository = matchRepository;
+        this.listener = listener;
     }
 
     public void startGame(String homeTeam, String awayTeam) {
-        validateTeams(homeTeam, awayTeam);
-        System.out.printf("Starting game: %s vs %s%n", homeTeam, awayTeam);
-        repository.save(new Match(homeTeam, awayTeam));
-        invalidateCache();
+        final long started = System.nanoTime();
+        try {
+            validateTeams(homeTeam, awayTeam);
+            try {
+                repository.save(new Match(homeTeam, awayTeam, repository.nextStartStamp()));
+            } catch (RuntimeException e) {
+                if (listener != ScoreBoardEventListener.NO_OP) {
+                    listener.onEvent(new OperationRejected(System.currentTimeMillis(), Operation.START, homeTeam, awayTeam, e.getMessage()));
+                }
+                throw e;
+            }
+            notifySummaryChanged();
+            if (listener != ScoreBoardEventListener.NO_OP) {
+                listener.onEvent(new GameStarted(System.currentTimeMillis(), homeTeam, awayTeam));
+            }
+        } finally {
+            startLatency.recordSince(started);
+        }
     }
 
     public void updateScore(String homeTeam, String awayTeam, int homeScore, int awayScore) {
-        validateScores(homeScore, awayScore);
-
-        repository.findBy(homeTeam, awayTeam).ifPresentOrElse(current -> {
-            System.out.printf("Updating score for: %s vs %s → %d:%d%n", homeTeam, awayTeam, homeScore, awayScore);
-            final Match updated = current.withUpdatedScore(homeScore, awayScore);
-            repository.update(current, updated);
-            invalidateCache();
-        }, () -> {
-            System.err.printf("Update failed: match not found for %s vs %s%n", homeTeam, awayTeam);
-            throw new IllegalArgumentException("Match not found");
-        });
+        final long started = System.nanoTime();
+        try {
+            validateScores(homeScore, awayScore);
+
+            switch (applyUpdate(homeTeam, awayTeam, homeScore, awayScore)) {
+                case SUCCESS -> notifySummaryChanged();
+                case UNCHANGED -> throw new IllegalArgumentException("New score is identical to the current score");
+                case NOT_FOUND -> throw new IllegalArgumentException("Match not found");
+                case CONFLICT -> throw new OptimisticLockException("Match was modified concurrently. Please retry.");
+                case INVALID -> throw new IllegalStateException("Validated update reported as invalid");
+            }
+        } finally {
+            updateLatency.recordSince(started);
+        }
     }
 
     public void finishGame(String homeTeam, String awayTeam) {
-        System.out.printf("Finishing game: %s vs %s%n", homeTeam, awayTeam);
-        if (!repository.removeBy(homeTeam, awayTeam)) {
-            System.err.printf("Finish failed: match not found for %s vs %s%n", homeTeam, awayTeam);
-            throw new IllegalArgumentException("Match not found");
+        final long started = System.nanoTime();
+        try {
+            if (!repository.removeBy(homeTeam, awayTeam)) {
+                if (listener != ScoreBoardEventListener.NO_OP) {
+                    listener.onEvent(new OperationRejected(System.currentTimeMillis(), Operation.FINISH, homeTeam, awayTeam, "Match not found"));
+                }
+                throw new IllegalArgumentException("Match not found");
+            }
+            notifySummaryChanged();
+            if (listener != ScoreBoardEventListener.NO_OP) {
+                listener.onEvent(new GameFinished(System.currentTimeMillis(), homeTeam, awayTeam));
+            }
+        } finally {
+            finishLatency.recordSince(started);
+        }
+    }
+
+    /**
+     * Result-code counterpart of {@link #updateScore} for high-rate feeds: never throws (except on a read-only
+     * replica), and rejected or unchanged updates allocate nothing unless an event listener is registered.
+     */
+    public CommandResult tryUpdateScore(String homeTeam, String awayTeam, int homeScore, int awayScore) {
+        final long started = System.nanoTime();
+        if (isBlank(homeTeam) || isBlank(awayTeam) || homeScore < 0 || awayScore < 0
+                || homeScore > MatchSlot.MAX_SCORE || awayScore > MatchSlot.MAX_SCORE) {
+            updateLatency.recordSince(started);
+            return CommandResult.INVALID;
+        }
+        final CommandResult result = applyUpdate(homeTeam, awayTeam, homeScore, awayScore);
+        if (result == CommandResult.SUCCESS) {
+            notifySummaryChanged();
+        }
+        updateLatency.recordSince(started);
+        return result;
+    }
+
+    /**
+     * Applies the commands in order and reports one result per command instead of throwing; only a read-only
+     * replica refuses the batch with an exception.
+     * Every command is validated before any is applied, and subscribers are notified once for the whole batch.
+     */
+    public List<CommandResult> applyBatch(List<? extends ScoreCommand> commands) {
+        return List.of(applyBatch(commands, null));
+    }
+
+    /**
+     * {@link #applyBatch(List)} for callers that must not lose the rest of the batch to one failing command: with
+     * {@code failures} given, an unchecked exception from command {@code i} goes to {@code failures[i]}, leaving its
+     * result {@code null}, and the batch carries on.
+     */
+    CommandResult[] applyBatch(List<? extends ScoreCommand> commands, RuntimeException[] failures) {
+        final CommandResult[] results = new CommandResult[commands.size()];
+        for (int i = 0; i < results.length; i++) {
+            if (!isValid(commands.get(i))) {
+                results[i] = CommandResult.INVALID;
+            }
         }
-        invalidateCache();
+
+        boolean changed = false;
+        try {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    final long started = System.nanoTime();
+                    try {
+                        results[i] = apply(commands.get(i));
+                    } catch (RuntimeException e) {
+                        if (failures == null) {
+                            throw e;
+                        }
+                        failures[i] = e;
+                        changed = true;
+                    } finally {
+                        latencyOf(commands.get(i)).recordSince(started);
+                    }
+                    changed |= results[i] == CommandResult.SUCCESS;
+                }
+            }
+        } finally {
+            if (changed) {
+                notifySummaryChanged();
+            }
+        }
+        return results;
     }
 
+    /**
+     * Summary reflecting at least every write that completed before the call. When several readers find the cache
+     * outdated at once, one of them rebuilds it and the rest wait for that result.
+     */
     public List<MatchRecord> getSummary() {
-        return cachedSummary.updateAndGet(existing ->
-                existing != null ? existing : repository.findAllByOrderByTotalScoreDescAddedAtDesc()
-        );
+        final long started = System.nanoTime();
+        final List<MatchRecord> summary = summaryCache.get();
+        summaryLatency.recordSince(started);
+        return summary;
+    }
+
+    /**
+     * Like {@link #getSummary()}, but while another reader is already rebuilding the summary, returns the previous
+     * one instead of waiting. Suits pollers that prefer a slightly old summary to any wait.
+     */
+    public List<MatchRecord> getSummaryAllowingStale() {
+        final long started = System.nanoTime();
+        final List<MatchRecord> summary = summaryCache.getAllowingStale();
+        summaryLatency.recordSince(started);
+        return summary;
+    }
+
+    /**
+     * {@link #getSummary()} as encoded by {@code encoder}, e.g. {@link SummaryEncoder#JSON}. Each summary version is
+     * encoded once into a shared read-only direct buffer; every call gets its own view of it positioned at the start,
+     * so request threads can hand it straight to a channel without encoding or copying. Pass the same encoder
+     * instance on every call, since the cached bytes are kept per instance.
+     */
+    public ByteBuffer getEncodedSummary(SummaryEncoder encoder) {
+        EncodedSummaryCache cache = encodedSummaries.get(encoder);
+        if (cache == null) {
+            cache = encodedSummaries.computeIfAbsent(encoder, EncodedSummaryCache::new);
+        }
+        return cache.get(getSummary());
+    }
+
+    public SummaryCacheStats getSummaryCacheStats() {
+        return summaryCache.stats();
+    }
+
+    public UpdateContentionStats getUpdateContentionStats() {
+        return repository.contentionStats();
+    }
+
+    /**
+     * Latency histograms of every operation together with the contention, reservation, cache and live-match counters.
+     * Recording them costs two {@link System#nanoTime()} reads and two atomic adds per operation, without allocating.
+     */
+    public ScoreBoardStats getStats() {
+        return new ScoreBoardStats(startLatency.stats(), updateLatency.stats(), finishLatency.stats(),
+                summaryLatency.stats(), summaryCache.rebuildLatency(), repository.contentionStats(),
+                repository.reservationConflicts(), summaryCache.stats(), repository.liveMatches());
+    }
+
+    /**
+     * Publishes {@link #getStats()} through a {@link ScoreBoardMXBean} on the platform MBean server, under
+     * {@code pl.jakubtworek:type=FootballScoreBoard,name=<name>}.
+     */
+    public ObjectName registerMBean(String name) {
+        requireNonEmpty(name, "name");
+        try {
+            final ObjectName objectName = new ObjectName("pl.jakubtworek:type=FootballScoreBoard,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new ScoreBoardMBean(this), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Could not register MBean '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publisher that pushes the summary to each new subscriber and then again whenever writes change it, at most once
+     * per {@code coalescingWindow}. Slow subscribers are never queued up: they receive the newest summary once they
+     * request more. A publisher is attached to this board only while it has subscribers, so one whose subscribers
+     * have all cancelled costs nothing and can be dropped or subscribed to again.
+     */
+    public Flow.Publisher<List<MatchRecord>> summaries(Duration coalescingWindow) {
+        return new SummaryPublisher(this::getSummary, coalescingWindow, ForkJoinPool.commonPool(), summaryPublishers);
+    }
+
+    int activeSummaryPublishers() {
+        return summaryPublishers.size();
     }
 
-    private void invalidateCache() {
-        System.out.println("Invalidating summary cache");
-        cachedSummary.set(null);
+    /**
+     * Version of the board, advanced by every start, score update and finish.
+     */
+    public long getVersion() {
+        return repository.version();
+    }
+
+    /**
+     * Only what changed after {@code version}, a value earlier returned by {@link #getVersion()} or
+     * {@link SummaryDelta#version()}. Versions the board can no longer answer incrementally get the full summary.
+     */
+    public SummaryDelta getSummarySince(long version) {
+        if (version < 0) {
+            throw new IllegalArgumentException("Version cannot be negative");
+        }
+        return repository.findChangesSince(version);
+    }
+
+    /**
+     * The first {@code n} entries of {@link #getSummary()}, served from the cached summary when it is current
+     * and otherwise read straight off the repository's ordered index without building the full list.
+     */
+    public List<MatchRecord> getTopSummary(int n) {
+        validateLimit(n);
+        final List<MatchRecord> cached = summaryCache.getIfCurrent();
+        if (cached != null) {
+            return cached.subList(0, Math.min(n, cached.size()));
+        }
+        return repository.findTop(n);
+    }
+
+    public SummaryPage getSummaryPage(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        validateLimit(limit);
+        return repository.findPage(offset, limit);
+    }
+
+    /**
+     * Continues from {@link SummaryPage#nextCursor()}. Unlike an offset, the cursor is a position in the ordering
+     * rather than a count, so games starting, finishing or scoring above it do not shift the next page.
+     */
+    public SummaryPage getSummaryPage(String cursor, int limit) {
+        validateLimit(limit);
+        return repository.findPageAfter(SummaryPosition.fromCursor(cursor), limit);
+    }
+
+    /**
+     * Every score change of the match, oldest first, opening with the score it started from. A finished match keeps
+     * its timeline until the same teams start again or a further {@value MatchRepository#FINISHED_TIMELINES} matches
+     * have finished.
+     */
+    public List<ScoreChange> getTimeline(String homeTeam, String awayTeam) {
+        return findTimeline(homeTeam, awayTeam).changes();
+    }
+
+    public MatchRecord getScoreAt(String homeTeam, String awayTeam, Instant instant) {
+        final MatchRecord score = findTimeline(homeTeam, awayTeam).scoreAt(instant);
+        if (score == null) {
+            throw new IllegalArgumentException("Match had not started at " + instant);
+        }
+        return score;
+    }
+
+    private ScoreTimeline findTimeline(String homeTeam, String awayTeam) {
+        final ScoreTimeline timeline = repository.findTimeline(homeTeam, awayTeam);
+        if (timeline == null) {
+            throw new IllegalArgumentException("Match not found");
+        }
+        return timeline;
+    }
+
+    private CommandResult apply(ScoreCommand command) {
+        final String homeTeam = command.homeTeam();
+        final String awayTeam = command.awayTeam();
+        return switch (command) {
+            case ScoreCommand.Start start -> {
+                try {
+                    repository.save(new Match(homeTeam, awayTeam, repository.nextStartStamp()));
+                } catch (IllegalArgumentException e) {
+                    if (listener != ScoreBoardEventListener.NO_OP) {
+                        listener.onEvent(new OperationRejected(System.currentTimeMillis(), Operation.START, homeTeam, awayTeam, e.getMessage()));
+                    }
+                    yield CommandResult.CONFLICT;
+                }
+                if (listener != ScoreBoardEventListener.NO_OP) {
+                    listener.onEvent(new GameStarted(System.currentTimeMillis(), homeTeam, awayTeam));
+                }
+                yield CommandResult.SUCCESS;
+            }
+            case ScoreCommand.Update update -> applyUpdate(homeTeam, awayTeam, update.homeScore(), update.awayScore());
+            case ScoreCommand.Finish finish -> {
+                if (!repository.removeBy(homeTeam, awayTeam)) {
+                    if (listener != ScoreBoardEventListener.NO_OP) {
+                        listener.onEvent(new OperationRejected(System.currentTimeMillis(), Operation.FINISH, homeTeam, awayTeam, "Match not found"));
+                    }
+                    yield CommandResult.NOT_FOUND;
+                }
+                if (listener != ScoreBoardEventListener.NO_OP) {
+                    listener.onEvent(new GameFinished(System.currentTimeMillis(), homeTeam, awayTeam));
+                }
+                yield CommandResult.SUCCESS;
+            }
+        };
+    }
+
+    private CommandResult applyUpdate(String homeTeam, String awayTeam, int homeScore, int awayScore) {
+        final CommandResult result = repository.updateScore(homeTeam, awayTeam, homeScore, awayScore, maxUpdateRetries);
+        if (listener != ScoreBoardEventListener.NO_OP) {
+            switch (result) {
+                case SUCCESS -> listener.onEvent(new ScoreUpdated(System.currentTimeMillis(), homeTeam, awayTeam, homeScore, awayScore));
+                case NOT_FOUND -> listener.onEvent(new OperationRejected(System.currentTimeMillis(), Operation.UPDATE, homeTeam, awayTeam, "Match not found"));
+                case CONFLICT -> listener.onEvent(new OperationRejected(System.currentTimeMillis(), Operation.UPDATE, homeTeam, awayTeam, "Match was modified concurrently. Please retry."));
+                default -> { }
+            }
+        }
+        return result;
+    }
+
+    private LatencyHistogram latencyOf(ScoreCommand command) {
+        return switch (command) {
+            case ScoreCommand.Start start -> startLatency;
+            case ScoreCommand.Update update -> updateLatency;
+            case ScoreCommand.Finish finish -> finishLatency;
+        };
+    }
+
+    private boolean isValid(ScoreCommand command) {
+        try {
+            switch (command) {
+                case ScoreCommand.Start start -> validateTeams(start.homeTeam(), start.awayTeam());
+                case ScoreCommand.Update update -> {
+                    requireNonEmpty(update.homeTeam(), "homeTeam");
+                    requireNonEmpty(update.awayTeam(), "awayTeam");
+                    validateScores(update.homeScore(), update.awayScore());
+                }
+                case ScoreCommand.Finish finish -> {
+                    requireNonEmpty(finish.homeTeam(), "homeTeam");
+                    requireNonEmpty(finish.awayTeam(), "awayTeam");
+                }
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void notifySummaryChanged() {
+        for (SummaryPublisher publisher : summaryPublishers) {
+            publisher.markChanged();
+        }
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
     }
 
     private void validateScores(int homeScore, int awayScore) {
         if (homeScore < 0 || awayScore < 0) {
             throw new IllegalArgumentException("Score cannot be negative");
         }
+        if (homeScore > MatchSlot.MAX_SCORE || awayScore > MatchSlot.MAX_SCORE) {
+            throw new IllegalArgumentException("Score cannot exceed " + MatchSlot.MAX_SCORE);
+        }
     }
 
     private void validateTeams(String home, String away) {
@@ -72,14 +437,21 @@ public class FootballScoreBoard {
     }
 
     private void requireNonEmpty(String value, String field) {
-        if (value == null || value.isBlank()) {
+        if (isBlank(value)) {
             throw new IllegalArgumentException("Field '" + field + "' cannot be empty");
         }
     }
 
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
     private void validateTeamName(String name, String field) {
-        if (!Pattern.matches("[A-Za-z0-9 ]+", name)) {
-            throw new IllegalArgumentException("Field '" + field + "' must contain only letters, digits or spaces");
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == ' ')) {
+                throw new IllegalArgumentException("Field '" + field + "' must contain only letters, digits or spaces");
+            }
         }
     }
 }
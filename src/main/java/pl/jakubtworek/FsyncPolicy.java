@@ -0,0 +1,10 @@
+package pl.jakubtworek;
+
+public enum FsyncPolicy {
+    /** Every write waits until its record is forced to disk; concurrent writers share one force (group commit). */
+    EVERY_OP,
+    /** A background thread forces the journal every {@link JournalConfig#fsyncInterval()}. */
+    INTERVAL,
+    /** The journal is only forced when a segment fills up or on close; the OS decides the rest. */
+    NEVER
+}
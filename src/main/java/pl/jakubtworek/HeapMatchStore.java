@@ -0,0 +1,131 @@
+package pl.jakubtworek;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The default {@link MatchStore}: one object per match in a {@link ConcurrentHashMap}, inserts and removals running
+ * inside the map's per-key {@code compute}.
+ */
+final class HeapMatchStore implements MatchStore {
+    private final Map<MatchKey, MatchSlot> slots = new ConcurrentHashMap<>();
+
+    @Override
+    public MatchSlot get(MatchKey key) {
+        return slots.get(key);
+    }
+
+    @Override
+    public MatchSlot insert(Match match, Consumer<MatchSlot> onInserted) {
+        final MatchSlot[] created = new MatchSlot[1];
+        slots.computeIfAbsent(match.getKey(), k -> {
+            final MatchSlot slot = new Slot(match);
+            onInserted.accept(slot);
+            created[0] = slot;
+            return slot;
+        });
+        return created[0];
+    }
+
+    @Override
+    public MatchSlot remove(MatchKey key, Consumer<MatchSlot> onRemoved) {
+        final MatchSlot[] removed = new MatchSlot[1];
+        slots.computeIfPresent(key, (k, slot) -> {
+            onRemoved.accept(slot);
+            slot.markRemoved();
+            removed[0] = slot;
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public void forEach(Consumer<MatchSlot> action) {
+        slots.values().forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public void clear() {
+        slots.values().forEach(MatchSlot::markRemoved);
+        slots.clear();
+    }
+
+    private static final class Slot extends MatchSlot {
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Slot.class, "state", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final MatchKey key;
+        private final String homeTeam;
+        private final String awayTeam;
+        private final long addedAt;
+        private volatile long state;
+
+        private Slot(Match match) {
+            this.key = match.getKey();
+            this.homeTeam = match.getHomeTeam();
+            this.awayTeam = match.getAwayTeam();
+            this.addedAt = match.getAddedAt();
+            this.state = pack(match.getVersion(), match.getHomeScore(), match.getAwayScore());
+        }
+
+        @Override
+        long state() {
+            return state;
+        }
+
+        @Override
+        boolean compareAndSetState(long expected, long next) {
+            return STATE.compareAndSet(this, expected, next);
+        }
+
+        @Override
+        void setState(long next) {
+            state = next;
+        }
+
+        @Override
+        long markRemoved() {
+            while (true) {
+                final long current = state;
+                if (isRemoved(current) || compareAndSetState(current, current | REMOVED)) {
+                    return current & ~REMOVED;
+                }
+            }
+        }
+
+        @Override
+        MatchKey getKey() {
+            return key;
+        }
+
+        @Override
+        String getHomeTeam() {
+            return homeTeam;
+        }
+
+        @Override
+        String getAwayTeam() {
+            return awayTeam;
+        }
+
+        @Override
+        long getAddedAt() {
+            return addedAt;
+        }
+    }
+}
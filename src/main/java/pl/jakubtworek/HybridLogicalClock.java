@@ -0,0 +1,88 @@
+package pl.jakubtworek;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hybrid logical clock packed into one positive {@code long}: 41 bits of wall-clock milliseconds since
+ * {@link #EPOCH} (until 2089), a 12-bit counter for stamps within the same millisecond and a 10-bit node id.
+ *
+ * <p>Stamps follow the wall clock while it moves forward and keep counting when it stands still or steps back. More
+ * than 4096 stamps in one millisecond carry into the millisecond bits, running slightly ahead of the wall clock until
+ * it catches up. The node id in the low bits makes stamps of different nodes unique, so summaries of boards on
+ * different JVMs order their matches consistently. A stamp costs one {@link System#currentTimeMillis()} read and one
+ * compare-and-set.
+ *
+ * <p>{@link #observe} refuses stamps that no hybrid logical clock within {@link #MAX_SKEW} of this one could have made,
+ * such as negative numbers or stamps of another kind, so a bad stamp cannot push every later stamp out of range.
+ */
+public final class HybridLogicalClock implements ScoreBoardClock {
+    public static final String NODE_ID_PROPERTY = "pl.jakubtworek.nodeId";
+    public static final Instant EPOCH = Instant.parse("2020-01-01T00:00:00Z");
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+    public static final Duration MAX_SKEW = Duration.ofDays(1);
+
+    static final int NODE_BITS = 10;
+    static final int COUNTER_BITS = 12;
+    private static final int MILLIS_SHIFT = NODE_BITS + COUNTER_BITS;
+    private static final long COUNTER_ONE = 1L << NODE_BITS;
+    private static final long NODE_MASK = COUNTER_ONE - 1;
+
+    static final HybridLogicalClock SYSTEM = new HybridLogicalClock(Integer.getInteger(NODE_ID_PROPERTY, 0));
+
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final int nodeId;
+    private final LongSupplier wallClock;
+    private final AtomicLong last = new AtomicLong();
+
+    public HybridLogicalClock(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    HybridLogicalClock(int nodeId, LongSupplier wallClock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.wallClock = wallClock;
+    }
+
+    @Override
+    public long now() {
+        final long physical = (wallClock.getAsLong() - epochMillis) << MILLIS_SHIFT;
+        long previous = last.get();
+        while (true) {
+            final long next = Math.max(physical, (previous & ~NODE_MASK) + COUNTER_ONE) | nodeId;
+            final long witness = last.compareAndExchange(previous, next);
+            if (witness == previous) {
+                return next;
+            }
+            previous = witness;
+        }
+    }
+
+    @Override
+    public void observe(long stamp) {
+        if (stamp < 0 || (stamp >>> MILLIS_SHIFT) > wallClock.getAsLong() - epochMillis + MAX_SKEW.toMillis()) {
+            throw new IllegalArgumentException("Not a stamp of a clock within " + MAX_SKEW + " of this one: " + stamp);
+        }
+        last.accumulateAndGet(stamp, Math::max);
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Wall-clock time {@code stamp} was taken at, give or take the milliseconds borrowed by bursts.
+     */
+    public static Instant physicalTime(long stamp) {
+        return EPOCH.plusMillis(stamp >>> MILLIS_SHIFT);
+    }
+
+    public static int nodeOf(long stamp) {
+        return (int) (stamp & NODE_MASK);
+    }
+}
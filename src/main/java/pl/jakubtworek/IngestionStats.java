@@ -0,0 +1,15 @@
+package pl.jakubtworek;
+
+/**
+ * Counters of a {@link CoalescingIngestor} since it was created: commands taken in, commands folded into a later
+ * update of the same match, commands handed to the board, and the batches (ticks with work) they went in.
+ */
+public record IngestionStats(long received, long merged, long applied, long batches) {
+
+    /**
+     * Share of received commands that never reached the board, or {@code 0} before the first command.
+     */
+    public double mergeRatio() {
+        return received == 0 ? 0 : (double) merged / received;
+    }
+}
@@ -0,0 +1,31 @@
+package pl.jakubtworek;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+public record JournalConfig(
+        Path directory,
+        int segmentSize,
+        FsyncPolicy fsyncPolicy,
+        Duration fsyncInterval
+) {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(10);
+
+    public JournalConfig {
+        Objects.requireNonNull(directory, "directory");
+        Objects.requireNonNull(fsyncPolicy, "fsyncPolicy");
+        Objects.requireNonNull(fsyncInterval, "fsyncInterval");
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && (fsyncInterval.isZero() || fsyncInterval.isNegative())) {
+            throw new IllegalArgumentException("Fsync interval must be positive");
+        }
+    }
+
+    public static JournalConfig of(Path directory, FsyncPolicy fsyncPolicy) {
+        return new JournalConfig(directory, DEFAULT_SEGMENT_SIZE, fsyncPolicy, DEFAULT_FSYNC_INTERVAL);
+    }
+}
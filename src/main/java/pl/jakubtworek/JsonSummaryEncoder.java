@@ -0,0 +1,48 @@
+package pl.jakubtworek;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class JsonSummaryEncoder implements SummaryEncoder {
+
+    @Override
+    public byte[] encode(List<MatchRecord> summary) {
+        final StringBuilder json = new StringBuilder(16 + summary.size() * 80).append('[');
+        for (int i = 0; i < summary.size(); i++) {
+            final MatchRecord match = summary.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"homeTeam\":");
+            appendString(json, match.homeTeam());
+            json.append(",\"awayTeam\":");
+            appendString(json, match.awayTeam());
+            json.append(",\"homeScore\":").append(match.homeScore())
+                    .append(",\"awayScore\":").append(match.awayScore())
+                    .append('}');
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
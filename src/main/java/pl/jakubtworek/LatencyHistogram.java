@@ -0,0 +1,93 @@
+package pl.jakubtworek;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear latency histogram in nanoseconds, in the style of HdrHistogram: every power of two is split into 16
+ * buckets, so a recorded value lands in a bucket at most 1/16 wide relative to it. Values from 2^36 ns (about 69 s)
+ * up share the last bucket.
+ *
+ * <p>Recording is one array index computation and one atomic add, and allocates nothing. Counts are striped by thread
+ * id over separate rows of one array, so threads recording concurrently rarely write the same cache line.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final int SUM = BUCKETS;
+    private static final int ROW = BUCKETS + 8;
+    private static final int STRIPES = 8;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * ROW);
+
+    void record(long nanos) {
+        final int row = ((int) Thread.currentThread().threadId() & (STRIPES - 1)) * ROW;
+        counts.getAndIncrement(row + bucketOf(nanos));
+        counts.getAndAdd(row + SUM, nanos);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a value of {@link System#nanoTime()}.
+     */
+    void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Percentiles are reported as the upper end of the bucket they fall in, so they are never understated.
+     */
+    LatencyStats stats() {
+        final long[] buckets = new long[BUCKETS];
+        long total = 0;
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            final int row = stripe * ROW;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                final long count = counts.get(row + bucket);
+                buckets[bucket] += count;
+                total += count;
+            }
+            sum += counts.get(row + SUM);
+        }
+        if (total == 0) {
+            return new LatencyStats(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new LatencyStats(total, sum / total,
+                percentile(buckets, total, 0.5), percentile(buckets, total, 0.9),
+                percentile(buckets, total, 0.99), percentile(buckets, total, 0.999),
+                percentile(buckets, total, 1.0));
+    }
+
+    static int bucketOf(long nanos) {
+        final long value = Math.clamp(nanos, 0, MAX_VALUE);
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        final long lowest = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] buckets, long total, double fraction) {
+        final long rank = Math.max(1, (long) Math.ceil(total * fraction));
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                return highestValueIn(bucket);
+            }
+        }
+        return highestValueIn(buckets.length - 1);
+    }
+}
@@ -0,0 +1,8 @@
+package pl.jakubtworek;
+
+/**
+ * Latencies of one operation since the board was created, in nanoseconds. Percentiles and the maximum are accurate to
+ * within 1/16 of their value and never understated.
+ */
+public record LatencyStats(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                           long maxNanos) {}
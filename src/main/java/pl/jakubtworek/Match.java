@@ -11,12 +11,17 @@ class Match {
     private final int awayScore;
     private final int totalScore;
     private final long addedAt;
+    private final int version;
 
     Match(String homeTeam, String awayTeam) {
-        this(MatchKey.of(homeTeam, awayTeam), homeTeam, awayTeam, 0, 0, System.nanoTime());
+        this(homeTeam, awayTeam, ScoreBoardClock.systemDefault().now());
     }
 
-    private Match(MatchKey key, String homeTeam, String awayTeam, int homeScore, int awayScore, long addedAt) {
+    Match(String homeTeam, String awayTeam, long addedAt) {
+        this(MatchKey.of(homeTeam, awayTeam), homeTeam, awayTeam, 0, 0, addedAt, 0);
+    }
+
+    private Match(MatchKey key, String homeTeam, String awayTeam, int homeScore, int awayScore, long addedAt, int version) {
         this.key = key;
         this.homeTeam = homeTeam;
         this.awayTeam = awayTeam;
@@ -24,20 +29,50 @@ class Match {
         this.awayScore = awayScore;
         this.totalScore = homeScore + awayScore;
         this.addedAt = addedAt;
+        this.version = version;
+    }
+
+    static Match restore(String homeTeam, String awayTeam, int homeScore, int awayScore, long addedAt) {
+        return restore(homeTeam, awayTeam, homeScore, awayScore, addedAt, 0);
+    }
+
+    static Match restore(String homeTeam, String awayTeam, int homeScore, int awayScore, long addedAt, int version) {
+        return new Match(MatchKey.of(homeTeam, awayTeam), homeTeam, awayTeam, homeScore, awayScore, addedAt, version);
+    }
+
+    boolean hasScore(int homeScore, int awayScore) {
+        return this.homeScore == homeScore && this.awayScore == awayScore;
     }
 
     Match withUpdatedScore(int homeScore, int awayScore) {
-        if (this.homeScore == homeScore && this.awayScore == awayScore) {
+        if (hasScore(homeScore, awayScore)) {
             throw new IllegalArgumentException("New score is identical to the current score");
         }
 
-        return new Match(key, homeTeam, awayTeam, homeScore, awayScore, addedAt);
+        return new Match(key, homeTeam, awayTeam, homeScore, awayScore, addedAt, version + 1);
     }
 
     MatchKey getKey() {
         return key;
     }
 
+    String getHomeTeam() {
+        return homeTeam;
+    }
+
+    String getAwayTeam() {
+        return awayTeam;
+    }
+
+    int getHomeScore() {
+        return homeScore;
+    }
+
+    int getAwayScore() {
+        return awayScore;
+    }
+
+
     MatchRecord toRecord() {
         return new MatchRecord(homeTeam, awayTeam, homeScore, awayScore);
     }
@@ -51,7 +86,14 @@ class Match {
         return totalScore;
     }
 
-    private long getAddedAt() { return addedAt; }
+    long getAddedAt() { return addedAt; }
+
+    /**
+     * Number of score updates the match had gone through when this value was taken.
+     */
+    int getVersion() {
+        return version;
+    }
 
     @Override
     public boolean equals(Object o) {
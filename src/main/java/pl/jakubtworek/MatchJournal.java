@@ -0,0 +1,393 @@
+package pl.jakubtworek;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of repository writes, kept in fixed-size memory-mapped segment files.
+ *
+ * <p>Each record is {@code [int payloadLength][int crc32c][payload]}; a zero length marks the end of a segment's data.
+ * Positions are global byte offsets ({@code segmentIndex * segmentSize + offset}), so they only ever grow.
+ * A record with a bad checksum is treated as a torn write: replay stops there and the next append overwrites it.
+ */
+final class MatchJournal implements MutationLog, AutoCloseable {
+    static final byte SAVE = 1;
+    static final byte REMOVE = 3;
+    static final byte CLEAR = 4;
+    static final byte VERSIONED_UPDATE = 5;
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final JournalConfig config;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32C appendChecksum = new CRC32C();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final ScheduledExecutorService intervalSyncer;
+    private final FailureRecorder syncFailures = new FailureRecorder();
+
+    private FileChannel channel;
+    private long segmentIndex;
+    private int offset;
+    private volatile MappedByteBuffer segment;
+    private volatile long written;
+
+    private long durable;
+    private boolean syncing;
+
+    private MatchJournal(JournalConfig config) throws IOException {
+        this.config = config;
+        Files.createDirectories(config.directory());
+
+        final List<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(0, 0);
+        } else {
+            final long last = segments.getLast();
+            openSegment(last, 0);
+            final ScanResult tail = scan(segment, 0, null);
+            if (tail.torn()) {
+                segment.put(tail.end(), new byte[config.segmentSize() - tail.end()]);
+            }
+            offset = tail.end();
+        }
+        written = position(segmentIndex, offset);
+        durable = written;
+
+        if (config.fsyncPolicy() == FsyncPolicy.INTERVAL) {
+            final long periodNanos = config.fsyncInterval().toNanos();
+            intervalSyncer = Executors.newSingleThreadScheduledExecutor(task ->
+                    Thread.ofPlatform().name("scoreboard-journal-sync").daemon().unstarted(task));
+            intervalSyncer.scheduleAtFixedRate(this::intervalSync, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        } else {
+            intervalSyncer = null;
+        }
+    }
+
+    static MatchJournal open(JournalConfig config) {
+        try {
+            return new MatchJournal(config);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal in " + config.directory(), e);
+        }
+    }
+
+    @Override
+    public void appendSave(Match match) {
+        final byte[] home = encode(match.getHomeTeam());
+        final byte[] away = encode(match.getAwayTeam());
+        appendLock.lock();
+        try {
+            final ByteBuffer out = reserve(1 + 2 + home.length + 2 + away.length + 8);
+            out.put(SAVE);
+            putString(out, home);
+            putString(out, away);
+            out.putLong(match.getAddedAt());
+            commit(out);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void appendUpdate(MatchSlot match, long state) {
+        final byte[] home = encode(match.getHomeTeam());
+        final byte[] away = encode(match.getAwayTeam());
+        appendLock.lock();
+        try {
+            final ByteBuffer out = reserve(1 + 2 + home.length + 2 + away.length + 8 + 4 + 8);
+            out.put(VERSIONED_UPDATE);
+            putString(out, home);
+            putString(out, away);
+            out.putLong(match.getAddedAt());
+            out.putInt(MatchSlot.version(state));
+            out.putInt(MatchSlot.homeScore(state));
+            out.putInt(MatchSlot.awayScore(state));
+            commit(out);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void appendRemove(MatchSlot removed) {
+        final byte[] home = encode(removed.getHomeTeam());
+        final byte[] away = encode(removed.getAwayTeam());
+        appendLock.lock();
+        try {
+            final ByteBuffer out = reserve(1 + 2 + home.length + 2 + away.length);
+            out.put(REMOVE);
+            putString(out, home);
+            putString(out, away);
+            commit(out);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void appendClear() {
+        appendLock.lock();
+        try {
+            final ByteBuffer out = reserve(1);
+            out.put(CLEAR);
+            commit(out);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void awaitDurable() {
+        if (config.fsyncPolicy() == FsyncPolicy.EVERY_OP) {
+            syncUpTo(written);
+        }
+    }
+
+    /**
+     * Latest failure of the background {@link FsyncPolicy#INTERVAL} sync; the records it missed stay pending
+     * until a later sync succeeds.
+     */
+    Optional<Exception> lastSyncFailure() {
+        return syncFailures.last();
+    }
+
+    /**
+     * Position just past the last appended record; replaying from it visits nothing written so far.
+     */
+    long position() {
+        return written;
+    }
+
+    /**
+     * Feeds every intact record at or after {@code fromPosition} to {@code visitor}, oldest first.
+     */
+    void replay(long fromPosition, Visitor visitor) {
+        final long firstSegment = fromPosition / config.segmentSize();
+        try {
+            for (long index : listSegments()) {
+                if (index < firstSegment) {
+                    continue;
+                }
+                final int start = index == firstSegment ? (int) (fromPosition % config.segmentSize()) : 0;
+                try (FileChannel file = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+                    final ScanResult result = scan(file.map(FileChannel.MapMode.READ_ONLY, 0, file.size()), start, visitor);
+                    if (result.torn()) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay journal in " + config.directory(), e);
+        }
+    }
+
+    /**
+     * Deletes segments that hold only records before {@code position}, which must not be past {@link #position()}.
+     */
+    void deleteSegmentsBefore(long position) {
+        final long keepFrom = position / config.segmentSize();
+        try {
+            for (long index : listSegments()) {
+                if (index < keepFrom) {
+                    Files.deleteIfExists(segmentPath(index));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete journal segments in " + config.directory(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (intervalSyncer != null) {
+            intervalSyncer.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close journal in " + config.directory(), e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private ByteBuffer reserve(int payloadLength) {
+        final int recordLength = HEADER_BYTES + payloadLength;
+        if (recordLength > config.segmentSize()) {
+            throw new IllegalArgumentException("Journal record does not fit in a segment");
+        }
+        if (offset + recordLength > config.segmentSize()) {
+            rollSegment();
+        }
+        return segment.slice(offset + HEADER_BYTES, payloadLength);
+    }
+
+    private void commit(ByteBuffer payload) {
+        payload.flip();
+        appendChecksum.reset();
+        appendChecksum.update(payload.duplicate());
+        segment.putInt(offset + 4, (int) appendChecksum.getValue());
+        segment.putInt(offset, payload.limit());
+        offset += HEADER_BYTES + payload.limit();
+        written = position(segmentIndex, offset);
+    }
+
+    private void rollSegment() {
+        try {
+            if (config.fsyncPolicy() != FsyncPolicy.NEVER) {
+                segment.force();
+            }
+            channel.close();
+            openSegment(segmentIndex + 1, 0);
+            written = position(segmentIndex, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll journal segment", e);
+        }
+    }
+
+    private void openSegment(long index, int startOffset) throws IOException {
+        channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, config.segmentSize());
+        segmentIndex = index;
+        offset = startOffset;
+    }
+
+    private void intervalSync() {
+        try {
+            syncUpTo(written);
+        } catch (RuntimeException e) {
+            syncFailures.record(e);
+        }
+    }
+
+    /**
+     * Group commit: one caller forces the segment on behalf of everyone who appended before it started,
+     * the rest wait for that force instead of issuing their own.
+     */
+    private void syncUpTo(long target) {
+        syncLock.lock();
+        try {
+            while (durable < target) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                final long covering = written;
+                final MappedByteBuffer buffer = segment;
+                boolean forced = false;
+                syncLock.unlock();
+                try {
+                    buffer.force();
+                    forced = true;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        durable = Math.max(durable, covering);
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private ScanResult scan(ByteBuffer buffer, int start, Visitor visitor) {
+        final CRC32C checksum = new CRC32C();
+        int position = start;
+        while (position + HEADER_BYTES <= buffer.limit()) {
+            final int length = buffer.getInt(position);
+            if (length == 0) {
+                return new ScanResult(position, false);
+            }
+            if (length < 0 || position + HEADER_BYTES + length > buffer.limit()) {
+                return new ScanResult(position, true);
+            }
+            final ByteBuffer payload = buffer.slice(position + HEADER_BYTES, length);
+            checksum.reset();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != buffer.getInt(position + 4)) {
+                return new ScanResult(position, true);
+            }
+            if (visitor != null) {
+                dispatch(payload, visitor);
+            }
+            position += HEADER_BYTES + length;
+        }
+        return new ScanResult(position, false);
+    }
+
+    /**
+     * Decodes one record payload; {@link ReplicationLog} streams records in this same format.
+     */
+    static void dispatch(ByteBuffer in, Visitor visitor) {
+        switch (in.get()) {
+            case SAVE -> visitor.onSave(getString(in), getString(in), in.getLong());
+            case REMOVE -> visitor.onRemove(getString(in), getString(in));
+            case CLEAR -> visitor.onClear();
+            case VERSIONED_UPDATE -> visitor.onVersionedUpdate(getString(in), getString(in), in.getLong(), in.getInt(), in.getInt(), in.getInt());
+            default -> throw new IllegalStateException("Unknown journal record type");
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        final List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(config.directory())) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(indexes::add);
+        }
+        return indexes;
+    }
+
+    private Path segmentPath(long index) {
+        return config.directory().resolve(String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private long position(long segment, int segmentOffset) {
+        return segment * config.segmentSize() + segmentOffset;
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, byte[] value) {
+        out.putShort((short) value.length);
+        out.put(value);
+    }
+
+    private static String getString(ByteBuffer in) {
+        final byte[] value = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private record ScanResult(int end, boolean torn) {}
+}
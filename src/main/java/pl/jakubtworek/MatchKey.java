@@ -1,23 +1,49 @@
 package pl.jakubtworek;
 
-import java.util.Objects;
-
-public record MatchKey(String team1, String team2) {
+/**
+ * Identifies a match by its two teams, independent of which one plays at home: both {@link TeamDictionary} ids
+ * packed into one long, the lower id in the high half.
+ */
+public record MatchKey(long packed) implements Comparable<MatchKey> {
     public static MatchKey of(String t1, String t2) {
-        String a = t1.toLowerCase();
-        String b = t2.toLowerCase();
-        return a.compareTo(b) <= 0 ? new MatchKey(a, b) : new MatchKey(b, a);
+        final TeamDictionary teams = TeamDictionary.getInstance();
+        return of(teams.idOf(t1), teams.idOf(t2));
+    }
+
+    /**
+     * Key of a match between two teams, or {@code null} when either team has never played, so no such match exists.
+     */
+    static MatchKey find(String t1, String t2) {
+        final TeamDictionary teams = TeamDictionary.getInstance();
+        final int a = teams.find(t1);
+        final int b = teams.find(t2);
+        return a == TeamDictionary.UNKNOWN || b == TeamDictionary.UNKNOWN ? null : of(a, b);
+    }
+
+    static MatchKey of(int a, int b) {
+        return a <= b ? new MatchKey((long) a << 32 | b) : new MatchKey((long) b << 32 | a);
+    }
+
+    int team1() {
+        return (int) (packed >>> 32);
+    }
+
+    int team2() {
+        return (int) packed;
     }
 
     @Override
     public boolean equals(Object o) {
-        return o instanceof MatchKey other &&
-                team1.equals(other.team1) &&
-                team2.equals(other.team2);
+        return o instanceof MatchKey other && packed == other.packed;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(team1.hashCode(), team2.hashCode());
+        return Long.hashCode(packed * 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public int compareTo(MatchKey other) {
+        return Long.compare(packed, other.packed);
     }
 }
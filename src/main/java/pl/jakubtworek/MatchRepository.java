@@ -1,92 +1,753 @@
 package pl.jakubtworek;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
+/**
+ * Live matches, the summary index and team reservations.
+ *
+ * <p>Starting and finishing a match run inside the {@link MatchStore}'s per-key exclusion. A score update does not: it is a
+ * compare-and-set on the match's packed state word (see {@link MatchSlot}). The new summary index entry is put before
+ * the compare-and-set and the old one removed after it, so a match always has an index entry matching its state; the
+ * journal and the change log are brought up to date afterwards. Index entries carry the state version and total, so
+ * walks skip any entry that is not the current one.
+ */
 class MatchRepository {
-    private static final MatchRepository INSTANCE = new MatchRepository();
+    private static final int SUMMARY_WALKS = 3;
+    private static final MatchRepository INSTANCE = new MatchRepository(MutationLog.NONE, new HeapMatchStore());
+    private static final int CHANGE_LOG_CAPACITY = 1 << 12;
+    static final int FINISHED_TIMELINES = 1 << 10;
 
-    private final Map<MatchKey, Match> matches;
-    private final Set<String> teamsInUse;
+    private final MatchStore matches;
+    private final ConcurrentSkipListMap<SummaryPosition, MatchSlot> summaryIndex;
+    private final TeamReservations teamsInUse;
+    private final MutationLog log;
+    private final FinishedGamesArchive archive;
+    private final ChangeLog changeLog = new ChangeLog(CHANGE_LOG_CAPACITY);
+    private final Map<MatchKey, ScoreTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<MatchKey, ScoreTimeline> finishedTimelines = new LinkedHashMap<>();
+    private final LongAdder[] writesInFlight = {new LongAdder(), new LongAdder()};
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder updateConflicts = new LongAdder();
+    private final LongAdder updateRetries = new LongAdder();
+    private final LongAdder updatesExhausted = new LongAdder();
+    private final LongAdder reservationConflicts = new LongAdder();
+    private volatile int writeEpoch;
+    private volatile boolean readOnly;
+    private volatile ScoreBoardClock clock = ScoreBoardClock.systemDefault();
 
-    private MatchRepository() {
-        this.matches = new ConcurrentHashMap<>();
-        this.teamsInUse = ConcurrentHashMap.newKeySet();
+    private MatchRepository(MutationLog log, MatchStore matches) {
+        this(log, matches, null);
+    }
+
+    private MatchRepository(MutationLog log, MatchStore matches, FinishedGamesArchive archive) {
+        this.matches = matches;
+        this.summaryIndex = new ConcurrentSkipListMap<>();
+        this.teamsInUse = new TeamReservations();
+        this.log = log;
+        this.archive = archive;
     }
 
     static MatchRepository getInstance() {
         return INSTANCE;
     }
 
+    /**
+     * A repository of its own, with matches and team reservations independent of {@link #getInstance()}.
+     */
+    static MatchRepository inMemory() {
+        return new MatchRepository(MutationLog.NONE, new HeapMatchStore());
+    }
+
+    /**
+     * Like {@link #inMemory()}, but appends the final score of every finished match to {@code archive}.
+     * The caller keeps ownership of the archive and closes it on shutdown.
+     */
+    static MatchRepository archiving(FinishedGamesArchive archive) {
+        return new MatchRepository(MutationLog.NONE, new HeapMatchStore(), archive);
+    }
+
+    /**
+     * Like {@link #inMemory()}, but keeps up to {@code capacity} live matches outside the Java heap
+     * (see {@link OffHeapMatchStore}).
+     */
+    static MatchRepository offHeap(int capacity) {
+        return new MatchRepository(MutationLog.NONE, new OffHeapMatchStore(capacity));
+    }
+
+    /**
+     * Creates a repository that rebuilds its state from {@code journal} and then appends every write to it.
+     * The caller keeps ownership of the journal and closes it on shutdown.
+     */
+    static MatchRepository journaled(MatchJournal journal) {
+        final MatchRepository repository = new MatchRepository(journal, new HeapMatchStore());
+        journal.replay(0, repository.new Recovery(false));
+        repository.startTimelines();
+        return repository;
+    }
+
+    /**
+     * Like {@link #journaled(MatchJournal)}, but starts from the latest snapshot in {@code snapshots}
+     * and replays only the journal tail written after it.
+     */
+    static MatchRepository journaled(MatchJournal journal, MatchSnapshotStore snapshots) {
+        final MatchRepository repository = new MatchRepository(journal, new HeapMatchStore());
+        final Recovery recovery = repository.new Recovery(false);
+        final long position = snapshots.restoreLatest(recovery::onRestore);
+        journal.replay(position, recovery);
+        repository.startTimelines();
+        return repository;
+    }
+
+    /**
+     * A repository that streams every write to followers through {@code log}. A {@code follower} starts read-only and
+     * is filled by a {@link ReplicaFeed} until it is promoted with {@link #setReadOnly(boolean)}; its timelines are
+     * built as the records arrive, so their times are when the follower applied each change.
+     */
+    static MatchRepository replicated(ReplicationLog log, boolean follower) {
+        final MatchRepository repository = new MatchRepository(log, new HeapMatchStore());
+        repository.readOnly = follower;
+        log.attach(repository);
+        return repository;
+    }
+
+    /**
+     * While read-only, every write is refused with an {@link IllegalStateException}; replicated records still apply
+     * through {@link #recovery()}.
+     */
+    void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Applies records and snapshot entries the way startup recovery does, without logging them again, and keeps the
+     * timelines up to date as it goes, stamping each change with the time it is applied.
+     */
+    Recovery recovery() {
+        return new Recovery(true);
+    }
+
+    /**
+     * Stamps new matches from {@code clock} instead of {@link ScoreBoardClock#systemDefault()}. The clock first
+     * observes every live match, so matches started from now on order after them.
+     */
+    MatchRepository withClock(ScoreBoardClock clock) {
+        matches.forEach(slot -> clock.observe(slot.getAddedAt()));
+        this.clock = clock;
+        return this;
+    }
+
+    /**
+     * Start stamp for a match about to be saved; see {@link ScoreBoardClock}.
+     */
+    long nextStartStamp() {
+        return clock.now();
+    }
+
     void clear() {
-        matches.clear();
-        teamsInUse.clear();
-        System.out.println("Repository cleared");
+        requireWritable();
+        final int epoch = beginWrite();
+        try {
+            log.appendClear();
+            matches.clear();
+            clearTimelines();
+            summaryIndex.clear();
+            teamsInUse.clear();
+            changeLog.recordReset();
+        } finally {
+            endWrite(epoch);
+        }
+        log.awaitDurable();
+    }
+
+    /**
+     * Visits every live match without blocking writers; matches written during the walk may or may not be seen.
+     */
+    void forEachMatch(Consumer<Match> action) {
+        matches.forEach(slot -> {
+            final long state = slot.state();
+            if (!MatchSlot.isRemoved(state)) {
+                action.accept(slot.toMatch(state));
+            }
+        });
+    }
+
+    /**
+     * Returns a journal position such that every write logged before it is already visible in this repository.
+     * Writers are never blocked: the method waits only for writes that had already started to finish.
+     */
+    synchronized long checkpoint(LongSupplier logPosition) {
+        final long position = logPosition.getAsLong();
+        final int previous = writeEpoch;
+        writeEpoch = 1 - previous;
+        while (writesInFlight[previous].sum() != 0) {
+            Thread.onSpinWait();
+        }
+        return position;
     }
 
     void save(Match match) {
+        requireWritable();
         final var key = match.getKey();
         final var team1 = key.team1();
         final var team2 = key.team2();
 
         if (!registerTeams(team1, team2)) {
-            System.err.printf("Save failed: team conflict for %s and %s%n", team1, team2);
+            reservationConflicts.increment();
             throw new IllegalArgumentException("At least one of the teams is already playing a match");
         }
 
-        if (matches.putIfAbsent(key, match) != null) {
+        final MatchSlot created;
+        final int epoch = beginWrite();
+        try {
+            created = matches.insert(match, slot -> {
+                log.appendSave(match);
+                startTimeline(slot, System.currentTimeMillis());
+                summaryIndex.put(slot.position(slot.state()), slot);
+                changeLog.recordChange(key, slot);
+            });
+        } catch (RuntimeException e) {
+            unregisterTeams(team1, team2);
+            throw e;
+        } finally {
+            endWrite(epoch);
+        }
+
+        if (created == null) {
             unregisterTeams(team1, team2);
-            System.err.printf("Save failed: match already exists for key %s%n", key);
             throw new IllegalArgumentException("Match already exists");
         }
+        log.awaitDurable();
     }
 
+    /**
+     * Walks the summary index, which is already kept in summary order by every write. See {@link #collectSummary}
+     * for how the walk stays complete while scores change.
+     */
     List<MatchRecord> findAllByOrderByTotalScoreDescAddedAtDesc() {
-        final List<Match> snapshot = new ArrayList<>(matches.values());
-        return snapshot.stream()
-                .sorted(Match.SORT_BY_SCORE_THEN_TIME_DESC)
-                .map(Match::toRecord)
-                .toList();
+        return Collections.unmodifiableList(collectSummary(MatchSlot::toRecord));
+    }
+
+    /**
+     * Live matches in summary order, for merging with other repositories' runs.
+     */
+    Match[] findAllInSummaryOrder() {
+        return collectSummary(MatchSlot::toMatch).toArray(new Match[0]);
+    }
+
+    /**
+     * Every live match in summary order. A walk that passes a match's new position just before its compare-and-set
+     * and reaches the old one just after misses it, and one that meets the old position just before and the new one
+     * just after sees it twice. A walk whose count differs from the store's is therefore repeated, and after
+     * {@link #SUMMARY_WALKS} tries the store's own snapshot is sorted instead. Starts and finishes racing with the walk
+     * may or may not be included.
+     */
+    private <T> List<T> collectSummary(SummaryMapper<T> mapper) {
+        for (int walk = 0; walk < SUMMARY_WALKS; walk++) {
+            final List<T> summary = new ArrayList<>(summaryIndex.size());
+            for (Map.Entry<SummaryPosition, MatchSlot> entry : summaryIndex.entrySet()) {
+                final long state = currentState(entry);
+                if (state != -1) {
+                    summary.add(mapper.map(entry.getValue(), state));
+                }
+            }
+            if (summary.size() == matches.size()) {
+                return summary;
+            }
+        }
+        final TreeMap<SummaryPosition, T> sorted = new TreeMap<>();
+        matches.forEach(slot -> {
+            final long state = slot.state();
+            if (!MatchSlot.isRemoved(state)) {
+                sorted.put(slot.position(state), mapper.map(slot, state));
+            }
+        });
+        return new ArrayList<>(sorted.values());
+    }
+
+    /**
+     * First {@code limit} matches in summary order; touches only those entries of the index.
+     */
+    List<MatchRecord> findTop(int limit) {
+        final List<MatchRecord> top = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<SummaryPosition, MatchSlot> entry : summaryIndex.entrySet()) {
+            if (top.size() == limit) break;
+            final long state = currentState(entry);
+            if (state != -1) {
+                top.add(entry.getValue().toRecord(state));
+            }
+        }
+        return Collections.unmodifiableList(top);
+    }
+
+    /**
+     * Page of up to {@code limit} matches following {@code offset} earlier ones. Costs O(offset + limit);
+     * continue with {@link #findPageAfter} for deep paging.
+     */
+    SummaryPage findPage(int offset, int limit) {
+        final Iterator<Map.Entry<SummaryPosition, MatchSlot>> entries = summaryIndex.entrySet().iterator();
+        for (int skipped = 0; skipped < offset && entries.hasNext(); ) {
+            if (currentState(entries.next()) != -1) {
+                skipped++;
+            }
+        }
+        return collectPage(entries, limit);
+    }
+
+    /**
+     * Page of up to {@code limit} matches ranked strictly after {@code cursor}, in O(log n + limit).
+     */
+    SummaryPage findPageAfter(SummaryPosition cursor, int limit) {
+        return collectPage(summaryIndex.tailMap(cursor, false).entrySet().iterator(), limit);
+    }
+
+    long version() {
+        return changeLog.version();
+    }
+
+    /**
+     * Matches started, scored or finished after {@code version}, with their current summary positions, in one walk
+     * of the index that stops once every changed match is found. Falls back to the full summary when the change log
+     * no longer reaches back to {@code version}.
+     */
+    SummaryDelta findChangesSince(long version) {
+        final List<ChangeLog.Change> changes = version <= changeLog.version() ? changeLog.changesSince(version) : null;
+        if (changes == null) {
+            final long current = changeLog.version();
+            final List<MatchRecord> records = collectSummary(MatchSlot::toRecord);
+            final List<SummaryDelta.Change> summary = new ArrayList<>(records.size());
+            for (MatchRecord record : records) {
+                summary.add(new SummaryDelta.Change(summary.size(), record));
+            }
+            return new SummaryDelta(current, true, Collections.unmodifiableList(summary), List.of());
+        }
+        if (changes.isEmpty()) {
+            return new SummaryDelta(version, false, List.of(), List.of());
+        }
+
+        final Map<MatchKey, MatchSlot> pending = new HashMap<>();
+        for (ChangeLog.Change change : changes) {
+            pending.put(change.key(), change.match());
+        }
+        final List<SummaryDelta.Change> changed = new ArrayList<>(pending.size());
+        int position = 0;
+        for (Iterator<Map.Entry<SummaryPosition, MatchSlot>> it = summaryIndex.entrySet().iterator(); it.hasNext() && !pending.isEmpty(); ) {
+            final Map.Entry<SummaryPosition, MatchSlot> entry = it.next();
+            final long state = currentState(entry);
+            if (state == -1) {
+                continue;
+            }
+            if (pending.remove(entry.getValue().getKey()) != null) {
+                changed.add(new SummaryDelta.Change(position, entry.getValue().toRecord(state)));
+            }
+            position++;
+        }
+        final List<MatchRecord> removed = new ArrayList<>(pending.size());
+        for (MatchSlot slot : pending.values()) {
+            removed.add(slot.toRecord(slot.state()));
+        }
+        return new SummaryDelta(changes.getLast().version(), false,
+                Collections.unmodifiableList(changed), Collections.unmodifiableList(removed));
     }
 
     Optional<Match> findBy(String homeTeam, String awayTeam) {
-        final var key = MatchKey.of(homeTeam, awayTeam);
-        return Optional.ofNullable(matches.get(key));
+        return Optional.ofNullable(find(homeTeam, awayTeam));
+    }
+
+    /**
+     * Like {@link #findBy}, but returns {@code null} for a missing match instead of wrapping the result.
+     */
+    Match find(String homeTeam, String awayTeam) {
+        final var key = MatchKey.find(homeTeam, awayTeam);
+        final MatchSlot slot = key == null ? null : matches.get(key);
+        if (slot == null) {
+            return null;
+        }
+        final long state = slot.state();
+        return MatchSlot.isRemoved(state) ? null : slot.toMatch(state);
+    }
+
+    /**
+     * Score history of the match between the two teams, or {@code null} when they have not played. A finished match
+     * keeps its timeline until the same teams start again or {@value #FINISHED_TIMELINES} later matches have finished.
+     */
+    ScoreTimeline findTimeline(String homeTeam, String awayTeam) {
+        final var key = MatchKey.find(homeTeam, awayTeam);
+        if (key == null) {
+            return null;
+        }
+        final ScoreTimeline live = timelines.get(key);
+        if (live != null) {
+            return live;
+        }
+        synchronized (finishedTimelines) {
+            return finishedTimelines.get(key);
+        }
     }
 
+    /**
+     * Replaces {@code current} with {@code updated}, failing when the match is no longer at {@code current}'s version.
+     */
     void update(Match current, Match updated) {
-        System.out.printf("Attempting to update match: %s%n", current);
-        if (!matches.replace(current.getKey(), current, updated)) {
-            System.err.printf("Update failed due to optimistic locking for match: %s%n", current);
-            throw new OptimisticLockException("Match was modified concurrently. Please retry.");
+        requireWritable();
+        final MatchSlot slot = matches.get(current.getKey());
+        final long expected = MatchSlot.pack(current.getVersion(), current.getHomeScore(), current.getAwayScore());
+        final long next = MatchSlot.pack(updated.getVersion(), updated.getHomeScore(), updated.getAwayScore());
+        final int epoch = beginWrite();
+        try {
+            if (slot == null || slot.getAddedAt() != current.getAddedAt() || !compareAndSet(slot, expected, next)) {
+                updateConflicts.increment();
+                throw new OptimisticLockException("Match was modified concurrently. Please retry.");
+            }
+        } finally {
+            endWrite(epoch);
         }
-        System.out.printf("Update succeeded: %s → %s%n", current, updated);
+        log.awaitDurable();
     }
 
-    boolean removeBy(String homeTeam, String awayTeam) {
-        final var key = MatchKey.of(homeTeam, awayTeam);
-        final Match removed = matches.remove(key);
+    /**
+     * Sets the score of a live match with a compare-and-set on its state, retrying up to {@code maxRetries} times when
+     * a concurrent update wins the race. Allocates nothing for an unchanged score. Each attempt allocates the new index
+     * entry, taken out again if the attempt loses; a successful one also allocates a {@link ChangeLog.Change}, and with
+     * timelines on may grow the match's timeline buffer or keep a version that arrived out of order.
+     */
+    CommandResult updateScore(String homeTeam, String awayTeam, int homeScore, int awayScore, int maxRetries) {
+        requireWritable();
+        final var key = MatchKey.find(homeTeam, awayTeam);
+        final MatchSlot slot = key == null ? null : matches.get(key);
+        if (slot == null) {
+            return CommandResult.NOT_FOUND;
+        }
+        final int epoch = beginWrite();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                final long current = slot.state();
+                if (MatchSlot.isRemoved(current)) {
+                    return CommandResult.NOT_FOUND;
+                }
+                if (MatchSlot.hasScore(current, homeScore, awayScore)) {
+                    return CommandResult.UNCHANGED;
+                }
+                if (compareAndSet(slot, current, MatchSlot.withScore(current, homeScore, awayScore))) {
+                    break;
+                }
+                updateConflicts.increment();
+                if (attempt == maxRetries) {
+                    updatesExhausted.increment();
+                    return CommandResult.CONFLICT;
+                }
+                updateRetries.increment();
+            }
+        } finally {
+            endWrite(epoch);
+        }
+        log.awaitDurable();
+        return CommandResult.SUCCESS;
+    }
 
-        if (removed == null) {
-            System.err.printf("Remove failed: match not found for %s%n", key);
+    UpdateContentionStats contentionStats() {
+        return new UpdateContentionStats(updates.sum(), updateConflicts.sum(), updateRetries.sum(), updatesExhausted.sum());
+    }
+
+    /**
+     * Starts rejected because one of the teams was already playing.
+     */
+    long reservationConflicts() {
+        return reservationConflicts.sum();
+    }
+
+    int liveMatches() {
+        return matches.size();
+    }
+
+    /**
+     * Finishes a match. The journal record goes in before the archive row, and both under the archive's lock: if
+     * either fails, the match stays live and neither records the finish.
+     */
+    boolean removeBy(String homeTeam, String awayTeam) {
+        requireWritable();
+        final var key = MatchKey.find(homeTeam, awayTeam);
+        if (key == null) {
             return false;
         }
+        final long[] last = new long[1];
+        final MatchSlot removed;
+        final int epoch = beginWrite();
+        try {
+            removed = matches.remove(key, slot -> {
+                last[0] = slot.markRemoved();
+                try {
+                    if (archive == null) {
+                        log.appendRemove(slot);
+                    } else {
+                        archive.append(slot.getHomeTeam(), slot.getAwayTeam(), MatchSlot.homeScore(last[0]),
+                                MatchSlot.awayScore(last[0]), Instant.now(), () -> log.appendRemove(slot));
+                    }
+                    summaryIndex.remove(slot.position(last[0]));
+                    changeLog.recordChange(key, slot);
+                } catch (RuntimeException e) {
+                    // the store keeps the match when the callback throws, so it must stay live too
+                    slot.setState(last[0]);
+                    throw e;
+                }
+            });
 
-        unregisterTeams(key.team1(), key.team2());
-        System.out.printf("Match removed: %s%n", key);
+            if (removed == null) {
+                return false;
+            }
+
+            retireTimeline(key);
+            unregisterTeams(key.team1(), key.team2());
+        } finally {
+            endWrite(epoch);
+        }
+        log.awaitDurable();
         return true;
     }
 
-    private boolean registerTeams(String team1, String team2) {
-        if (!teamsInUse.add(team1) || !teamsInUse.add(team2)) {
-            unregisterTeams(team1, team2);
+    /**
+     * Moves {@code slot} from {@code expected} to {@code next}. The index entry for {@code next} goes in first, so the
+     * match has a current entry on both sides of the compare-and-set; the entry for {@code expected} comes out only
+     * once it has landed. Then the journal and the change log are brought up to date.
+     */
+    private boolean compareAndSet(MatchSlot slot, long expected, long next) {
+        final SummaryPosition position = slot.position(next);
+        summaryIndex.put(position, slot);
+        if (!slot.compareAndSetState(expected, next)) {
+            if (!slot.position(slot.state()).equals(position)) {
+                summaryIndex.remove(position);
+            }
             return false;
         }
+        updates.increment();
+        log.appendUpdate(slot, next);
+        final ScoreTimeline timeline = timelines.get(slot.getKey());
+        if (timeline != null) {
+            timeline.record(next, System.currentTimeMillis());
+        }
+        summaryIndex.remove(slot.position(expected));
+        changeLog.recordChange(slot.getKey(), slot);
         return true;
     }
 
-    private void unregisterTeams(String team1, String team2) {
-        teamsInUse.remove(team1);
-        teamsInUse.remove(team2);
+    /**
+     * Recovered matches start their timelines at the restored score; the journal keeps no times to rebuild more.
+     */
+    private void startTimelines() {
+        final long now = System.currentTimeMillis();
+        matches.forEach(slot -> startTimeline(slot, now));
+    }
+
+    private void startTimeline(MatchSlot slot, long now) {
+        timelines.put(slot.getKey(), new ScoreTimeline(slot.getHomeTeam(), slot.getAwayTeam(), slot.state(), now));
+        synchronized (finishedTimelines) {
+            finishedTimelines.remove(slot.getKey());
+        }
+    }
+
+    /**
+     * Moves the timeline of a finished match out of the live ones, keeping only the most recently finished.
+     */
+    private void retireTimeline(MatchKey key) {
+        final ScoreTimeline timeline = timelines.get(key);
+        if (timeline == null) {
+            return;
+        }
+        synchronized (finishedTimelines) {
+            finishedTimelines.put(key, timeline);
+            if (finishedTimelines.size() > FINISHED_TIMELINES) {
+                final Iterator<MatchKey> oldest = finishedTimelines.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+        timelines.remove(key, timeline);
+    }
+
+    private void clearTimelines() {
+        timelines.clear();
+        synchronized (finishedTimelines) {
+            finishedTimelines.clear();
+        }
+    }
+
+    /**
+     * State of the entry's match if the entry is its current one, or {@code -1} for an entry left behind
+     * by an update or removal still in progress.
+     */
+    private static long currentState(Map.Entry<SummaryPosition, MatchSlot> entry) {
+        final long state = entry.getValue().state();
+        final SummaryPosition position = entry.getKey();
+        return !MatchSlot.isRemoved(state) && MatchSlot.version(state) == position.version()
+                && MatchSlot.homeScore(state) + MatchSlot.awayScore(state) == position.totalScore() ? state : -1;
+    }
+
+    @FunctionalInterface
+    private interface SummaryMapper<T> {
+        T map(MatchSlot slot, long state);
+    }
+
+    private SummaryPage collectPage(Iterator<Map.Entry<SummaryPosition, MatchSlot>> entries, int limit) {
+        final List<MatchRecord> page = new ArrayList<>(Math.min(limit, 64));
+        SummaryPosition last = null;
+        while (page.size() < limit && entries.hasNext()) {
+            final Map.Entry<SummaryPosition, MatchSlot> entry = entries.next();
+            final long state = currentState(entry);
+            if (state != -1) {
+                last = entry.getKey();
+                page.add(entry.getValue().toRecord(state));
+            }
+        }
+        boolean more = false;
+        while (last != null && !more && entries.hasNext()) {
+            // entries left over from a concurrent update or finish do not make another page
+            more = currentState(entries.next()) != -1;
+        }
+        return new SummaryPage(Collections.unmodifiableList(page), more ? last.toCursor() : null);
+    }
+
+    private void requireWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("This board is a read-only replica; send writes to the primary");
+        }
+    }
+
+    private int beginWrite() {
+        final int epoch = writeEpoch;
+        writesInFlight[epoch].increment();
+        return epoch;
+    }
+
+    private void endWrite(int epoch) {
+        writesInFlight[epoch].decrement();
+    }
+
+    private boolean registerTeams(int team1, int team2) {
+        if (!teamsInUse.reserve(team1)) {
+            return false;
+        }
+        if (!teamsInUse.reserve(team2)) {
+            teamsInUse.release(team1);
+            return false;
+        }
+        return true;
+    }
+
+    private void unregisterTeams(int team1, int team2) {
+        teamsInUse.release(team1);
+        teamsInUse.release(team2);
+    }
+
+    /**
+     * Applies snapshot entries and journal records without logging them again. Each one is applied only when it
+     * still makes sense against the current state, so replaying a record whose effect the snapshot already holds
+     * is harmless.
+     */
+    final class Recovery implements MutationLog.Visitor {
+        private final boolean recordTimelines;
+
+        private Recovery(boolean recordTimelines) {
+            this.recordTimelines = recordTimelines;
+        }
+
+        @Override
+        public void onSave(String homeTeam, String awayTeam, long addedAt) {
+            onRestore(Match.restore(homeTeam, awayTeam, 0, 0, addedAt));
+        }
+
+        void onRestore(Match match) {
+            clock.observe(match.getAddedAt());
+            final MatchKey key = match.getKey();
+            if (matches.get(key) != null || !registerTeams(key.team1(), key.team2())) {
+                return;
+            }
+            matches.insert(match, slot -> {
+                if (recordTimelines) {
+                    startTimeline(slot, System.currentTimeMillis());
+                }
+                summaryIndex.put(slot.position(slot.state()), slot);
+                changeLog.recordChange(key, slot);
+            });
+        }
+
+        /**
+         * Brings the board to exactly {@code snapshot} match by match, so readers never see it emptied: matches the
+         * snapshot lacks, or holds as a different game, are removed, the rest are restored or set to its state.
+         */
+        void onReplace(List<Match> snapshot) {
+            final Map<MatchKey, Match> wanted = new HashMap<>();
+            snapshot.forEach(match -> wanted.put(match.getKey(), match));
+            final List<MatchSlot> stale = new ArrayList<>();
+            matches.forEach(slot -> {
+                final Match match = wanted.get(slot.getKey());
+                if (match == null || match.getAddedAt() != slot.getAddedAt()
+                        || !match.getHomeTeam().equals(slot.getHomeTeam())) {
+                    stale.add(slot);
+                }
+            });
+            stale.forEach(slot -> onRemove(slot.getHomeTeam(), slot.getAwayTeam()));
+            for (final Match match : snapshot) {
+                final MatchSlot slot = matches.get(match.getKey());
+                final long next = MatchSlot.pack(match.getVersion(), match.getHomeScore(), match.getAwayScore());
+                if (slot == null) {
+                    onRestore(match);
+                } else if (slot.state() != next) {
+                    restoreState(slot, next);
+                }
+            }
+        }
+
+        @Override
+        public void onVersionedUpdate(String homeTeam, String awayTeam, long addedAt, int version, int homeScore, int awayScore) {
+            final MatchSlot slot = matches.get(MatchKey.of(homeTeam, awayTeam));
+            if (slot != null && slot.getAddedAt() == addedAt && MatchSlot.version(slot.state()) < version) {
+                restoreState(slot, MatchSlot.pack(version, homeScore, awayScore));
+            }
+        }
+
+        private void restoreState(MatchSlot slot, long next) {
+            final long previous = slot.state();
+            summaryIndex.put(slot.position(next), slot);
+            slot.setState(next);
+            if (recordTimelines) {
+                final ScoreTimeline timeline = timelines.get(slot.getKey());
+                if (timeline != null) {
+                    timeline.record(next, System.currentTimeMillis());
+                }
+            }
+            summaryIndex.remove(slot.position(previous));
+            changeLog.recordChange(slot.getKey(), slot);
+        }
+
+        @Override
+        public void onRemove(String homeTeam, String awayTeam) {
+            final MatchKey key = MatchKey.of(homeTeam, awayTeam);
+            final MatchSlot removed = matches.remove(key, slot -> {
+                summaryIndex.remove(slot.position(slot.markRemoved()));
+                changeLog.recordChange(key, slot);
+            });
+            if (removed != null) {
+                retireTimeline(key);
+                unregisterTeams(key.team1(), key.team2());
+            }
+        }
+
+        @Override
+        public void onClear() {
+            matches.clear();
+            clearTimelines();
+            summaryIndex.clear();
+            teamsInUse.clear();
+            changeLog.recordReset();
+        }
     }
 }
@@ -0,0 +1,75 @@
+package pl.jakubtworek;
+
+/**
+ * Live match as stored by a {@link MatchStore}: the fixed identity plus a mutable state word.
+ *
+ * <p>The state packs a removed flag (bit 63), a 31-bit version (bits 32-62) and both 16-bit scores into one long, so a
+ * score update is a single compare-and-set that allocates nothing, and a conflict is detected by version rather than
+ * by comparing scores, which would let a change and its reversal go unnoticed.
+ */
+abstract class MatchSlot {
+    static final int MAX_SCORE = 0xFFFF;
+    static final long REMOVED = 1L << 63;
+
+    abstract long state();
+
+    abstract boolean compareAndSetState(long expected, long next);
+
+    /**
+     * Overwrites the state; only for recovery, or to revive a match flagged removed, when nothing else can write.
+     */
+    abstract void setState(long next);
+
+    /**
+     * Flags the match as removed so no later update can succeed, and returns the last live state.
+     */
+    abstract long markRemoved();
+
+    abstract MatchKey getKey();
+
+    abstract String getHomeTeam();
+
+    abstract String getAwayTeam();
+
+    abstract long getAddedAt();
+
+    static long pack(int version, int homeScore, int awayScore) {
+        return (long) (version & Integer.MAX_VALUE) << 32 | (long) homeScore << 16 | awayScore;
+    }
+
+    static long withScore(long state, int homeScore, int awayScore) {
+        return pack(version(state) + 1, homeScore, awayScore);
+    }
+
+    static boolean isRemoved(long state) {
+        return (state & REMOVED) != 0;
+    }
+
+    static int version(long state) {
+        return (int) (state >>> 32) & Integer.MAX_VALUE;
+    }
+
+    static int homeScore(long state) {
+        return (int) (state >>> 16) & MAX_SCORE;
+    }
+
+    static int awayScore(long state) {
+        return (int) state & MAX_SCORE;
+    }
+
+    static boolean hasScore(long state, int homeScore, int awayScore) {
+        return homeScore(state) == homeScore && awayScore(state) == awayScore;
+    }
+
+    SummaryPosition position(long state) {
+        return new SummaryPosition(homeScore(state) + awayScore(state), getAddedAt(), getKey(), version(state));
+    }
+
+    MatchRecord toRecord(long state) {
+        return new MatchRecord(getHomeTeam(), getAwayTeam(), homeScore(state), awayScore(state));
+    }
+
+    Match toMatch(long state) {
+        return Match.restore(getHomeTeam(), getAwayTeam(), homeScore(state), awayScore(state), getAddedAt(), version(state));
+    }
+}
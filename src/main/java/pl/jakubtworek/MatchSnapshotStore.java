@@ -0,0 +1,204 @@
+package pl.jakubtworek;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time snapshots of a journaled {@link MatchRepository}, so a restart loads one file and replays only
+ * the journal tail written after it.
+ *
+ * <p>Layout: magic, format version, the journal position the snapshot is consistent with, the match count, then
+ * per match the home and away team, both scores, {@code addedAt} and the update version, followed by a CRC32C of
+ * everything before it.
+ * Team reservations are not stored separately: every live match reserves exactly its two teams, so they are
+ * rebuilt from the keys. The two newest snapshots are kept, and journal segments are pruned only up to the older
+ * one, so a damaged latest snapshot still has a fallback.
+ */
+final class MatchSnapshotStore implements AutoCloseable {
+    private static final int MAGIC = 0x53425331;
+    private static final short FORMAT_VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int RETAINED = 2;
+
+    private final Path directory;
+    private final FailureRecorder failures = new FailureRecorder();
+    private ScheduledExecutorService scheduler;
+
+    MatchSnapshotStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create snapshot directory " + directory, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of {@code repository} while writers keep running. Writes that race with the walk are
+     * also in the journal after the recorded position, and replaying them on top of the snapshot is idempotent.
+     */
+    Path write(MatchRepository repository, MatchJournal journal) {
+        final long position = repository.checkpoint(journal::position);
+        final List<Match> live = new ArrayList<>();
+        repository.forEachMatch(live::add);
+
+        final Path target = directory.resolve(String.format("%s%020d%s", PREFIX, position, SUFFIX));
+        final Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            final CRC32C checksum = new CRC32C();
+            try (var file = new FileOutputStream(temporary.toFile());
+                 var out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, checksum), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeLong(position);
+                out.writeInt(live.size());
+                for (Match match : live) {
+                    out.writeUTF(match.getHomeTeam());
+                    out.writeUTF(match.getAwayTeam());
+                    out.writeInt(match.getHomeScore());
+                    out.writeInt(match.getAwayScore());
+                    out.writeLong(match.getAddedAt());
+                    out.writeInt(match.getVersion());
+                }
+                out.flush();
+                new DataOutputStream(file).writeInt((int) checksum.getValue());
+                file.getFD().sync();
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + target, e);
+        }
+        prune(journal);
+        return target;
+    }
+
+    /**
+     * Feeds the matches of the newest intact snapshot to {@code restore} and returns the journal position to
+     * replay from, or 0 when there is no usable snapshot.
+     */
+    long restoreLatest(Consumer<Match> restore) {
+        for (Path snapshot : snapshotsNewestFirst()) {
+            final List<Match> matches = new ArrayList<>();
+            final long position;
+            try {
+                position = read(snapshot, matches);
+            } catch (IOException | IllegalStateException e) {
+                failures.record(e);
+                continue;
+            }
+            matches.forEach(restore);
+            return position;
+        }
+        return 0;
+    }
+
+    void scheduleSnapshots(MatchRepository repository, MatchJournal journal, Duration period) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Snapshots are already scheduled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task ->
+                Thread.ofPlatform().name("scoreboard-snapshots").daemon().unstarted(task));
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                write(repository, journal);
+            } catch (RuntimeException e) {
+                failures.record(e);
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Latest snapshot skipped on restore or scheduled write that failed; neither stops the board.
+     */
+    Optional<Exception> lastFailure() {
+        return failures.last();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long read(Path snapshot, List<Match> matches) throws IOException {
+        final CRC32C checksum = new CRC32C();
+        try (var file = new FileInputStream(snapshot.toFile());
+             var in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(file, BUFFER_SIZE), checksum))) {
+            final int magic = in.readInt();
+            final short format = in.readShort();
+            if (magic != MAGIC || format != FORMAT_VERSION) {
+                throw new IllegalStateException("not a snapshot in a supported format");
+            }
+            final long position = in.readLong();
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String home = in.readUTF();
+                final String away = in.readUTF();
+                final int homeScore = in.readInt();
+                final int awayScore = in.readInt();
+                final long addedAt = in.readLong();
+                matches.add(Match.restore(home, away, homeScore, awayScore, addedAt, in.readInt()));
+            }
+            final int expected = (int) checksum.getValue();
+            if (in.readInt() != expected || in.read() != -1) {
+                throw new IllegalStateException("checksum mismatch");
+            }
+            return position;
+        }
+    }
+
+    private void prune(MatchJournal journal) {
+        final List<Path> snapshots = snapshotsNewestFirst();
+        try {
+            for (Path stale : snapshots.subList(Math.min(RETAINED, snapshots.size()), snapshots.size())) {
+                Files.deleteIfExists(stale);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prune snapshots in " + directory, e);
+        }
+        if (snapshots.size() >= RETAINED) {
+            journal.deleteSegmentsBefore(positionOf(snapshots.get(RETAINED - 1)));
+        }
+    }
+
+    private List<Path> snapshotsNewestFirst() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        final String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(MatchSnapshotStore::positionOf).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list snapshots in " + directory, e);
+        }
+    }
+
+    private static long positionOf(Path snapshot) {
+        final String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,45 @@
+package pl.jakubtworek;
+
+import java.util.function.Consumer;
+
+/**
+ * Live match rows of a {@link MatchRepository}, keyed by {@link MatchKey}.
+ *
+ * <p>An insert or removal runs its callback while it holds the key exclusively and before the change becomes visible
+ * to lookups, so the repository can log and index the change before another change of the same key starts.
+ * Lookups never block, and score updates go straight to the returned {@link MatchSlot}.
+ */
+interface MatchStore {
+
+    /**
+     * Slot of the match under {@code key}, or {@code null} when there is none.
+     */
+    MatchSlot get(MatchKey key);
+
+    /**
+     * Adds a slot for {@code match} and passes it to {@code onInserted}, or returns {@code null} when the key is
+     * already taken. If the callback throws, nothing is added.
+     */
+    MatchSlot insert(Match match, Consumer<MatchSlot> onInserted);
+
+    /**
+     * Removes the slot under {@code key} after passing it to {@code onRemoved}, or returns {@code null} when there
+     * is none. The removed slot stays readable and reports its last state as removed.
+     */
+    MatchSlot remove(MatchKey key, Consumer<MatchSlot> onRemoved);
+
+    /**
+     * Visits every slot without blocking writers; slots added or removed during the walk may or may not be seen.
+     */
+    void forEach(Consumer<MatchSlot> action);
+
+    /**
+     * Number of live slots; may be off by the inserts and removals running concurrently.
+     */
+    int size();
+
+    /**
+     * Marks every slot removed and drops them all.
+     */
+    void clear();
+}
@@ -0,0 +1,71 @@
+package pl.jakubtworek;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer (Vyukov's sequenced ring).
+ * Producers never block: {@link #offer} returns {@code false} when the ring is full.
+ */
+final class MpscRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        while (true) {
+            final long position = tail.get();
+            final int index = (int) (position & mask);
+            final long gap = sequences.get(index) - position;
+            if (gap == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+            } else if (gap < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Hands at most {@code limit} published elements to {@code consumer}. Must only be called by the consumer thread.
+     */
+    int drain(Consumer<? super E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            final int index = (int) (head & mask);
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            final E element = elements.getPlain(index);
+            elements.setPlain(index, null);
+            sequences.setRelease(index, head + mask + 1);
+            head++;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    boolean isEmpty() {
+        return sequences.getAcquire((int) (head & mask)) != head + 1;
+    }
+}
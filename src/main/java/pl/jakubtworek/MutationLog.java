@@ -0,0 +1,52 @@
+package pl.jakubtworek;
+
+/**
+ * Ordered record of repository writes. {@link MatchRepository} appends while it holds the affected key,
+ * so the log order matches the order in which writes to the same match (and the team reservations they
+ * release or take) became visible.
+ */
+interface MutationLog {
+    MutationLog NONE = new MutationLog() {
+        @Override
+        public void appendSave(Match match) { }
+
+        @Override
+        public void appendUpdate(MatchSlot match, long state) { }
+
+        @Override
+        public void appendRemove(MatchSlot removed) { }
+
+        @Override
+        public void appendClear() { }
+
+        @Override
+        public void awaitDurable() { }
+    };
+
+    void appendSave(Match match);
+
+    /**
+     * Score update of {@code match} to {@code state}. Updates to one match may reach the log out of order,
+     * so replay keeps the highest version of the same match (same {@code addedAt}).
+     */
+    void appendUpdate(MatchSlot match, long state);
+
+    void appendRemove(MatchSlot removed);
+
+    void appendClear();
+
+    /**
+     * Returns once everything appended by the calling thread is as durable as the log's policy promises.
+     */
+    void awaitDurable();
+
+    interface Visitor {
+        void onSave(String homeTeam, String awayTeam, long addedAt);
+
+        void onVersionedUpdate(String homeTeam, String awayTeam, long addedAt, int version, int homeScore, int awayScore);
+
+        void onRemove(String homeTeam, String awayTeam);
+
+        void onClear();
+    }
+}
@@ -0,0 +1,357 @@
+package pl.jakubtworek;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * {@link MatchStore} keeping match rows outside the Java heap, so a board with many live matches gives the garbage
+ * collector almost nothing to trace.
+ *
+ * <p>Rows are fixed-width slots in one {@link MemorySegment}: the state word, {@code addedAt} and both team ids. They
+ * are found through an open-addressing hash index, also off-heap, mapping each packed {@link MatchKey} to its row.
+ * The only per-match heap object is a small handle pointing at the row. Team names are read back from
+ * {@link TeamDictionary}, so a match is reported under the spelling the dictionary saw first.
+ *
+ * <p>Lookups and score reads never lock. Inserts and removals are serialized on the store, and a removed key leaves a
+ * tombstone that the next insert on its probe path reuses; the index is rebuilt into a fresh segment once tombstones
+ * fill a quarter of it. Rows of finished matches are reused, so the version stored in a row's state word is offset by
+ * a per-occupant base that starts past the previous occupant's last version: a stale handle's compare-and-set then
+ * fails on the version instead of landing on the new match, and score updates never lock. Memory is released when the
+ * store becomes unreachable.
+ */
+final class OffHeapMatchStore implements MatchStore {
+    static final int MAX_CAPACITY = 1 << 24;
+    private static final int ROW_BYTES = 24;
+    private static final int STATE = 0;
+    private static final int ADDED_AT = 8;
+    private static final int HOME_TEAM = 16;
+    private static final int AWAY_TEAM = 20;
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final long VERSION_BITS = (long) Integer.MAX_VALUE << 32;
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final int capacity;
+    private final MemorySegment rows;
+    private final ByteBuffer rowWords;
+    private final AtomicReferenceArray<Slot> slots;
+    private final int[] freeRows;
+    private volatile Index index;
+    private int freeCount;
+    private int nextRow;
+    private int used;
+    private volatile int size;
+
+    OffHeapMatchStore(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = capacity;
+        this.rows = Arena.ofAuto().allocate((long) capacity * ROW_BYTES, Long.BYTES);
+        this.rowWords = rows.asByteBuffer();
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.freeRows = new int[capacity];
+        this.index = new Index(Integer.highestOneBit(capacity) << 2);
+    }
+
+    @Override
+    public MatchSlot get(MatchKey key) {
+        final Index current = index;
+        final long packed = key.packed();
+        for (int i = key.hashCode() & current.mask; ; i = i + 1 & current.mask) {
+            final long stored = current.key(i);
+            if (stored == EMPTY) {
+                return null;
+            }
+            if (stored == packed) {
+                final Slot slot = slots.get(current.row(i));
+                return slot != null && slot.key.packed() == packed ? slot : null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized MatchSlot insert(Match match, Consumer<MatchSlot> onInserted) {
+        final MatchKey key = match.getKey();
+        final long packed = key.packed();
+        final Index current = index;
+        int target = -1;
+        int i = key.hashCode() & current.mask;
+        for (long stored; (stored = current.key(i)) != EMPTY; i = i + 1 & current.mask) {
+            if (stored == packed) {
+                return null;
+            }
+            if (stored == TOMBSTONE && target < 0) {
+                target = i;
+            }
+        }
+        if (freeCount == 0 && nextRow == capacity) {
+            throw new IllegalStateException("Off-heap match store is full");
+        }
+        final boolean fresh = target < 0;
+        if (fresh) {
+            target = i;
+        }
+
+        final int row = freeCount > 0 ? freeRows[--freeCount] : nextRow++;
+        final long offset = (long) row * ROW_BYTES;
+        final TeamDictionary teams = TeamDictionary.getInstance();
+        final Slot slot = new Slot(key, row, MatchSlot.version(state(row)) + 1 & Integer.MAX_VALUE);
+        rows.set(ValueLayout.JAVA_INT, offset + HOME_TEAM, teams.idOf(match.getHomeTeam()));
+        rows.set(ValueLayout.JAVA_INT, offset + AWAY_TEAM, teams.idOf(match.getAwayTeam()));
+        rows.set(ValueLayout.JAVA_LONG, offset + ADDED_AT, match.getAddedAt());
+        WORDS.setVolatile(rowWords, (int) offset + STATE,
+                slot.stored(MatchSlot.pack(match.getVersion(), match.getHomeScore(), match.getAwayScore())));
+        try {
+            onInserted.accept(slot);
+        } catch (RuntimeException e) {
+            freeRows[freeCount++] = row;
+            throw e;
+        }
+        slots.set(row, slot);
+        current.put(target, packed, row);
+        size++;
+
+        if (fresh && ++used > current.mask + 1 - (current.mask + 1 >> 2)) {
+            rebuildIndex();
+        }
+        return slot;
+    }
+
+    @Override
+    public synchronized MatchSlot remove(MatchKey key, Consumer<MatchSlot> onRemoved) {
+        final Index current = index;
+        final long packed = key.packed();
+        for (int i = key.hashCode() & current.mask; ; i = i + 1 & current.mask) {
+            final long stored = current.key(i);
+            if (stored == EMPTY) {
+                return null;
+            }
+            if (stored == packed) {
+                final int row = current.row(i);
+                final Slot slot = slots.get(row);
+                onRemoved.accept(slot);
+                current.put(i, TOMBSTONE, row);
+                release(slot);
+                return slot;
+            }
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<MatchSlot> action) {
+        for (int row = 0; row < slots.length(); row++) {
+            final Slot slot = slots.get(row);
+            if (slot != null) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (int row = 0; row < nextRow; row++) {
+            final Slot slot = slots.get(row);
+            if (slot != null) {
+                release(slot);
+            }
+        }
+        index = new Index(index.mask + 1);
+        freeCount = 0;
+        nextRow = 0;
+        used = 0;
+        size = 0;
+    }
+
+    private void release(Slot slot) {
+        final int row = slot.row;
+        slot.detach();
+        slots.set(row, null);
+        freeRows[freeCount++] = row;
+        size--;
+    }
+
+    private void rebuildIndex() {
+        final Index rebuilt = new Index(index.mask + 1);
+        int live = 0;
+        for (int row = 0; row < nextRow; row++) {
+            final Slot slot = slots.get(row);
+            if (slot != null) {
+                final long packed = slot.key.packed();
+                int i = slot.key.hashCode() & rebuilt.mask;
+                while (rebuilt.key(i) != EMPTY) {
+                    i = i + 1 & rebuilt.mask;
+                }
+                rebuilt.put(i, packed, row);
+                live++;
+            }
+        }
+        used = live;
+        index = rebuilt;
+    }
+
+    private long state(int row) {
+        return (long) WORDS.getVolatile(rowWords, row * ROW_BYTES + STATE);
+    }
+
+    /**
+     * Hash index entries of two words: the packed key, written last so that a reader seeing it also sees the row.
+     * A replaced index is never written again and stays valid for readers still probing it.
+     */
+    private static final class Index {
+        private final MemorySegment entries;
+        private final ByteBuffer words;
+        private final int mask;
+
+        private Index(int size) {
+            this.entries = Arena.ofAuto().allocate((long) size * 2 * Long.BYTES, Long.BYTES);
+            this.words = entries.asByteBuffer();
+            this.mask = size - 1;
+        }
+
+        long key(int i) {
+            return (long) WORDS.getVolatile(words, i * 2 * Long.BYTES);
+        }
+
+        int row(int i) {
+            return (int) entries.get(ValueLayout.JAVA_LONG, (long) i * 2 * Long.BYTES + Long.BYTES);
+        }
+
+        void put(int i, long key, int row) {
+            entries.set(ValueLayout.JAVA_LONG, (long) i * 2 * Long.BYTES + Long.BYTES, row);
+            WORDS.setVolatile(words, i * 2 * Long.BYTES, key);
+        }
+    }
+
+    /**
+     * Handle of one row. Once the match is removed the handle keeps a copy of its last values and lets go of the row.
+     * The row stores versions offset by {@code base}, so words written for an earlier or later occupant of the same
+     * row never compare equal to this match's.
+     */
+    private final class Slot extends MatchSlot {
+        private final MatchKey key;
+        private final int base;
+        private volatile int row;
+        private Match last;
+
+        private Slot(MatchKey key, int row, int base) {
+            this.key = key;
+            this.row = row;
+            this.base = base;
+        }
+
+        @Override
+        long state() {
+            final int current = row;
+            if (current >= 0) {
+                final long stored = OffHeapMatchStore.this.state(current);
+                if (row == current) {
+                    return logical(stored);
+                }
+            }
+            return pack(last.getVersion(), last.getHomeScore(), last.getAwayScore()) | REMOVED;
+        }
+
+        @Override
+        boolean compareAndSetState(long expected, long next) {
+            final int current = row;
+            return current >= 0 && WORDS.compareAndSet(rowWords, current * ROW_BYTES + STATE, stored(expected), stored(next));
+        }
+
+        @Override
+        void setState(long next) {
+            final int current = row;
+            if (current >= 0) {
+                WORDS.setVolatile(rowWords, current * ROW_BYTES + STATE, stored(next));
+            }
+        }
+
+        @Override
+        long markRemoved() {
+            while (true) {
+                final int current = row;
+                if (current < 0) {
+                    return state() & ~REMOVED;
+                }
+                final long stored = OffHeapMatchStore.this.state(current);
+                if (row == current && (isRemoved(stored)
+                        || WORDS.compareAndSet(rowWords, current * ROW_BYTES + STATE, stored, stored | REMOVED))) {
+                    return logical(stored) & ~REMOVED;
+                }
+            }
+        }
+
+        /**
+         * Called under the store's lock before the row goes back on the free list.
+         */
+        private void detach() {
+            final long state = markRemoved();
+            last = Match.restore(getHomeTeam(), getAwayTeam(), homeScore(state), awayScore(state), getAddedAt(), version(state));
+            row = -1;
+        }
+
+        private long stored(long state) {
+            return state & ~VERSION_BITS | (long) (version(state) + base & Integer.MAX_VALUE) << 32;
+        }
+
+        private long logical(long stored) {
+            return stored & ~VERSION_BITS | (long) (version(stored) - base & Integer.MAX_VALUE) << 32;
+        }
+
+        @Override
+        MatchKey getKey() {
+            return key;
+        }
+
+        @Override
+        String getHomeTeam() {
+            final int current = row;
+            if (current >= 0) {
+                final int team = rows.get(ValueLayout.JAVA_INT, (long) current * ROW_BYTES + HOME_TEAM);
+                VarHandle.loadLoadFence();
+                if (row == current) {
+                    return TeamDictionary.getInstance().nameOf(team);
+                }
+            }
+            return last.getHomeTeam();
+        }
+
+        @Override
+        String getAwayTeam() {
+            final int current = row;
+            if (current >= 0) {
+                final int team = rows.get(ValueLayout.JAVA_INT, (long) current * ROW_BYTES + AWAY_TEAM);
+                VarHandle.loadLoadFence();
+                if (row == current) {
+                    return TeamDictionary.getInstance().nameOf(team);
+                }
+            }
+            return last.getAwayTeam();
+        }
+
+        @Override
+        long getAddedAt() {
+            final int current = row;
+            if (current >= 0) {
+                final long addedAt = rows.get(ValueLayout.JAVA_LONG, (long) current * ROW_BYTES + ADDED_AT);
+                VarHandle.loadLoadFence();
+                if (row == current) {
+                    return addedAt;
+                }
+            }
+            return last.getAddedAt();
+        }
+    }
+}
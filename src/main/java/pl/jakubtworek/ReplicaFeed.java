@@ -0,0 +1,221 @@
+package pl.jakubtworek;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static pl.jakubtworek.ScoreBoardProtocol.*;
+
+/**
+ * Follower side of replication: keeps a read-only {@link MatchRepository} in step with a primary's
+ * {@link ReplicationLog}.
+ *
+ * <p>A virtual thread connects, says which primary incarnation and sequence it has applied so far, and applies what
+ * comes back through the repository's {@link MatchRepository#recovery() recovery} visitor: a snapshot is collected on
+ * the side and swapped in once complete, so readers keep the old board until then, and record batches go through
+ * {@link MatchJournal#dispatch}. Every batch is acknowledged once applied. A lost connection is retried with backoff,
+ * resuming from the last applied sequence when the primary still has it.
+ */
+final class ReplicaFeed implements AutoCloseable {
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final MatchRepository repository;
+    private final InetSocketAddress primary;
+    private final MatchRepository.Recovery recovery;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MAX_REQUEST_BYTES);
+    private final ByteBuffer out = ByteBuffer.allocate(64);
+    private final Thread thread;
+    private final FailureRecorder failures = new FailureRecorder();
+    private List<Match> snapshot;
+    private volatile SocketChannel channel;
+    private volatile boolean closed;
+    private volatile long incarnation;
+    private volatile long applied = -1;
+    private volatile long primarySequence = -1;
+    private volatile long lastContact;
+
+    ReplicaFeed(MatchRepository repository, InetSocketAddress primary) {
+        this.repository = repository;
+        this.primary = primary;
+        this.recovery = repository.recovery();
+        this.thread = Thread.ofVirtual().name("replica-feed").start(this::run);
+    }
+
+    /**
+     * Last sequence applied, or {@code -1} before the first snapshot has been applied.
+     */
+    long applied() {
+        return applied;
+    }
+
+    long primarySequence() {
+        return primarySequence;
+    }
+
+    /**
+     * Milliseconds since the primary was last heard from, or {@code -1} if it never was.
+     */
+    long millisSinceContact() {
+        final long contact = lastContact;
+        return contact == 0 ? -1 : System.currentTimeMillis() - contact;
+    }
+
+    /**
+     * Latest error that dropped the connection to the primary; the feed keeps retrying after each one.
+     */
+    Optional<Exception> lastFailure() {
+        return failures.last();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        final SocketChannel current = channel;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                failures.record(e);
+            }
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long backoff = MIN_BACKOFF_NANOS;
+        while (!closed) {
+            try (SocketChannel connection = SocketChannel.open(primary)) {
+                connection.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel = connection;
+                if (closed) {
+                    return;
+                }
+                sendHello(connection);
+                in.clear().flip();
+                while (!closed) {
+                    apply(readFrame(connection), connection);
+                    backoff = MIN_BACKOFF_NANOS;
+                }
+            } catch (IOException | RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                if (e instanceof RuntimeException) {
+                    // a record the board could not apply leaves it suspect: forget the history so the primary sends a snapshot
+                    incarnation = 0;
+                    applied = -1;
+                }
+                failures.record(e);
+                LockSupport.parkNanos(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void apply(ByteBuffer frame, SocketChannel connection) throws IOException {
+        lastContact = System.currentTimeMillis();
+        switch (frame.get()) {
+            case ReplicationLog.SNAPSHOT_BEGIN -> {
+                incarnation = frame.getLong();
+                applied = -1;
+                primarySequence = frame.getLong();
+                snapshot = new ArrayList<>();
+            }
+            case ReplicationLog.SNAPSHOT_MATCHES -> {
+                if (snapshot == null) {
+                    throw new ProtocolException("Snapshot matches without a beginning");
+                }
+                for (int count = frame.getInt(); count > 0; count--) {
+                    final String home = getString(frame);
+                    final String away = getString(frame);
+                    final int homeScore = frame.getInt();
+                    final int awayScore = frame.getInt();
+                    snapshot.add(Match.restore(home, away, homeScore, awayScore, frame.getLong(), frame.getInt()));
+                }
+            }
+            case ReplicationLog.SNAPSHOT_END -> {
+                if (snapshot == null) {
+                    throw new ProtocolException("Snapshot end without a beginning");
+                }
+                recovery.onReplace(snapshot);
+                snapshot = null;
+                acknowledge(frame.getLong(), connection);
+            }
+            case ReplicationLog.RESUME -> acknowledge(frame.getLong(), connection);
+            case ReplicationLog.RECORDS -> {
+                final long first = frame.getLong();
+                final int count = frame.getInt();
+                if (first != applied + 1) {
+                    throw new ProtocolException("Expected record " + (applied + 1) + " but got " + first);
+                }
+                for (int i = 0; i < count; i++) {
+                    final int length = frame.getInt();
+                    final int end = frame.position() + length;
+                    MatchJournal.dispatch(frame.slice(frame.position(), length), recovery);
+                    frame.position(end);
+                }
+                primarySequence = Math.max(primarySequence, first + count - 1);
+                acknowledge(first + count - 1, connection);
+            }
+            case ReplicationLog.HEARTBEAT -> primarySequence = frame.getLong();
+            default -> throw new ProtocolException("Unknown replication frame");
+        }
+    }
+
+    private void acknowledge(long sequence, SocketChannel connection) throws IOException {
+        applied = sequence;
+        primarySequence = Math.max(primarySequence, sequence);
+        out.clear();
+        final int start = beginFrame(out, ReplicationLog.ACK);
+        out.putLong(sequence);
+        endFrame(out, start);
+        write(connection);
+    }
+
+    private void sendHello(SocketChannel connection) throws IOException {
+        out.clear();
+        final int start = beginFrame(out, ReplicationLog.HELLO);
+        out.putLong(incarnation).putLong(applied);
+        endFrame(out, start);
+        write(connection);
+    }
+
+    private void write(SocketChannel connection) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            connection.write(out);
+        }
+    }
+
+    /**
+     * Returns the next frame's type and payload, compacting {@code in} and reading more as needed.
+     */
+    private ByteBuffer readFrame(SocketChannel connection) throws IOException {
+        int length;
+        while ((length = completeFrame(in, MAX_REQUEST_BYTES - Integer.BYTES)) < 0) {
+            in.compact();
+            if (connection.read(in) < 0) {
+                throw new ClosedChannelException();
+            }
+            in.flip();
+        }
+        final ByteBuffer frame = in.slice(in.position() + Integer.BYTES, length);
+        in.position(in.position() + Integer.BYTES + length);
+        return frame;
+    }
+}
@@ -0,0 +1,119 @@
+package pl.jakubtworek;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link FootballScoreBoard} kept on several nodes: one primary takes the writes and streams them to any number of
+ * read-only followers, which serve summaries and everything else read-only from their own copy.
+ *
+ * <p>Replication is asynchronous unless the primary is built with {@code syncFollowers > 0}; then each write returns
+ * once that many followers have applied it, or after {@code ackTimeout}, whichever comes first. Writes to a follower
+ * throw {@link IllegalStateException}. When the primary is lost, {@link #promote()} turns a follower into the new
+ * primary, and the other followers are pointed at it with {@link #follow(InetSocketAddress)}. Nothing stops a
+ * primary that was cut off rather than lost from taking writes too, so promotion must be decided from outside.
+ */
+public final class ReplicatedScoreBoard implements AutoCloseable {
+    private static final Duration DEFAULT_ACK_TIMEOUT = Duration.ofMillis(500);
+
+    private final ReplicationLog log;
+    private final MatchRepository repository;
+    private final FootballScoreBoard board;
+    private ReplicaFeed feed;
+
+    private ReplicatedScoreBoard(InetSocketAddress listen, int syncFollowers, Duration ackTimeout, InetSocketAddress primary) {
+        this.log = new ReplicationLog(listen, ReplicationLog.DEFAULT_BACKLOG, syncFollowers, ackTimeout);
+        this.repository = MatchRepository.replicated(log, primary != null);
+        this.board = new FootballScoreBoard(repository);
+        this.feed = primary == null ? null : new ReplicaFeed(repository, primary);
+    }
+
+    /**
+     * A primary that accepts followers on {@code listen} and does not wait for them.
+     */
+    public static ReplicatedScoreBoard primary(InetSocketAddress listen) {
+        return primary(listen, 0, DEFAULT_ACK_TIMEOUT);
+    }
+
+    public static ReplicatedScoreBoard primary(InetSocketAddress listen, int syncFollowers, Duration ackTimeout) {
+        return new ReplicatedScoreBoard(listen, syncFollowers, ackTimeout, null);
+    }
+
+    /**
+     * A follower of {@code primary} that, once promoted, accepts followers of its own on {@code listen}.
+     */
+    public static ReplicatedScoreBoard follower(InetSocketAddress listen, InetSocketAddress primary) {
+        return follower(listen, primary, 0, DEFAULT_ACK_TIMEOUT);
+    }
+
+    /**
+     * As {@link #follower(InetSocketAddress, InetSocketAddress)}; {@code syncFollowers} and {@code ackTimeout} apply
+     * after promotion.
+     */
+    public static ReplicatedScoreBoard follower(InetSocketAddress listen, InetSocketAddress primary,
+                                                int syncFollowers, Duration ackTimeout) {
+        return new ReplicatedScoreBoard(listen, syncFollowers, ackTimeout, Objects.requireNonNull(primary));
+    }
+
+    public FootballScoreBoard board() {
+        return board;
+    }
+
+    /**
+     * Where followers connect to this node while it is primary.
+     */
+    public InetSocketAddress replicationAddress() {
+        return log.address();
+    }
+
+    public synchronized boolean isPrimary() {
+        return feed == null;
+    }
+
+    /**
+     * Stops following and starts taking writes. Sequences restart, so followers of the old primary take a snapshot
+     * when they {@link #follow} this one.
+     */
+    public synchronized void promote() {
+        if (feed == null) {
+            return;
+        }
+        feed.close();
+        feed = null;
+        log.restart();
+        repository.setReadOnly(false);
+    }
+
+    /**
+     * Becomes, or stays, a read-only follower of {@code primary}, dropping any followers of its own.
+     */
+    public synchronized void follow(InetSocketAddress primary) {
+        Objects.requireNonNull(primary);
+        if (feed != null) {
+            feed.close();
+        }
+        repository.setReadOnly(true);
+        log.restart();
+        feed = new ReplicaFeed(repository, primary);
+    }
+
+    public synchronized ReplicationStats getReplicationStats() {
+        if (feed == null) {
+            final long last = log.lastSequence();
+            return new ReplicationStats(true, last, last, 0, log.followerLags(), log.ackTimeouts());
+        }
+        return new ReplicationStats(false, feed.applied(), feed.primarySequence(), feed.millisSinceContact(),
+                List.of(), log.ackTimeouts());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (feed != null) {
+            feed.close();
+            feed = null;
+        }
+        log.close();
+    }
+}
@@ -0,0 +1,498 @@
+package pl.jakubtworek;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static pl.jakubtworek.ScoreBoardProtocol.*;
+
+/**
+ * Primary side of replication: a {@link MutationLog} that numbers every write and streams it to followers over TCP.
+ *
+ * <p>Records use the {@link MatchJournal} payload format and are kept in a ring of the last {@code backlog} writes.
+ * A connecting follower says which primary incarnation and sequence it has applied; if the ring still reaches back
+ * that far it resumes from there, otherwise it gets a snapshot taken at a {@link MatchRepository#checkpoint} and the
+ * records after it. Each follower has a virtual thread that sends everything appended since its last batch in one
+ * frame without waiting for acknowledgements, and another that reads the cumulative acks coming back. A follower that
+ * falls out of the ring is sent a fresh snapshot.
+ *
+ * <p>With {@code syncFollowers > 0}, {@link #awaitDurable()} holds the writer until that many followers have applied
+ * everything logged so far, but never waits for more followers than are connected, nor longer than
+ * {@code ackTimeout}; timeouts are counted instead of failing the write, which is already visible on the primary.
+ * Connections are refused while the repository is a read-only follower itself.
+ */
+final class ReplicationLog implements MutationLog, AutoCloseable {
+    static final byte HELLO = 1;
+    static final byte ACK = 2;
+    static final byte SNAPSHOT_BEGIN = 10;
+    static final byte SNAPSHOT_MATCHES = 11;
+    static final byte SNAPSHOT_END = 12;
+    static final byte RECORDS = 13;
+    static final byte HEARTBEAT = 14;
+    static final byte RESUME = 15;
+
+    static final int DEFAULT_BACKLOG = 1 << 16;
+    static final long HEARTBEAT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** Frames are cut after this many bytes; one more record or match always fits in the rest of the buffer. */
+    private static final int BATCH_BYTES = 1 << 16;
+
+    private final ServerSocketChannel server;
+    private final AtomicReferenceArray<byte[]> records;
+    private final AtomicLongArray appendedAt;
+    private final int mask;
+    private final int syncFollowers;
+    private final long ackTimeoutNanos;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private final ReentrantLock ackLock = new ReentrantLock();
+    private final Condition acked = ackLock.newCondition();
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final LongAdder ackTimeouts = new LongAdder();
+    private final FailureRecorder failures = new FailureRecorder();
+    private final Thread acceptor;
+    private volatile MatchRepository repository;
+    private volatile long incarnation = ThreadLocalRandom.current().nextLong();
+    private volatile long lastSequence;
+    private volatile boolean closed;
+
+    ReplicationLog(InetSocketAddress address, int backlog, int syncFollowers, Duration ackTimeout) {
+        if (Integer.bitCount(backlog) != 1) {
+            throw new IllegalArgumentException("Backlog must be a power of two");
+        }
+        if (syncFollowers < 0) {
+            throw new IllegalArgumentException("Synchronous followers cannot be negative");
+        }
+        this.records = new AtomicReferenceArray<>(backlog);
+        this.appendedAt = new AtomicLongArray(backlog);
+        this.mask = backlog - 1;
+        this.syncFollowers = syncFollowers;
+        this.ackTimeoutNanos = ackTimeout.toNanos();
+        try {
+            this.server = ServerSocketChannel.open().bind(address);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not listen for followers on " + address, e);
+        }
+        this.acceptor = Thread.ofVirtual().name("replication-acceptor").start(this::accept);
+    }
+
+    void attach(MatchRepository repository) {
+        this.repository = repository;
+    }
+
+    InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) server.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts a new history: drops every follower and numbers the next write {@code 1} under a new incarnation, so
+     * nobody can resume from a sequence of the old one.
+     */
+    void restart() {
+        appendLock.lock();
+        try {
+            incarnation = ThreadLocalRandom.current().nextLong();
+            lastSequence = 0;
+        } finally {
+            appendLock.unlock();
+        }
+        for (Session session : sessions) {
+            session.close();
+        }
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long ackTimeouts() {
+        return ackTimeouts.sum();
+    }
+
+    List<ReplicationStats.FollowerLag> followerLags() {
+        final long last = lastSequence;
+        final long now = System.currentTimeMillis();
+        final List<ReplicationStats.FollowerLag> lags = new ArrayList<>();
+        for (Session session : sessions) {
+            final long ackedUpTo = session.ackedSequence;
+            final long oldestUnacked = ackedUpTo < last ? appendedAt.get((int) (ackedUpTo + 1) & mask) : now;
+            lags.add(new ReplicationStats.FollowerLag(session.remote, ackedUpTo, last - ackedUpTo,
+                    ackedUpTo + mask < last ? -1 : Math.max(0, now - oldestUnacked)));
+        }
+        return lags;
+    }
+
+    @Override
+    public void appendSave(Match match) {
+        final byte[] home = encode(match.getHomeTeam());
+        final byte[] away = encode(match.getAwayTeam());
+        append(ByteBuffer.allocate(1 + 2 + home.length + 2 + away.length + 8)
+                .put(MatchJournal.SAVE)
+                .putShort((short) home.length).put(home)
+                .putShort((short) away.length).put(away)
+                .putLong(match.getAddedAt()));
+    }
+
+    @Override
+    public void appendUpdate(MatchSlot match, long state) {
+        final byte[] home = encode(match.getHomeTeam());
+        final byte[] away = encode(match.getAwayTeam());
+        append(ByteBuffer.allocate(1 + 2 + home.length + 2 + away.length + 8 + 4 + 8)
+                .put(MatchJournal.VERSIONED_UPDATE)
+                .putShort((short) home.length).put(home)
+                .putShort((short) away.length).put(away)
+                .putLong(match.getAddedAt())
+                .putInt(MatchSlot.version(state))
+                .putInt(MatchSlot.homeScore(state))
+                .putInt(MatchSlot.awayScore(state)));
+    }
+
+    @Override
+    public void appendRemove(MatchSlot removed) {
+        final byte[] home = encode(removed.getHomeTeam());
+        final byte[] away = encode(removed.getAwayTeam());
+        append(ByteBuffer.allocate(1 + 2 + home.length + 2 + away.length)
+                .put(MatchJournal.REMOVE)
+                .putShort((short) home.length).put(home)
+                .putShort((short) away.length).put(away));
+    }
+
+    @Override
+    public void appendClear() {
+        append(ByteBuffer.allocate(1).put(MatchJournal.CLEAR));
+    }
+
+    @Override
+    public void awaitDurable() {
+        if (syncFollowers == 0 || sessions.isEmpty()) {
+            return;
+        }
+        final long target = lastSequence;
+        ackLock.lock();
+        try {
+            long remaining = ackTimeoutNanos;
+            while (caughtUp(target) < Math.min(syncFollowers, sessions.size())) {
+                if (remaining <= 0) {
+                    ackTimeouts.increment();
+                    return;
+                }
+                remaining = acked.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ackLock.unlock();
+        }
+    }
+
+    /**
+     * Latest failure to accept a follower or close a socket; none of them stops replication.
+     */
+    Optional<Exception> lastFailure() {
+        return failures.last();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            failures.record(e);
+        }
+        for (Session session : sessions) {
+            session.close();
+        }
+        appendLock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        appendLock.lock();
+        try {
+            final long sequence = lastSequence + 1;
+            records.set((int) sequence & mask, record.array());
+            appendedAt.set((int) sequence & mask, System.currentTimeMillis());
+            lastSequence = sequence;
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private int caughtUp(long target) {
+        int count = 0;
+        for (Session session : sessions) {
+            if (session.ackedSequence >= target) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                final SocketChannel channel = server.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                if (repository == null || repository.isReadOnly()) {
+                    channel.close();
+                    continue;
+                }
+                final Session session = new Session(channel);
+                Thread.ofVirtual().name("replication-sender").start(session::stream);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                failures.record(e);
+            }
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One connected follower.
+     */
+    private final class Session {
+        private final SocketChannel channel;
+        private final String remote;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(MAX_REQUEST_BYTES);
+        private volatile long ackedSequence;
+
+        private Session(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.remote = String.valueOf(channel.getRemoteAddress());
+        }
+
+        void stream() {
+            try {
+                final ByteBuffer hello = readFrame(ByteBuffer.allocate(64));
+                if (hello.get() != HELLO) {
+                    throw new IOException("Follower did not say hello");
+                }
+                final long followerIncarnation = hello.getLong();
+                final long followerApplied = hello.getLong();
+                long next;
+                if (followerIncarnation == incarnation && followerApplied <= lastSequence
+                        && followerApplied + mask >= lastSequence) {
+                    next = followerApplied + 1;
+                    ackedSequence = followerApplied;
+                    final int start = beginFrame(out, RESUME);
+                    out.putLong(followerApplied);
+                    endFrame(out, start);
+                    flush();
+                } else {
+                    next = sendSnapshot();
+                }
+                sessions.add(this);
+                Thread.ofVirtual().name("replication-acks").start(this::readAcks);
+                while (!closed) {
+                    if (!awaitRecords(next)) {
+                        sendHeartbeat();
+                        continue;
+                    }
+                    final long sent = sendRecords(next);
+                    next = sent < 0 ? sendSnapshot() : sent + 1;
+                }
+            } catch (IOException | BufferUnderflowException e) {
+                // The follower went away; it reconnects and resumes or takes a new snapshot.
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Sends every live match as of a checkpoint, and returns the sequence to continue from.
+         */
+        private long sendSnapshot() throws IOException {
+            final long position = repository.checkpoint(() -> lastSequence);
+            int start = beginFrame(out, SNAPSHOT_BEGIN);
+            out.putLong(incarnation).putLong(position);
+            endFrame(out, start);
+
+            final List<Match> live = new ArrayList<>();
+            repository.forEachMatch(live::add);
+            for (int from = 0; from < live.size(); ) {
+                start = beginFrame(out, SNAPSHOT_MATCHES);
+                final int countAt = out.position();
+                out.putInt(0);
+                int count = 0;
+                while (from < live.size() && out.position() < BATCH_BYTES) {
+                    final Match match = live.get(from++);
+                    putString(out, match.getHomeTeam());
+                    putString(out, match.getAwayTeam());
+                    out.putInt(match.getHomeScore()).putInt(match.getAwayScore())
+                            .putLong(match.getAddedAt()).putInt(match.getVersion());
+                    count++;
+                }
+                out.putInt(countAt, count);
+                endFrame(out, start);
+                flush();
+            }
+
+            start = beginFrame(out, SNAPSHOT_END);
+            out.putLong(position);
+            endFrame(out, start);
+            flush();
+            return position + 1;
+        }
+
+        /**
+         * Sends the records from {@code first} on in one frame, and returns the last sequence sent, or {@code -1}
+         * when the ring no longer holds {@code first}.
+         */
+        private long sendRecords(long first) throws IOException {
+            final long last = lastSequence;
+            final int start = beginFrame(out, RECORDS);
+            out.putLong(first);
+            final int countAt = out.position();
+            out.putInt(0);
+            long sequence = first;
+            while (sequence <= last && out.position() < BATCH_BYTES) {
+                final byte[] record = records.get((int) sequence & mask);
+                if (lastSequence - sequence >= mask) {
+                    out.clear();
+                    return -1;
+                }
+                out.putInt(record.length).put(record);
+                sequence++;
+            }
+            out.putInt(countAt, (int) (sequence - first));
+            endFrame(out, start);
+            flush();
+            return sequence - 1;
+        }
+
+        private void sendHeartbeat() throws IOException {
+            final int start = beginFrame(out, HEARTBEAT);
+            out.putLong(lastSequence).putLong(System.currentTimeMillis());
+            endFrame(out, start);
+            flush();
+        }
+
+        /**
+         * Waits up to a heartbeat interval for {@code next} to be appended.
+         */
+        private boolean awaitRecords(long next) {
+            if (lastSequence >= next) {
+                return true;
+            }
+            appendLock.lock();
+            try {
+                long remaining = HEARTBEAT_NANOS;
+                while (lastSequence < next && remaining > 0 && !closed) {
+                    remaining = appended.awaitNanos(remaining);
+                }
+                return lastSequence >= next;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        private void readAcks() {
+            final ByteBuffer in = ByteBuffer.allocate(64);
+            try {
+                while (!closed) {
+                    final ByteBuffer ack = readFrame(in);
+                    if (ack.get() != ACK) {
+                        throw new IOException("Unexpected frame from follower");
+                    }
+                    ackedSequence = ack.getLong();
+                    ackLock.lock();
+                    try {
+                        acked.signalAll();
+                    } finally {
+                        ackLock.unlock();
+                    }
+                }
+            } catch (IOException | BufferUnderflowException e) {
+                close();
+            }
+        }
+
+        /**
+         * Reads one small frame; followers only ever send fixed-size ones.
+         */
+        private ByteBuffer readFrame(ByteBuffer in) throws IOException {
+            in.clear().limit(Integer.BYTES);
+            readFully(in);
+            final int length = in.getInt(0);
+            if (length < 1 || length > in.capacity() - Integer.BYTES) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            in.limit(Integer.BYTES + length);
+            readFully(in);
+            return in.position(Integer.BYTES);
+        }
+
+        private void readFully(ByteBuffer in) throws IOException {
+            while (in.hasRemaining()) {
+                if (channel.read(in) < 0) {
+                    throw new ClosedChannelException();
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        void close() {
+            if (sessions.remove(this)) {
+                ackLock.lock();
+                try {
+                    acked.signalAll();
+                } finally {
+                    ackLock.unlock();
+                }
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failures.record(e);
+            }
+        }
+    }
+}
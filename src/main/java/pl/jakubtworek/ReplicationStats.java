@@ -0,0 +1,33 @@
+package pl.jakubtworek;
+
+import java.util.List;
+
+/**
+ * Point-in-time view of a {@link ReplicatedScoreBoard}. On a primary, {@code appliedSequence} and
+ * {@code primarySequence} are both the last sequence logged and {@code followers} lists the connected followers; on a
+ * follower they are the last sequence applied and the last one the primary announced, and {@code followers} is empty.
+ * Sequences restart from {@code 0} whenever a node becomes primary.
+ */
+public record ReplicationStats(
+        boolean primary,
+        long appliedSequence,
+        long primarySequence,
+        long millisSinceContact,
+        List<FollowerLag> followers,
+        long ackTimeouts
+) {
+
+    /**
+     * Records the follower has yet to apply, or {@code -1} on a follower that has not finished its first snapshot.
+     */
+    public long lagRecords() {
+        return appliedSequence < 0 ? -1 : primarySequence - appliedSequence;
+    }
+
+    /**
+     * How far one follower is behind the primary. {@code lagMillis} is the age of the oldest record it has not
+     * acknowledged, or {@code -1} once that record has left the primary's backlog.
+     */
+    public record FollowerLag(String address, long ackedSequence, long lagRecords, long lagMillis) {
+    }
+}
@@ -0,0 +1,270 @@
+package pl.jakubtworek;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static pl.jakubtworek.ScoreBoardProtocol.*;
+
+/**
+ * Connection to a {@link ScoreBoardServer} with the operations of {@link FootballScoreBoard}. The blocking methods
+ * throw what the board would: {@link IllegalArgumentException} for rejected commands and
+ * {@link OptimisticLockException} for conflicts.
+ *
+ * <p>The client is thread-safe and pipelines: the {@code ...Async} methods return as soon as the request is queued,
+ * requests from all threads share the connection, and while one thread writes, requests queued by others go out with
+ * its next write. A virtual thread reads the responses and completes the futures in request order.
+ */
+public final class ScoreBoardClient implements AutoCloseable {
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final SocketChannel channel;
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final Thread reader;
+    private ByteBuffer queued = ByteBuffer.allocate(BUFFER_BYTES);
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_BYTES);
+    private volatile Consumer<List<MatchRecord>> subscriber;
+    private volatile Throwable failure;
+
+    private ScoreBoardClient(SocketChannel channel) {
+        this.channel = channel;
+        this.reader = Thread.ofVirtual().name("scoreboard-client-reader").start(this::read);
+    }
+
+    public static ScoreBoardClient connect(InetSocketAddress address) {
+        try {
+            final SocketChannel channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            return new ScoreBoardClient(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not connect to " + address, e);
+        }
+    }
+
+    public void startGame(String homeTeam, String awayTeam) {
+        await(startGameAsync(homeTeam, awayTeam));
+    }
+
+    public void updateScore(String homeTeam, String awayTeam, int homeScore, int awayScore) {
+        await(updateScoreAsync(homeTeam, awayTeam, homeScore, awayScore));
+    }
+
+    public void finishGame(String homeTeam, String awayTeam) {
+        await(finishGameAsync(homeTeam, awayTeam));
+    }
+
+    public List<MatchRecord> getSummary() {
+        return await(getSummaryAsync());
+    }
+
+    public CompletableFuture<Void> startGameAsync(String homeTeam, String awayTeam) {
+        return send(START, homeTeam, awayTeam, 0, 0);
+    }
+
+    public CompletableFuture<Void> updateScoreAsync(String homeTeam, String awayTeam, int homeScore, int awayScore) {
+        return send(UPDATE, homeTeam, awayTeam, homeScore, awayScore);
+    }
+
+    public CompletableFuture<Void> finishGameAsync(String homeTeam, String awayTeam) {
+        return send(FINISH, homeTeam, awayTeam, 0, 0);
+    }
+
+    public CompletableFuture<List<MatchRecord>> getSummaryAsync() {
+        return send(SUMMARY, null, null, 0, 0);
+    }
+
+    /**
+     * Has the server push the summary to {@code onSummary}: once straight away, then after changes at most once per
+     * the server's push window. Calls run on the client's reader thread, so a slow callback delays every response.
+     */
+    public void subscribe(Consumer<List<MatchRecord>> onSummary) {
+        subscriber = onSummary;
+        await(send(SUBSCRIBE, null, null, 0, 0));
+    }
+
+    /**
+     * Closes the connection; requests still waiting for a response fail.
+     */
+    @Override
+    public void close() {
+        fail(new IOException("Client closed"));
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> send(byte type, String homeTeam, String awayTeam, int homeScore, int awayScore) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        queueLock.lock();
+        try {
+            if (failure != null) {
+                future.completeExceptionally(closedException());
+                return (CompletableFuture<T>) future;
+            }
+            final int needed = HEADER_BYTES + 2 * Integer.BYTES
+                    + (homeTeam == null ? 0 : maxStringBytes(homeTeam) + maxStringBytes(awayTeam));
+            if (queued.remaining() < needed) {
+                queued = ByteBuffer.allocate(Math.max(queued.capacity() * 2, queued.position() + needed)).put(queued.flip());
+            }
+            final int start = beginFrame(queued, type);
+            try {
+                if (homeTeam != null) {
+                    putString(queued, homeTeam);
+                    putString(queued, awayTeam);
+                }
+            } catch (RuntimeException e) {
+                queued.position(start);
+                throw e;
+            }
+            if (type == UPDATE) {
+                queued.putInt(homeScore).putInt(awayScore);
+            }
+            endFrame(queued, start);
+            pending.add(new Pending(type, future));
+        } finally {
+            queueLock.unlock();
+        }
+        flush();
+        return (CompletableFuture<T>) future;
+    }
+
+    /**
+     * Writes everything queued. Whoever holds {@code writeLock} keeps swapping buffers until the queue is empty, and
+     * rechecks after letting go, so bytes queued by a thread that found the lock taken are never left behind.
+     */
+    private void flush() {
+        while (writeLock.tryLock()) {
+            try {
+                while (true) {
+                    final ByteBuffer batch;
+                    queueLock.lock();
+                    try {
+                        if (queued.position() == 0) {
+                            break;
+                        }
+                        batch = queued;
+                        queued = writing;
+                        writing = batch;
+                    } finally {
+                        queueLock.unlock();
+                    }
+                    batch.flip();
+                    while (batch.hasRemaining()) {
+                        channel.write(batch);
+                    }
+                    batch.clear();
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            } finally {
+                writeLock.unlock();
+            }
+            queueLock.lock();
+            try {
+                if (queued.position() == 0) {
+                    return;
+                }
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    private void read() {
+        ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES);
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                for (int length; (length = completeFrame(in, Integer.MAX_VALUE)) >= 0; ) {
+                    final ByteBuffer response = in.slice(in.position() + Integer.BYTES, length);
+                    in.position(in.position() + Integer.BYTES + length);
+                    dispatch(response);
+                }
+                in.compact();
+                if (!in.hasRemaining()) {
+                    in = ByteBuffer.allocate(in.capacity() * 2).put(in.flip());
+                }
+            }
+            fail(new EOFException("Server closed the connection"));
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void dispatch(ByteBuffer response) throws ProtocolException {
+        final byte status = response.get();
+        if (status == PUSH) {
+            final Consumer<List<MatchRecord>> current = subscriber;
+            if (current != null) {
+                current.accept(BinarySummaryEncoder.decode(response));
+            }
+            return;
+        }
+        final Pending request = pending.poll();
+        if (request == null) {
+            throw new ProtocolException("Response without a request");
+        }
+        switch (status) {
+            case OK -> request.future().complete(request.type() == SUMMARY ? BinarySummaryEncoder.decode(response) : null);
+            case INVALID -> request.future().completeExceptionally(new IllegalArgumentException(getString(response)));
+            case CONFLICT -> request.future().completeExceptionally(new OptimisticLockException(getString(response)));
+            default -> request.future().completeExceptionally(new IllegalStateException(getString(response)));
+        }
+    }
+
+    private void fail(Throwable cause) {
+        queueLock.lock();
+        try {
+            if (failure == null) {
+                failure = cause;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        for (Pending request; (request = pending.poll()) != null; ) {
+            request.future().completeExceptionally(closedException());
+        }
+    }
+
+    private UncheckedIOException closedException() {
+        final Throwable cause = failure;
+        return new UncheckedIOException("Connection to the score board is closed",
+                cause instanceof IOException io ? io : new IOException(cause));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Pending(byte type, CompletableFuture<Object> future) {}
+}
@@ -0,0 +1,29 @@
+package pl.jakubtworek;
+
+/**
+ * Source of the start stamps that order matches with equal total scores in every summary: the later stamp comes
+ * first. Stamps of one clock only ever grow, and {@link #observe} keeps them above stamps made elsewhere, so boards
+ * that are rebuilt from a journal or a replication stream keep ordering new matches after the ones they received.
+ */
+public interface ScoreBoardClock {
+
+    /**
+     * A stamp greater than every stamp this clock returned or observed before.
+     */
+    long now();
+
+    /**
+     * Takes note of a stamp made by another clock or before a restart, so that later {@link #now()} calls exceed it.
+     *
+     * @throws IllegalArgumentException if {@code stamp} cannot have come from a clock like this one
+     */
+    void observe(long stamp);
+
+    /**
+     * The JVM-wide {@link HybridLogicalClock}, whose node id is the {@value HybridLogicalClock#NODE_ID_PROPERTY}
+     * system property (0 by default). Boards share it unless given a clock of their own.
+     */
+    static ScoreBoardClock systemDefault() {
+        return HybridLogicalClock.SYSTEM;
+    }
+}
@@ -0,0 +1,16 @@
+package pl.jakubtworek;
+
+public sealed interface ScoreBoardEvent {
+
+    long timestamp();
+
+    enum Operation { START, UPDATE, FINISH }
+
+    record GameStarted(long timestamp, String homeTeam, String awayTeam) implements ScoreBoardEvent {}
+
+    record ScoreUpdated(long timestamp, String homeTeam, String awayTeam, int homeScore, int awayScore) implements ScoreBoardEvent {}
+
+    record GameFinished(long timestamp, String homeTeam, String awayTeam) implements ScoreBoardEvent {}
+
+    record OperationRejected(long timestamp, Operation operation, String homeTeam, String awayTeam, String reason) implements ScoreBoardEvent {}
+}
@@ -0,0 +1,16 @@
+package pl.jakubtworek;
+
+/**
+ * Receives an event for every operation the board performs or rejects.
+ * Called on the writer's thread, so implementations must be thread-safe and should return quickly.
+ */
+@FunctionalInterface
+public interface ScoreBoardEventListener {
+    ScoreBoardEventListener NO_OP = event -> { };
+
+    void onEvent(ScoreBoardEvent event);
+
+    static ScoreBoardEventListener noOp() {
+        return NO_OP;
+    }
+}
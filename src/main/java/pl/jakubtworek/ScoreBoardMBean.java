@@ -0,0 +1,59 @@
+package pl.jakubtworek;
+
+final class ScoreBoardMBean implements ScoreBoardMXBean {
+    private final FootballScoreBoard board;
+
+    ScoreBoardMBean(FootballScoreBoard board) {
+        this.board = board;
+    }
+
+    @Override
+    public LatencyStats getStartLatency() {
+        return board.getStats().start();
+    }
+
+    @Override
+    public LatencyStats getUpdateLatency() {
+        return board.getStats().update();
+    }
+
+    @Override
+    public LatencyStats getFinishLatency() {
+        return board.getStats().finish();
+    }
+
+    @Override
+    public LatencyStats getSummaryLatency() {
+        return board.getStats().summary();
+    }
+
+    @Override
+    public LatencyStats getSummaryRebuildLatency() {
+        return board.getStats().summaryRebuild();
+    }
+
+    @Override
+    public UpdateContentionStats getUpdateContention() {
+        return board.getUpdateContentionStats();
+    }
+
+    @Override
+    public long getReservationConflicts() {
+        return board.getStats().reservationConflicts();
+    }
+
+    @Override
+    public SummaryCacheStats getSummaryCache() {
+        return board.getSummaryCacheStats();
+    }
+
+    @Override
+    public double getSummaryCacheHitRatio() {
+        return board.getStats().summaryCacheHitRatio();
+    }
+
+    @Override
+    public long getLiveMatches() {
+        return board.getStats().liveMatches();
+    }
+}
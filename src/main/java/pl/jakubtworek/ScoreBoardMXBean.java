@@ -0,0 +1,28 @@
+package pl.jakubtworek;
+
+/**
+ * Management interface of a board registered with {@link FootballScoreBoard#registerMBean(String)}. Every attribute
+ * is read from a fresh {@link FootballScoreBoard#getStats()}.
+ */
+public interface ScoreBoardMXBean {
+
+    LatencyStats getStartLatency();
+
+    LatencyStats getUpdateLatency();
+
+    LatencyStats getFinishLatency();
+
+    LatencyStats getSummaryLatency();
+
+    LatencyStats getSummaryRebuildLatency();
+
+    UpdateContentionStats getUpdateContention();
+
+    long getReservationConflicts();
+
+    SummaryCacheStats getSummaryCache();
+
+    double getSummaryCacheHitRatio();
+
+    long getLiveMatches();
+}
@@ -0,0 +1,91 @@
+package pl.jakubtworek;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by {@link ScoreBoardServer} and {@link ScoreBoardClient}.
+ *
+ * <p>Every message is a frame: a big-endian {@code int} length of the rest, a one-byte type and the payload. Team
+ * names are an unsigned 16-bit length and UTF-8 bytes, scores are {@code int}s, and summaries use the
+ * {@link SummaryEncoder#BINARY} encoding.
+ *
+ * <ul>
+ *     <li>Requests: {@link #START} and {@link #FINISH} carry the home and away team, {@link #UPDATE} both teams and
+ *     both scores, {@link #SUMMARY} and {@link #SUBSCRIBE} nothing.</li>
+ *     <li>Responses: {@link #OK}, with the summary for a {@link #SUMMARY} request, or {@link #INVALID},
+ *     {@link #CONFLICT} or {@link #FAILED} with the error message as a team-name-style string.</li>
+ *     <li>{@link #PUSH} frames carry a summary to a subscribed connection at any point between responses.</li>
+ * </ul>
+ *
+ * A client may send any number of requests before reading; responses come back in request order.
+ */
+final class ScoreBoardProtocol {
+    static final byte START = 1;
+    static final byte UPDATE = 2;
+    static final byte FINISH = 3;
+    static final byte SUMMARY = 4;
+    static final byte SUBSCRIBE = 5;
+
+    static final byte OK = 0;
+    static final byte INVALID = 1;
+    static final byte CONFLICT = 2;
+    static final byte FAILED = 3;
+    static final byte PUSH = 4;
+
+    static final int HEADER_BYTES = Integer.BYTES + 1;
+    static final int MAX_REQUEST_BYTES = 1 << 18;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private ScoreBoardProtocol() {
+    }
+
+    /**
+     * Writes a frame header whose length is patched by {@link #endFrame} once the payload is in place.
+     */
+    static int beginFrame(ByteBuffer out, byte type) {
+        final int start = out.position();
+        out.putInt(0).put(type);
+        return start;
+    }
+
+    static void endFrame(ByteBuffer out, int start) {
+        out.putInt(start, out.position() - start - Integer.BYTES);
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String too long to send: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        final byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Upper bound of the bytes {@link #putString} writes for {@code value}.
+     */
+    static int maxStringBytes(String value) {
+        return Short.BYTES + value.length() * 3;
+    }
+
+    /**
+     * Length of the frame starting at {@code in}'s position if all of it has arrived, otherwise {@code -1}.
+     */
+    static int completeFrame(ByteBuffer in, int maxLength) throws ProtocolException {
+        if (in.remaining() < Integer.BYTES) {
+            return -1;
+        }
+        final int length = in.getInt(in.position());
+        if (length < 1 || length > maxLength) {
+            throw new ProtocolException("Invalid frame length " + length);
+        }
+        return in.remaining() - Integer.BYTES >= length ? length : -1;
+    }
+}
@@ -0,0 +1,296 @@
+package pl.jakubtworek;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static pl.jakubtworek.ScoreBoardProtocol.*;
+
+/**
+ * Serves a {@link FootballScoreBoard} over TCP in the {@link ScoreBoardProtocol} format, so that several services can
+ * share one board through {@link ScoreBoardClient}s instead of each embedding its own.
+ *
+ * <p>Each connection gets a virtual thread doing blocking NIO reads and writes. Requests are handled in the order
+ * they arrive, and the responses to every request found in one read go out together in one write, so a client that
+ * pipelines requests pays for one round trip per batch. Summaries are served from the board's cached
+ * {@link SummaryEncoder#BINARY} encoding. Subscribed connections get a push after changes, at most once per push
+ * window.
+ */
+public final class ScoreBoardServer implements AutoCloseable {
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final Duration DEFAULT_PUSH_WINDOW = Duration.ofMillis(50);
+
+    private final FootballScoreBoard board;
+    private final ServerSocketChannel server;
+    private final Flow.Publisher<List<MatchRecord>> summaries;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final FailureRecorder failures = new FailureRecorder();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    private ScoreBoardServer(FootballScoreBoard board, ServerSocketChannel server, Duration pushWindow) {
+        this.board = board;
+        this.server = server;
+        this.summaries = board.summaries(pushWindow);
+        this.acceptor = Thread.ofVirtual().name("scoreboard-acceptor").start(this::accept);
+    }
+
+    /**
+     * Listens on {@code address}; port 0 picks a free port, reported by {@link #address()}.
+     */
+    public static ScoreBoardServer start(FootballScoreBoard board, InetSocketAddress address) {
+        return start(board, address, DEFAULT_PUSH_WINDOW);
+    }
+
+    public static ScoreBoardServer start(FootballScoreBoard board, InetSocketAddress address, Duration pushWindow) {
+        try {
+            return new ScoreBoardServer(board, ServerSocketChannel.open().bind(address), pushWindow);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not listen on " + address, e);
+        }
+    }
+
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) server.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Latest failure to accept or close a connection; none of them stops the server.
+     */
+    public Optional<Exception> lastFailure() {
+        return failures.last();
+    }
+
+    /**
+     * Stops accepting and drops every connection; requests in progress may or may not be answered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            failures.record(e);
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                final SocketChannel channel = server.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                final Connection connection = new Connection(channel);
+                connections.add(connection);
+                if (closed) {
+                    connection.close();
+                    return;
+                }
+                Thread.ofVirtual().name("scoreboard-connection").start(connection::serve);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                failures.record(e);
+            }
+        }
+    }
+
+    /**
+     * One client. Only the connection's thread reads; responses and pushes share {@code out} under {@code writeLock}.
+     */
+    private final class Connection implements Flow.Subscriber<List<MatchRecord>> {
+        private final SocketChannel channel;
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES);
+        private volatile Flow.Subscription subscription;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void serve() {
+            try {
+                while (channel.read(in) >= 0) {
+                    in.flip();
+                    for (int length; (length = completeFrame(in, MAX_REQUEST_BYTES)) >= 0; ) {
+                        final ByteBuffer request = in.slice(in.position() + Integer.BYTES, length);
+                        in.position(in.position() + Integer.BYTES + length);
+                        handle(request);
+                    }
+                    in.compact();
+                    if (!in.hasRemaining()) {
+                        in = ByteBuffer.allocate(in.capacity() * 2).put(in.flip());
+                    }
+                    writeLock.lock();
+                    try {
+                        flush();
+                    } finally {
+                        writeLock.unlock();
+                    }
+                }
+            } catch (IOException e) {
+                // The client went away or broke the protocol; either way the connection is done.
+            } finally {
+                close();
+            }
+        }
+
+        private void handle(ByteBuffer request) throws IOException {
+            final byte type = request.get();
+            try {
+                switch (type) {
+                    case START -> board.startGame(getString(request), getString(request));
+                    case UPDATE -> board.updateScore(getString(request), getString(request), request.getInt(), request.getInt());
+                    case FINISH -> board.finishGame(getString(request), getString(request));
+                    case SUMMARY -> {
+                        respondSummary(OK, board.getEncodedSummary(SummaryEncoder.BINARY));
+                        return;
+                    }
+                    case SUBSCRIBE -> {
+                        if (subscription == null) {
+                            summaries.subscribe(this);
+                        }
+                    }
+                    default -> {
+                        respond(FAILED, "Unknown request type " + type);
+                        return;
+                    }
+                }
+                respond(OK, null);
+            } catch (OptimisticLockException e) {
+                respond(CONFLICT, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                respond(INVALID, e.getMessage());
+            } catch (BufferUnderflowException e) {
+                respond(INVALID, "Malformed request");
+            } catch (RuntimeException e) {
+                respond(FAILED, String.valueOf(e.getMessage()));
+            }
+        }
+
+        private void respond(byte status, String message) throws IOException {
+            writeLock.lock();
+            try {
+                if (out.remaining() < HEADER_BYTES + (message == null ? 0 : maxStringBytes(message))) {
+                    flush();
+                }
+                final int start = beginFrame(out, status);
+                if (message != null) {
+                    putString(out, message);
+                }
+                endFrame(out, start);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * Copies a summary that fits into the pending responses, and otherwise writes it straight from the shared
+         * buffer behind them.
+         */
+        private void respondSummary(byte status, ByteBuffer summary) throws IOException {
+            writeLock.lock();
+            try {
+                if (out.remaining() < HEADER_BYTES) {
+                    flush();
+                }
+                out.putInt(1 + summary.remaining()).put(status);
+                if (summary.remaining() <= out.remaining()) {
+                    out.put(summary);
+                    return;
+                }
+                out.flip();
+                final ByteBuffer[] buffers = {out, summary};
+                while (summary.hasRemaining()) {
+                    channel.write(buffers);
+                }
+                out.clear();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        /**
+         * Pushes from a virtual thread of its own, so a slow client never holds up the publisher, and asks for the
+         * next summary only once this one is written.
+         */
+        @Override
+        public void onNext(List<MatchRecord> summary) {
+            Thread.ofVirtual().name("scoreboard-push").start(() -> {
+                try {
+                    respondSummary(PUSH, board.getEncodedSummary(SummaryEncoder.BINARY));
+                    writeLock.lock();
+                    try {
+                        flush();
+                    } finally {
+                        writeLock.unlock();
+                    }
+                    subscription.request(1);
+                } catch (IOException e) {
+                    close();
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void close() {
+            connections.remove(this);
+            final Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failures.record(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package pl.jakubtworek;
+
+/**
+ * Point-in-time view of a board's instrumentation, from {@link FootballScoreBoard#getStats()}. Operation latencies
+ * cover calls that failed as well as those that succeeded; {@code summary} covers every summary read, hit or miss,
+ * and {@code summaryRebuild} only the rebuilds behind the misses.
+ */
+public record ScoreBoardStats(
+        LatencyStats start,
+        LatencyStats update,
+        LatencyStats finish,
+        LatencyStats summary,
+        LatencyStats summaryRebuild,
+        UpdateContentionStats contention,
+        long reservationConflicts,
+        SummaryCacheStats summaryCache,
+        long liveMatches
+) {
+
+    /**
+     * Share of summary reads served without waiting for a rebuild, or {@code 0} before the first read.
+     */
+    public double summaryCacheHitRatio() {
+        final long reads = summaryCache.hits() + summaryCache.misses();
+        return reads == 0 ? 0 : (double) (summaryCache.hits() + summaryCache.staleReads()) / reads;
+    }
+}
@@ -0,0 +1,16 @@
+package pl.jakubtworek;
+
+import java.time.Instant;
+
+/**
+ * One entry of a match's timeline: what happened at {@code at} and the score right after it.
+ */
+public record ScoreChange(Instant at, Kind kind, int homeScore, int awayScore) {
+
+    public enum Kind {
+        START,
+        HOME_GOAL,
+        AWAY_GOAL,
+        CORRECTION
+    }
+}
@@ -0,0 +1,14 @@
+package pl.jakubtworek;
+
+public sealed interface ScoreCommand {
+
+    String homeTeam();
+
+    String awayTeam();
+
+    record Start(String homeTeam, String awayTeam) implements ScoreCommand {}
+
+    record Update(String homeTeam, String awayTeam, int homeScore, int awayScore) implements ScoreCommand {}
+
+    record Finish(String homeTeam, String awayTeam) implements ScoreCommand {}
+}
@@ -0,0 +1,207 @@
+package pl.jakubtworek;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Score history of one match, one varint-encoded event per score change.
+ *
+ * <p>An event is the milliseconds since the previous event shifted left by two, with the low bits telling a home goal,
+ * an away goal or a correction; only a correction is followed by both new scores. A goal a few minutes after the
+ * previous one therefore takes three bytes. Once the buffer reaches {@link #MAX_BYTES} the older half is folded
+ * into the starting score, so a match updated without end keeps only its recent history.
+ *
+ * <p>Score updates are compare-and-sets that may report back out of order; an event arriving ahead of its
+ * predecessor is held until the gap is filled, so the encoded history always follows the match versions.
+ */
+final class ScoreTimeline {
+    static final int MAX_BYTES = 1 << 16;
+    private static final int HOME_GOAL = 0;
+    private static final int AWAY_GOAL = 1;
+    private static final int CORRECTION = 2;
+
+    private final String homeTeam;
+    private final String awayTeam;
+    private long startedAt;
+    private int startHome;
+    private int startAway;
+    private byte[] events = new byte[16];
+    private int length;
+    private long lastAt;
+    private int lastHome;
+    private int lastAway;
+    private int lastVersion;
+    private TreeMap<Integer, long[]> early;
+
+    /**
+     * Starts a timeline at {@code state}, a {@link MatchSlot} state word, at {@code at} in epoch milliseconds.
+     */
+    ScoreTimeline(String homeTeam, String awayTeam, long state, long at) {
+        this.homeTeam = homeTeam;
+        this.awayTeam = awayTeam;
+        this.startedAt = at;
+        this.lastAt = at;
+        this.startHome = this.lastHome = MatchSlot.homeScore(state);
+        this.startAway = this.lastAway = MatchSlot.awayScore(state);
+        this.lastVersion = MatchSlot.version(state);
+    }
+
+    /**
+     * Records that the match reached {@code state} at {@code at}.
+     */
+    synchronized void record(long state, long at) {
+        final int version = MatchSlot.version(state);
+        if (version <= lastVersion) {
+            return;
+        }
+        if (version > lastVersion + 1) {
+            if (early == null) {
+                early = new TreeMap<>();
+            }
+            early.put(version, new long[]{state, at});
+            return;
+        }
+        append(state, at);
+        while (early != null && !early.isEmpty() && early.firstKey() == lastVersion + 1) {
+            final long[] next = early.pollFirstEntry().getValue();
+            append(next[0], next[1]);
+        }
+    }
+
+    synchronized List<ScoreChange> changes() {
+        final List<ScoreChange> changes = new ArrayList<>();
+        changes.add(new ScoreChange(Instant.ofEpochMilli(startedAt), ScoreChange.Kind.START, startHome, startAway));
+        final Cursor cursor = new Cursor();
+        while (cursor.position < length) {
+            final int kind = cursor.next();
+            changes.add(new ScoreChange(Instant.ofEpochMilli(cursor.at), kindOf(kind), cursor.home, cursor.away));
+        }
+        return Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Score at {@code instant}, or {@code null} if the timeline starts after it.
+     */
+    synchronized MatchRecord scoreAt(Instant instant) {
+        final long at = instant.toEpochMilli();
+        if (at < startedAt) {
+            return null;
+        }
+        final Cursor cursor = new Cursor();
+        int home = startHome;
+        int away = startAway;
+        while (cursor.position < length) {
+            cursor.next();
+            if (cursor.at > at) {
+                break;
+            }
+            home = cursor.home;
+            away = cursor.away;
+        }
+        return new MatchRecord(homeTeam, awayTeam, home, away);
+    }
+
+    synchronized int sizeInBytes() {
+        return length;
+    }
+
+    private void append(long state, long at) {
+        final int home = MatchSlot.homeScore(state);
+        final int away = MatchSlot.awayScore(state);
+        final long when = Math.max(at, lastAt);
+        final long delta = when - lastAt;
+        if (home == lastHome + 1 && away == lastAway) {
+            ensureCapacity(10);
+            writeVarint(delta << 2 | HOME_GOAL);
+        } else if (away == lastAway + 1 && home == lastHome) {
+            ensureCapacity(10);
+            writeVarint(delta << 2 | AWAY_GOAL);
+        } else {
+            ensureCapacity(16);
+            writeVarint(delta << 2 | CORRECTION);
+            writeVarint(home);
+            writeVarint(away);
+        }
+        lastAt = when;
+        lastHome = home;
+        lastAway = away;
+        lastVersion = MatchSlot.version(state);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (length + needed > MAX_BYTES) {
+            dropOlderHalf();
+        }
+        if (length + needed > events.length) {
+            events = Arrays.copyOf(events, Math.min(MAX_BYTES, Math.max(events.length * 2, length + needed)));
+        }
+    }
+
+    private void dropOlderHalf() {
+        final Cursor cursor = new Cursor();
+        while (cursor.position < length / 2) {
+            cursor.next();
+        }
+        startedAt = cursor.at;
+        startHome = cursor.home;
+        startAway = cursor.away;
+        System.arraycopy(events, cursor.position, events, 0, length - cursor.position);
+        length -= cursor.position;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            events[length++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        events[length++] = (byte) value;
+    }
+
+    private static ScoreChange.Kind kindOf(int kind) {
+        return switch (kind) {
+            case HOME_GOAL -> ScoreChange.Kind.HOME_GOAL;
+            case AWAY_GOAL -> ScoreChange.Kind.AWAY_GOAL;
+            default -> ScoreChange.Kind.CORRECTION;
+        };
+    }
+
+    /**
+     * Decodes events from the start, tracking the time and score after each one.
+     */
+    private final class Cursor {
+        int position;
+        long at = startedAt;
+        int home = startHome;
+        int away = startAway;
+
+        int next() {
+            final long header = readVarint();
+            final int kind = (int) (header & 3);
+            at += header >>> 2;
+            switch (kind) {
+                case HOME_GOAL -> home++;
+                case AWAY_GOAL -> away++;
+                default -> {
+                    home = (int) readVarint();
+                    away = (int) readVarint();
+                }
+            }
+            return kind;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = events[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package pl.jakubtworek;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hosts several competitions at once, each on a {@link FootballScoreBoard} with its own repository, summary index,
+ * cache and team reservations, so writes to different competitions never touch shared state.
+ *
+ * <p>The global summary merges every competition's summary-ordered run. Each run is rebuilt only when its
+ * competition's version moved, and the runs are built and merged pairwise as a fork-join tree, so k competitions
+ * take log k merge rounds with the independent work spread over the pool. Versions only grow, so a merge that
+ * finishes after a newer one never replaces the newer cached result.
+ */
+public class ShardedScoreBoard {
+    private final ConcurrentHashMap<String, Shard> shards = new ConcurrentHashMap<>();
+    private final AtomicReference<GlobalSummary> cachedSummary = new AtomicReference<>();
+    private final ScoreBoardEventListener listener;
+    private final ForkJoinPool pool;
+
+    public ShardedScoreBoard() {
+        this(ScoreBoardEventListener.noOp());
+    }
+
+    public ShardedScoreBoard(ScoreBoardEventListener listener) {
+        this(listener, ForkJoinPool.commonPool());
+    }
+
+    ShardedScoreBoard(ScoreBoardEventListener listener, ForkJoinPool pool) {
+        this.listener = listener;
+        this.pool = pool;
+    }
+
+    /**
+     * Board of {@code competition}, created empty on first use. A team may play in several competitions at once.
+     */
+    public FootballScoreBoard competition(String competition) {
+        if (competition == null || competition.isBlank()) {
+            throw new IllegalArgumentException("Field 'competition' cannot be empty");
+        }
+        return shards.computeIfAbsent(competition, name -> new Shard(MatchRepository.inMemory(), listener)).board;
+    }
+
+    /**
+     * All live matches across competitions, in the same order {@link FootballScoreBoard#getSummary()} uses.
+     */
+    public List<MatchRecord> getSummary() {
+        final Shard[] current = shards.values().toArray(new Shard[0]);
+        long version = 0;
+        for (Shard shard : current) {
+            version += shard.repository.version();
+        }
+        final GlobalSummary cached = cachedSummary.get();
+        if (cached != null && cached.version() == version && cached.shards() == current.length) {
+            return cached.matches();
+        }
+
+        final Match[] merged = current.length == 0 ? new Match[0] : pool.invoke(new MergeTask(current, 0, current.length));
+        final List<MatchRecord> summary = new ArrayList<>(merged.length);
+        for (Match match : merged) {
+            summary.add(match.toRecord());
+        }
+        final List<MatchRecord> result = Collections.unmodifiableList(summary);
+        cachedSummary.accumulateAndGet(new GlobalSummary(version, current.length, result),
+                (previous, fresh) -> previous == null || fresh.isNewerThan(previous) ? fresh : previous);
+        return result;
+    }
+
+    private static final class Shard {
+        private final MatchRepository repository;
+        private final FootballScoreBoard board;
+        private final AtomicReference<Run> run = new AtomicReference<>();
+
+        private Shard(MatchRepository repository, ScoreBoardEventListener listener) {
+            this.repository = repository;
+            this.board = new FootballScoreBoard(repository, listener);
+        }
+
+        Match[] sortedRun() {
+            final long version = repository.version();
+            final Run cached = run.get();
+            if (cached != null && cached.version() == version) {
+                return cached.matches();
+            }
+            final Match[] matches = repository.findAllInSummaryOrder();
+            run.accumulateAndGet(new Run(version, matches),
+                    (previous, built) -> previous == null || built.version() > previous.version() ? built : previous);
+            return matches;
+        }
+    }
+
+    private static final class MergeTask extends RecursiveTask<Match[]> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient Shard[] shards;
+        private final int from;
+        private final int to;
+
+        private MergeTask(Shard[] shards, int from, int to) {
+            this.shards = shards;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Match[] compute() {
+            if (to - from == 1) {
+                return shards[from].sortedRun();
+            }
+            final int middle = (from + to) >>> 1;
+            final MergeTask left = new MergeTask(shards, from, middle);
+            left.fork();
+            final Match[] right = new MergeTask(shards, middle, to).compute();
+            return merge(left.join(), right);
+        }
+
+        private static Match[] merge(Match[] left, Match[] right) {
+            final Match[] merged = new Match[left.length + right.length];
+            int l = 0;
+            int r = 0;
+            int out = 0;
+            while (l < left.length && r < right.length) {
+                merged[out++] = Match.SORT_BY_SCORE_THEN_TIME_DESC.compare(left[l], right[r]) <= 0 ? left[l++] : right[r++];
+            }
+            System.arraycopy(left, l, merged, out, left.length - l);
+            System.arraycopy(right, r, merged, out + left.length - l, right.length - r);
+            return merged;
+        }
+    }
+
+    private record Run(long version, Match[] matches) {}
+
+    /**
+     * Competitions are never dropped and their versions only grow, so both counts order the summaries.
+     */
+    private record GlobalSummary(long version, int shards, List<MatchRecord> matches) {
+        boolean isNewerThan(GlobalSummary other) {
+            return shards > other.shards || shards == other.shards && version > other.version;
+        }
+    }
+}
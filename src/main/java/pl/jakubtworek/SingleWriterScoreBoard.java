@@ -0,0 +1,156 @@
+package pl.jakubtworek;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Board where every write is applied by one dedicated writer thread, disruptor style.
+ *
+ * <p>Callers enqueue commands into a lock-free ring and get a future of the result; the writer drains the ring in
+ * batches, applies each batch with {@link FootballScoreBoard#applyBatch} and then publishes the sorted summary as an
+ * immutable list through a volatile field. With a single writer no update ever loses an optimistic-lock race, and
+ * {@link #getSummary()} is a plain volatile read that never blocks or rebuilds anything.
+ *
+ * <p>Futures are completed on the writer thread, and only there; use the {@code ...Async} stages for anything slow.
+ * A command that throws fails only its own future; the rest of its batch and the writer carry on.
+ */
+public final class SingleWriterScoreBoard implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final MpscRingBuffer<Submission> ring;
+    private final FootballScoreBoard board;
+    private final List<ScoreCommand> commands = new ArrayList<>(BATCH_SIZE);
+    private final List<CompletableFuture<CommandResult>> results = new ArrayList<>(BATCH_SIZE);
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final Thread writer;
+    private volatile List<MatchRecord> summary = List.of();
+    private volatile boolean writerIdle;
+    private volatile boolean running = true;
+
+    public SingleWriterScoreBoard() {
+        this(ScoreBoardEventListener.noOp());
+    }
+
+    public SingleWriterScoreBoard(ScoreBoardEventListener listener) {
+        this(MatchRepository.inMemory(), listener, DEFAULT_CAPACITY);
+    }
+
+    SingleWriterScoreBoard(MatchRepository repository, ScoreBoardEventListener listener, int capacity) {
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.board = new FootballScoreBoard(repository, listener);
+        this.writer = Thread.ofPlatform()
+                .name("scoreboard-writer")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    /**
+     * Queues {@code command} for the writer thread. Spins while the ring is full, so a caller never outruns
+     * the writer by more than the ring's capacity. Throws {@link IllegalStateException} once the board is closing;
+     * a command accepted before that is always applied.
+     */
+    public CompletableFuture<CommandResult> submit(ScoreCommand command) {
+        Objects.requireNonNull(command, "command");
+        submitting.incrementAndGet();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Board is closed");
+            }
+            final Submission submission = new Submission(command, new CompletableFuture<>());
+            while (!ring.offer(submission)) {
+                Thread.onSpinWait();
+            }
+            if (writerIdle) {
+                LockSupport.unpark(writer);
+            }
+            return submission.result();
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Summary as of the last batch the writer applied.
+     */
+    public List<MatchRecord> getSummary() {
+        return summary;
+    }
+
+    /**
+     * Stops accepting commands, lets the writer apply everything already queued and waits for it to finish.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (applyBatch() == 0) {
+                writerIdle = true;
+                if (ring.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerIdle = false;
+            }
+        }
+        // drain until no submitter that saw the board open is still offering
+        while (true) {
+            final boolean quiet = submitting.get() == 0;
+            if (applyBatch() == 0 && quiet) {
+                return;
+            }
+        }
+    }
+
+    private int applyBatch() {
+        final int drained = ring.drain(submission -> {
+            commands.add(submission.command());
+            results.add(submission.result());
+        }, BATCH_SIZE);
+        if (drained == 0) {
+            return 0;
+        }
+
+        try {
+            final RuntimeException[] failures = new RuntimeException[drained];
+            final CommandResult[] applied = board.applyBatch(commands, failures);
+            boolean changed = false;
+            for (int i = 0; i < drained; i++) {
+                changed |= failures[i] != null || applied[i] == CommandResult.SUCCESS;
+            }
+            if (changed) {
+                summary = board.getSummary();
+            }
+            for (int i = 0; i < drained; i++) {
+                if (failures[i] != null) {
+                    results.get(i).completeExceptionally(failures[i]);
+                } else {
+                    results.get(i).complete(applied[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            // never let the writer die with futures pending
+            results.forEach(result -> result.completeExceptionally(e));
+        } finally {
+            commands.clear();
+            results.clear();
+        }
+        return drained;
+    }
+
+    private record Submission(ScoreCommand command, CompletableFuture<CommandResult> result) {}
+}
@@ -0,0 +1,126 @@
+package pl.jakubtworek;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Summary cache keyed by the repository version instead of being invalidated by writers.
+ *
+ * <p>A reader that finds the cache behind the current version either joins the rebuild already running for that
+ * version (or a newer one) or becomes the single thread that runs it, so N readers missing together cost one walk of
+ * the index. A snapshot is installed only if it is newer than the installed one: a slow rebuild started before a
+ * write can finish late, but can never replace the summary of a later version.
+ */
+final class SummaryCache {
+    private final LongSupplier version;
+    private final Supplier<List<MatchRecord>> loader;
+    private final AtomicReference<Snapshot> installed = new AtomicReference<>();
+    private final AtomicReference<Rebuild> inFlight = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+    private final LatencyHistogram rebuildTimes = new LatencyHistogram();
+
+    SummaryCache(LongSupplier version, Supplier<List<MatchRecord>> loader) {
+        this.version = version;
+        this.loader = loader;
+    }
+
+    /**
+     * Summary at least as new as the version when the call started, waiting for a rebuild if necessary.
+     */
+    List<MatchRecord> get() {
+        final long current = version.getAsLong();
+        final Snapshot snapshot = installed.get();
+        if (snapshot != null && snapshot.version() >= current) {
+            hits.increment();
+            return snapshot.summary();
+        }
+        misses.increment();
+        return rebuild(current);
+    }
+
+    /**
+     * Like {@link #get()}, but while another thread is already rebuilding, returns the previous summary
+     * instead of waiting for it.
+     */
+    List<MatchRecord> getAllowingStale() {
+        final long current = version.getAsLong();
+        final Snapshot snapshot = installed.get();
+        if (snapshot != null && snapshot.version() >= current) {
+            hits.increment();
+            return snapshot.summary();
+        }
+        misses.increment();
+        final Rebuild running = inFlight.get();
+        if (snapshot != null && running != null && running.version() >= current) {
+            staleReads.increment();
+            return snapshot.summary();
+        }
+        return rebuild(current);
+    }
+
+    /**
+     * The installed summary if it is current, otherwise {@code null}; never rebuilds.
+     */
+    List<MatchRecord> getIfCurrent() {
+        final Snapshot snapshot = installed.get();
+        return snapshot != null && snapshot.version() >= version.getAsLong() ? snapshot.summary() : null;
+    }
+
+    SummaryCacheStats stats() {
+        return new SummaryCacheStats(hits.sum(), misses.sum(), rebuilds.sum(), staleReads.sum());
+    }
+
+    LatencyStats rebuildLatency() {
+        return rebuildTimes.stats();
+    }
+
+    private List<MatchRecord> rebuild(long target) {
+        while (true) {
+            final Rebuild running = inFlight.get();
+            if (running != null && running.version() >= target) {
+                return running.result().join();
+            }
+            final Rebuild mine = new Rebuild(target, new CompletableFuture<>());
+            if (!inFlight.compareAndSet(running, mine)) {
+                continue;
+            }
+            rebuilds.increment();
+            final long started = System.nanoTime();
+            try {
+                final List<MatchRecord> summary = loader.get();
+                rebuildTimes.recordSince(started);
+                install(new Snapshot(target, summary));
+                mine.result().complete(summary);
+                return summary;
+            } catch (RuntimeException | Error e) {
+                mine.result().completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.compareAndSet(mine, null);
+            }
+        }
+    }
+
+    private void install(Snapshot snapshot) {
+        while (true) {
+            final Snapshot current = installed.get();
+            if (current != null && current.version() >= snapshot.version()) {
+                return;
+            }
+            if (installed.compareAndSet(current, snapshot)) {
+                return;
+            }
+        }
+    }
+
+    private record Snapshot(long version, List<MatchRecord> summary) {}
+
+    private record Rebuild(long version, CompletableFuture<List<MatchRecord>> result) {}
+}
@@ -0,0 +1,8 @@
+package pl.jakubtworek;
+
+/**
+ * Counters of the board's summary cache since it was created. A miss either rebuilds the summary, waits for the
+ * rebuild another reader started, or (for {@link FootballScoreBoard#getSummaryAllowingStale()}) is served the
+ * previous summary, counted in {@code staleReads}.
+ */
+public record SummaryCacheStats(long hits, long misses, long rebuilds, long staleReads) {}
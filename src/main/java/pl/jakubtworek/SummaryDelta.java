@@ -0,0 +1,18 @@
+package pl.jakubtworek;
+
+import java.util.List;
+
+/**
+ * What changed in the summary between the version a caller already has and {@code version}.
+ *
+ * <p>Apply it by dropping the {@code removed} matches and every match listed in {@code changed}, then inserting the
+ * {@code changed} matches at their positions in ascending order. When {@code fullSnapshot} is set the requested
+ * version was too old to answer incrementally: {@code changed} holds the whole summary and replaces it.
+ */
+public record SummaryDelta(long version, boolean fullSnapshot, List<Change> changed, List<MatchRecord> removed) {
+
+    /**
+     * A match that was started or scored, with its index in the summary.
+     */
+    public record Change(int position, MatchRecord match) {}
+}
@@ -0,0 +1,23 @@
+package pl.jakubtworek;
+
+import java.util.List;
+
+/**
+ * Turns a summary into the bytes served to clients. {@link FootballScoreBoard#getEncodedSummary} calls it once per
+ * summary version, so an encoder may allocate freely but must not keep the bytes it returns.
+ */
+public interface SummaryEncoder {
+
+    /**
+     * UTF-8 JSON array of {@code {"homeTeam":..,"awayTeam":..,"homeScore":..,"awayScore":..}} objects.
+     */
+    SummaryEncoder JSON = new JsonSummaryEncoder();
+
+    /**
+     * Big-endian match count, then per match both team names as an unsigned 16-bit length and UTF-8 bytes, and both
+     * scores as unsigned 16-bit values.
+     */
+    SummaryEncoder BINARY = new BinarySummaryEncoder();
+
+    byte[] encode(List<MatchRecord> summary);
+}
@@ -0,0 +1,9 @@
+package pl.jakubtworek;
+
+import java.util.List;
+
+/**
+ * One page of the summary. {@code nextCursor} continues right after the last match on this page, even if
+ * scores change between requests; it is {@code null} on the last page.
+ */
+public record SummaryPage(List<MatchRecord> matches, String nextCursor) {}
@@ -0,0 +1,44 @@
+package pl.jakubtworek;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Sort key of one state of a match in the summary index. The state version is the last tie-breaker, so the entries
+ * for two states of the same match never collide, even when their totals are equal.
+ */
+record SummaryPosition(int totalScore, long addedAt, MatchKey key, int version) implements Comparable<SummaryPosition> {
+
+    @Override
+    public int compareTo(SummaryPosition other) {
+        int result = Integer.compare(other.totalScore, totalScore);
+        if (result != 0) return result;
+        result = Long.compare(other.addedAt, addedAt);
+        if (result != 0) return result;
+        result = key.compareTo(other.key);
+        if (result != 0) return result;
+        return Integer.compare(version, other.version);
+    }
+
+    String toCursor() {
+        final String raw = totalScore + "|" + addedAt + "|" + key.packed() + "|" + version;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SummaryPosition fromCursor(String cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Cursor cannot be null");
+        }
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SummaryPosition(Integer.parseInt(parts[0]), Long.parseLong(parts[1]), new MatchKey(Long.parseLong(parts[2])),
+                    Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package pl.jakubtworek;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Pushes summary snapshots to subscribers instead of having them poll.
+ *
+ * <p>Writes only mark the summary as changed; all changes inside one coalescing window produce a single rebuild and a
+ * single notification. Each subscriber holds at most one undelivered snapshot: while it has no outstanding demand a
+ * newer snapshot replaces the pending one, so a slow subscriber sees fewer, always current, lists instead of a backlog.
+ *
+ * <p>The publisher sits in the board's {@code active} collection, and so hears about writes, only while it has
+ * subscribers; its scheduler thread ends after a second without work. A publisher nobody subscribes to any more is
+ * therefore left to the garbage collector.
+ */
+final class SummaryPublisher implements Flow.Publisher<List<MatchRecord>>, AutoCloseable {
+    private final Supplier<List<MatchRecord>> summary;
+    private final long windowNanos;
+    private final Executor deliveryExecutor;
+    private final Set<SummarySubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Collection<? super SummaryPublisher> active;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile ScheduledExecutorService scheduler;
+    private volatile List<MatchRecord> lastPublished;
+    private volatile boolean closed;
+
+    SummaryPublisher(Supplier<List<MatchRecord>> summary, Duration window, Executor deliveryExecutor) {
+        this(summary, window, deliveryExecutor, ConcurrentHashMap.newKeySet());
+    }
+
+    SummaryPublisher(Supplier<List<MatchRecord>> summary, Duration window, Executor deliveryExecutor,
+                     Collection<? super SummaryPublisher> active) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Coalescing window cannot be negative");
+        }
+        this.summary = summary;
+        this.windowNanos = window.toNanos();
+        this.deliveryExecutor = deliveryExecutor;
+        this.active = active;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<MatchRecord>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        final SummarySubscription subscription = new SummarySubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscriber.onComplete();
+            return;
+        }
+        synchronized (subscriptions) {
+            if (subscriptions.isEmpty()) {
+                active.add(this);
+            }
+            subscriptions.add(subscription);
+        }
+        final List<MatchRecord> current = summary.get();
+        lastPublished = current;
+        subscription.offer(current);
+    }
+
+    /**
+     * Called after every write. Costs one volatile read when nobody is subscribed.
+     */
+    void markChanged() {
+        if (subscriptions.isEmpty() || !flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler().schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (SummarySubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        synchronized (subscriptions) {
+            subscriptions.clear();
+            active.remove(this);
+        }
+        final ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        final List<MatchRecord> current = summary.get();
+        if (current.equals(lastPublished)) {
+            return;
+        }
+        lastPublished = current;
+        for (SummarySubscription subscription : subscriptions) {
+            subscription.offer(current);
+        }
+    }
+
+    private ScheduledExecutorService scheduler() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = scheduler;
+                if (current == null) {
+                    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task ->
+                            Thread.ofPlatform().name("scoreboard-summary-publisher").daemon().unstarted(task));
+                    executor.setKeepAliveTime(1, TimeUnit.SECONDS);
+                    executor.allowCoreThreadTimeOut(true);
+                    current = executor;
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private final class SummarySubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<MatchRecord>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicReference<List<MatchRecord>> pending = new AtomicReference<>();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile Throwable error;
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+
+        private SummarySubscription(Flow.Subscriber<? super List<MatchRecord>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // signalled from the delivery loop, never from the caller's thread (Reactive Streams rule 1.3)
+                error = new IllegalArgumentException("Demand must be positive");
+                detach();
+                scheduleDelivery();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            scheduleDelivery();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            detach();
+        }
+
+        private void detach() {
+            synchronized (subscriptions) {
+                if (subscriptions.remove(this) && subscriptions.isEmpty()) {
+                    active.remove(SummaryPublisher.this);
+                }
+            }
+        }
+
+        void offer(List<MatchRecord> snapshot) {
+            pending.set(snapshot);
+            scheduleDelivery();
+        }
+
+        void complete() {
+            completed = true;
+            scheduleDelivery();
+        }
+
+        private void scheduleDelivery() {
+            if (work.getAndIncrement() == 0) {
+                deliveryExecutor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                if (error != null && !cancelled) {
+                    cancelled = true;
+                    subscriber.onError(error);
+                }
+                while (!cancelled && demand.get() > 0) {
+                    final List<MatchRecord> snapshot = pending.getAndSet(null);
+                    if (snapshot == null) {
+                        break;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(snapshot);
+                }
+                if (completed && !cancelled) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package pl.jakubtworek;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns every team a dense int id, shared by all repositories in the process. Names are case-insensitive.
+ *
+ * <p>Lookups go through the exact spelling first, so a name the board has already seen costs one hash lookup on a
+ * string whose hash code is usually cached already, and no lower-casing. Only a new spelling pays for lower-casing
+ * and is remembered afterwards, up to {@link #MAX_SPELLINGS} spellings in total; past that, unseen spellings still
+ * resolve correctly but lower-case on every lookup. Ids are never released, so the dictionary holds one entry per
+ * team ever started; the set of teams is expected to be small and stable.
+ */
+final class TeamDictionary {
+    static final int UNKNOWN = -1;
+    static final int MAX_SPELLINGS = 1 << 16;
+    private static final TeamDictionary INSTANCE = new TeamDictionary(MAX_SPELLINGS);
+
+    private final ConcurrentHashMap<String, Integer> bySpelling = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> byName = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final int maxSpellings;
+    private volatile String[] names = new String[64];
+
+    TeamDictionary(int maxSpellings) {
+        this.maxSpellings = maxSpellings;
+    }
+
+    static TeamDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Id of {@code team}, assigning a new one the first time the team is seen.
+     */
+    int idOf(String team) {
+        final Integer id = bySpelling.get(team);
+        if (id != null) {
+            return id;
+        }
+        final Integer assigned = byName.computeIfAbsent(team.toLowerCase(Locale.ROOT), name -> assign(team));
+        remember(team, assigned);
+        return assigned;
+    }
+
+    /**
+     * Id of {@code team}, or {@link #UNKNOWN} when no match with it was ever started. Never assigns an id.
+     */
+    int find(String team) {
+        final Integer id = bySpelling.get(team);
+        if (id != null) {
+            return id;
+        }
+        final Integer known = byName.get(team.toLowerCase(Locale.ROOT));
+        if (known == null) {
+            return UNKNOWN;
+        }
+        remember(team, known);
+        return known;
+    }
+
+    int cachedSpellings() {
+        return bySpelling.size();
+    }
+
+    /**
+     * The spelling under which {@code id} was first assigned.
+     */
+    String nameOf(int id) {
+        return names[id];
+    }
+
+    private void remember(String spelling, Integer id) {
+        if (bySpelling.size() < maxSpellings) {
+            bySpelling.putIfAbsent(spelling, id);
+        }
+    }
+
+    private int assign(String team) {
+        final int id = nextId.getAndIncrement();
+        synchronized (this) {
+            String[] current = names;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, Math.max(current.length * 2, id + 1));
+            }
+            current[id] = team;
+            names = current;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,63 @@
+package pl.jakubtworek;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Concurrent bit set of the team ids currently playing a match.
+ *
+ * <p>Bits live in fixed-size chunks that are never copied, so growing the set (under a lock, only when a new id
+ * range is first used) cannot lose a concurrent reservation; reserving and releasing are single atomic bit operations.
+ */
+final class TeamReservations {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int WORDS_PER_CHUNK = (1 << CHUNK_SHIFT) >>> 6;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile long[][] chunks = new long[0][];
+
+    /**
+     * Reserves {@code team}; {@code false} when it already is.
+     */
+    boolean reserve(int team) {
+        final long bit = 1L << team;
+        return ((long) WORDS.getAndBitwiseOr(chunk(team), wordOf(team), bit) & bit) == 0;
+    }
+
+    void release(int team) {
+        WORDS.getAndBitwiseAnd(chunk(team), wordOf(team), ~(1L << team));
+    }
+
+    void clear() {
+        for (long[] chunk : chunks) {
+            for (int word = 0; word < WORDS_PER_CHUNK; word++) {
+                WORDS.setVolatile(chunk, word, 0L);
+            }
+        }
+    }
+
+    private static int wordOf(int team) {
+        return (team >>> 6) & (WORDS_PER_CHUNK - 1);
+    }
+
+    private long[] chunk(int team) {
+        final int index = team >>> CHUNK_SHIFT;
+        final long[][] current = chunks;
+        return index < current.length ? current[index] : grow(index);
+    }
+
+    private synchronized long[] grow(int index) {
+        long[][] current = chunks;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, index + 1);
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == null) {
+                    current[i] = new long[WORDS_PER_CHUNK];
+                }
+            }
+            chunks = current;
+        }
+        return current[index];
+    }
+}
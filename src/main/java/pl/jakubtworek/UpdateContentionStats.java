@@ -0,0 +1,7 @@
+package pl.jakubtworek;
+
+/**
+ * Score update counters of a repository since it was created: updates applied, compare-and-set attempts lost to a
+ * concurrent writer, how many of those were retried, and updates given up as conflicts after the last retry.
+ */
+public record UpdateContentionStats(long updates, long conflicts, long retries, long exhausted) {}
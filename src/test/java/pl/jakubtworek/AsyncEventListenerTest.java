@@ -0,0 +1,115 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static pl.jakubtworek.ScoreBoardEvent.*;
+
+@DisplayName("AsyncEventListener unit tests")
+class AsyncEventListenerTest {
+
+    @Test
+    @DisplayName("Should write every published event once closed")
+    void shouldWriteAllEventsOnClose() {
+        // Given
+        final var out = new StringWriter();
+        final var listener = new AsyncEventListener(out, true, 16);
+
+        // When
+        listener.onEvent(new GameStarted(0, "A", "B"));
+        listener.onEvent(new ScoreUpdated(0, "A", "B", 1, 0));
+        listener.onEvent(new OperationRejected(0, Operation.FINISH, "C", "D", "Match not found"));
+        listener.close();
+
+        // Then
+        final List<String> lines = out.toString().lines().toList();
+        assertAll(
+                () -> assertEquals(3, lines.size()),
+                () -> assertTrue(lines.get(0).endsWith("Starting game: A vs B")),
+                () -> assertTrue(lines.get(1).endsWith("Updating score for: A vs B → 1:0")),
+                () -> assertTrue(lines.get(2).endsWith("FINISH failed for C vs D: Match not found")),
+                () -> assertEquals(0, listener.droppedEvents())
+        );
+    }
+
+    @Test
+    @DisplayName("Should drop and count events published after close")
+    void shouldCountEventsAfterClose() {
+        // Given
+        final var listener = new AsyncEventListener(new StringWriter(), true, 16);
+        listener.close();
+
+        // When
+        listener.onEvent(new GameFinished(0, "A", "B"));
+
+        // Then
+        assertEquals(1, listener.droppedEvents());
+    }
+
+    @Test
+    @DisplayName("Should keep output failures instead of printing them")
+    void shouldRecordOutputFailures() {
+        // Given
+        final Writer broken = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("Disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final var listener = new AsyncEventListener(broken, true, 16);
+
+        // When
+        listener.onEvent(new GameStarted(0, "A", "B"));
+        listener.close();
+
+        // Then
+        assertAll(
+                () -> assertEquals(1, listener.droppedEvents()),
+                () -> assertEquals("Disk full", listener.lastFailure().orElseThrow().getMessage())
+        );
+    }
+
+    @Test
+    @DisplayName("Should count a batch whose flush failed as dropped")
+    void shouldCountUnflushedBatchAsDropped() {
+        // Given
+        final Writer unflushable = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+            }
+
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("Pipe closed");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final var listener = new AsyncEventListener(unflushable, true, 16);
+
+        // When
+        listener.onEvent(new GameStarted(0, "A", "B"));
+        listener.onEvent(new GameFinished(0, "A", "B"));
+        listener.close();
+
+        // Then
+        assertEquals(2, listener.droppedEvents());
+    }
+}
@@ -0,0 +1,160 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoalescingIngestor unit tests")
+class CoalescingIngestorTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @Test
+    @DisplayName("Should keep the latest update per match without crossing starts and finishes")
+    void shouldCoalesceUpdatesBetweenStartsAndFinishes() {
+        // Given
+        MatchKey.of("Feed Home", "Feed Away");
+        MatchKey.of("Feed Other", "Feed Rival");
+        final List<ScoreCommand> commands = List.of(
+                new ScoreCommand.Update("Feed Home", "Feed Away", 1, 0),
+                new ScoreCommand.Update("Feed Other", "Feed Rival", 0, 1),
+                new ScoreCommand.Update("Feed Away", "Feed Home", 0, 0),
+                new ScoreCommand.Update("Feed Home", "Feed Away", 2, 0),
+                new ScoreCommand.Finish("Feed Home", "Feed Away"),
+                new ScoreCommand.Start("Feed Home", "Feed Away"),
+                new ScoreCommand.Update("Feed Home", "Feed Away", 1, 1),
+                new ScoreCommand.Update("Feed Home", "Feed Away", -1, 2)
+        );
+        final int[] into = new int[commands.size()];
+
+        // When
+        final List<ScoreCommand> batch = CoalescingIngestor.coalesce(commands, into);
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(
+                        new ScoreCommand.Update("Feed Home", "Feed Away", 2, 0),
+                        new ScoreCommand.Update("Feed Other", "Feed Rival", 0, 1),
+                        new ScoreCommand.Finish("Feed Home", "Feed Away"),
+                        new ScoreCommand.Start("Feed Home", "Feed Away"),
+                        new ScoreCommand.Update("Feed Home", "Feed Away", 1, 1),
+                        new ScoreCommand.Update("Feed Home", "Feed Away", -1, 2)
+                ), batch),
+                () -> assertArrayEquals(new int[]{0, 1, 0, 0, 2, 3, 4, 5}, into)
+        );
+    }
+
+    @Test
+    @DisplayName("Should apply a burst as one batch and report the merged commands")
+    void shouldApplyBurstAsOneBatch() {
+        // Given
+        final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+        board.startGame("Burst Home", "Burst Away");
+        final long version = board.getVersion();
+        final CoalescingIngestor ingestor = new CoalescingIngestor(board, NEVER);
+
+        // When
+        final CompletableFuture<CommandResult> goal = ingestor.submit(new ScoreCommand.Update("Burst Home", "Burst Away", 1, 0));
+        final CompletableFuture<CommandResult> correction = ingestor.submit(new ScoreCommand.Update("Burst Home", "Burst Away", 0, 1));
+        final CompletableFuture<CommandResult> resend = ingestor.submit(new ScoreCommand.Update("Burst Home", "Burst Away", 0, 1));
+        final CompletableFuture<CommandResult> started = ingestor.submit(new ScoreCommand.Start("Burst Late Home", "Burst Late Away"));
+        ingestor.close();
+
+        // Then
+        final IngestionStats stats = ingestor.getStats();
+        assertAll(
+                () -> assertEquals(CommandResult.SUCCESS, goal.join()),
+                () -> assertEquals(CommandResult.SUCCESS, correction.join()),
+                () -> assertEquals(CommandResult.SUCCESS, resend.join()),
+                () -> assertEquals(CommandResult.SUCCESS, started.join()),
+                () -> assertEquals(List.of(
+                        new MatchRecord("Burst Home", "Burst Away", 0, 1),
+                        new MatchRecord("Burst Late Home", "Burst Late Away", 0, 0)
+                ), board.getSummary()),
+                () -> assertEquals(version + 2, board.getVersion()),
+                () -> assertEquals(new IngestionStats(4, 2, 2, 1), stats),
+                () -> assertEquals(0.5, stats.mergeRatio()),
+                () -> assertThrows(IllegalStateException.class, () -> ingestor.submit(new ScoreCommand.Finish("Burst Home", "Burst Away")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should apply commands every tick")
+    void shouldApplyOnEveryTick() {
+        // Given
+        final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+        try (CoalescingIngestor ingestor = new CoalescingIngestor(board, Duration.ofMillis(5))) {
+
+            // When
+            final CommandResult started = ingestor.submit(new ScoreCommand.Start("Tick Home", "Tick Away")).join();
+            final CommandResult scored = ingestor.submit(new ScoreCommand.Update("Tick Home", "Tick Away", 3, 0)).join();
+            final CommandResult missing = ingestor.submit(new ScoreCommand.Finish("Tick Nobody", "Tick Else")).join();
+
+            // Then
+            assertAll(
+                    () -> assertEquals(CommandResult.SUCCESS, started),
+                    () -> assertEquals(CommandResult.SUCCESS, scored),
+                    () -> assertEquals(CommandResult.NOT_FOUND, missing),
+                    () -> assertEquals(List.of(new MatchRecord("Tick Home", "Tick Away", 3, 0)), board.getSummary()),
+                    () -> assertEquals(3, ingestor.getStats().batches())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply every command it accepted while closing, even from a full ring")
+    void shouldApplyAcceptedCommandsWhileClosing() throws Exception {
+        // Given
+        final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+        final CoalescingIngestor ingestor = new CoalescingIngestor(board, Duration.ofMillis(1), 1 << 4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<List<CompletableFuture<CommandResult>>>> submitters = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            final int submitter = thread;
+            submitters.add(executor.submit(() -> {
+                final List<CompletableFuture<CommandResult>> accepted = new ArrayList<>();
+                try {
+                    for (int i = 0; ; i++) {
+                        final String team = letters(submitter) + " " + letters(i);
+                        accepted.add(ingestor.submit(new ScoreCommand.Start("Home " + team, "Away " + team)));
+                    }
+                } catch (IllegalStateException closed) {
+                    return accepted;
+                }
+            }));
+        }
+
+        // When
+        Thread.sleep(20);
+        ingestor.close();
+
+        // Then
+        final List<CompletableFuture<CommandResult>> accepted = new ArrayList<>();
+        for (Future<List<CompletableFuture<CommandResult>>> submitter : submitters) {
+            accepted.addAll(submitter.get());
+        }
+        executor.shutdown();
+        assertAll(
+                () -> assertTrue(accepted.stream().allMatch(result -> result.getNow(null) == CommandResult.SUCCESS)),
+                () -> assertEquals(accepted.size(), board.getSummary().size())
+        );
+    }
+
+    private static String letters(int n) {
+        final StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return name.toString();
+    }
+}
@@ -0,0 +1,213 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static pl.jakubtworek.FinishedGamesArchive.*;
+
+@DisplayName("FinishedGamesArchive unit tests")
+class FinishedGamesArchiveTest {
+
+    private static final int GAMES = 3 * CHUNK_ROWS + 1_000;
+    private static final String[] TEAMS = {"Archive A", "Archive B", "Archive C", "Archive D", "Archive E"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should aggregate goals per team across sealed and open chunks")
+    void shouldAggregateGoalsPerTeam() {
+        // Given
+        final Instant start = Instant.now();
+        final List<Game> games = games(start);
+        final FinishedGamesArchive archive = archive(FinishedGamesArchive.inMemory(), games);
+
+        // When
+        final TeamGoals single = archive.goalsOf("archive c");
+        final List<TeamGoals> all = archive.goalsByTeam();
+
+        // Then
+        final TeamGoals expected = expectedGoals(games, "Archive C");
+        assertAll(
+                () -> assertEquals(GAMES, archive.size()),
+                () -> assertEquals(expected, single),
+                () -> assertTrue(all.contains(expected)),
+                () -> assertEquals(TEAMS.length, all.stream().filter(goals -> goals.team().startsWith("Archive ")).count()),
+                () -> assertEquals(new TeamGoals("Nobody Archived", 0, 0, 0), archive.goalsOf("Nobody Archived"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should answer the same from chunks spilled to a mapped file")
+    void shouldQuerySpilledChunks() {
+        // Given
+        final Instant start = Instant.now();
+        final List<Game> games = games(start);
+        final Path file = directory.resolve("archive.bin");
+        final FinishedGamesArchive memory = archive(FinishedGamesArchive.inMemory(), games);
+
+        // When
+        try (FinishedGamesArchive spilled = archive(FinishedGamesArchive.spillingTo(file), games)) {
+
+            // Then
+            assertAll(
+                    () -> assertTrue(Files.size(file) >= 3L * CHUNK_ROWS * 5 * Integer.BYTES),
+                    () -> assertEquals(memory.goalsOf("Archive A"), spilled.goalsOf("Archive A")),
+                    () -> assertEquals(memory.topScorelines(5), spilled.topScorelines(5)),
+                    () -> assertEquals(memory.highestScoringGames(3), spilled.highestScoringGames(3)),
+                    () -> assertEquals(memory.totalsBetween(start, start.plusSeconds(GAMES)),
+                            spilled.totalsBetween(start, start.plusSeconds(GAMES)))
+            );
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    @DisplayName("Should rank scorelines and highest-scoring games")
+    void shouldRankScorelinesAndGames() {
+        // Given
+        final Instant start = Instant.now();
+        final List<Game> games = games(start);
+        final FinishedGamesArchive archive = archive(FinishedGamesArchive.inMemory(), games);
+        archive.append("Archive A", "Archive B", 20, 3, start);
+        archive.append("Archive C", "Archive D", 9, 14, start);
+
+        // When
+        final List<ScorelineCount> scorelines = archive.topScorelines(3);
+        final List<ArchivedGame> highest = archive.highestScoringGames(2);
+
+        // Then
+        final Map<List<Integer>, Long> counts = new HashMap<>();
+        games.forEach(game -> counts.merge(List.of(game.homeScore(), game.awayScore()), 1L, Long::sum));
+        final long mostCommon = counts.values().stream().max(Long::compare).orElseThrow();
+        assertAll(
+                () -> assertEquals(3, scorelines.size()),
+                () -> assertEquals(mostCommon, scorelines.getFirst().games()),
+                () -> assertTrue(scorelines.get(0).games() >= scorelines.get(1).games()),
+                () -> assertEquals(new ArchivedGame("Archive C", "Archive D", 9, 14, Instant.ofEpochSecond(start.getEpochSecond())), highest.get(0)),
+                () -> assertEquals(new ArchivedGame("Archive A", "Archive B", 20, 3, Instant.ofEpochSecond(start.getEpochSecond())), highest.get(1)),
+                () -> assertThrows(IllegalArgumentException.class, () -> archive.topScorelines(-1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should total the games finished inside a time window")
+    void shouldTotalTimeWindow() {
+        // Given
+        final Instant start = Instant.now();
+        final List<Game> games = games(start);
+        final FinishedGamesArchive archive = archive(FinishedGamesArchive.inMemory(), games);
+        final Instant from = start.plusSeconds(CHUNK_ROWS / 2);
+        final Instant to = start.plusSeconds(3L * CHUNK_ROWS - 17);
+
+        // When
+        final ArchiveTotals totals = archive.totalsBetween(from, to);
+
+        // Then
+        long count = 0;
+        long home = 0;
+        long away = 0;
+        for (Game game : games) {
+            if (!game.finishedAt().isBefore(Instant.ofEpochSecond(from.getEpochSecond())) && game.finishedAt().getEpochSecond() < to.getEpochSecond()) {
+                count++;
+                home += game.homeScore();
+                away += game.awayScore();
+            }
+        }
+        assertEquals(new ArchiveTotals(count, home, away), totals);
+        assertEquals((double) (home + away) / count, totals.averageGoals(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should archive the final score when a game finishes")
+    void shouldArchiveFinishedGames() {
+        // Given
+        final FinishedGamesArchive archive = FinishedGamesArchive.inMemory();
+        final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.archiving(archive));
+        board.startGame("Archive Home", "Archive Away");
+        board.updateScore("Archive Home", "Archive Away", 3, 2);
+
+        // When
+        board.finishGame("Archive Home", "Archive Away");
+
+        // Then
+        final List<ArchivedGame> games = archive.highestScoringGames(10);
+        assertAll(
+                () -> assertEquals(1, games.size()),
+                () -> assertEquals("Archive Home", games.getFirst().homeTeam()),
+                () -> assertEquals(3, games.getFirst().homeScore()),
+                () -> assertEquals(2, games.getFirst().awayScore()),
+                () -> assertEquals(new TeamGoals("Archive Away", 1, 2, 3), archive.goalsOf("Archive Away"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep the game on the board when the archive refuses it")
+    void shouldKeepGameWhenArchivingFails() {
+        // Given
+        final FinishedGamesArchive archive = FinishedGamesArchive.spillingTo(directory.resolve("refusing.bin"));
+        final Instant start = Instant.now();
+        for (int i = 0; i < CHUNK_ROWS; i++) {
+            archive.append("Archive A", "Archive B", 1, 0, start);
+        }
+        archive.close();
+        final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.archiving(archive));
+        board.startGame("Archive Home", "Archive Away");
+        board.updateScore("Archive Home", "Archive Away", 1, 1);
+
+        // When
+        assertThrows(RuntimeException.class, () -> board.finishGame("Archive Home", "Archive Away"));
+        board.updateScore("Archive Home", "Archive Away", 2, 1);
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(new MatchRecord("Archive Home", "Archive Away", 2, 1)), board.getSummary()),
+                () -> assertEquals(CHUNK_ROWS, archive.size())
+        );
+    }
+
+    private static List<Game> games(Instant start) {
+        final Random random = new Random(18);
+        final List<Game> games = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            final int home = random.nextInt(TEAMS.length);
+            final int away = (home + 1 + random.nextInt(TEAMS.length - 1)) % TEAMS.length;
+            games.add(new Game(TEAMS[home], TEAMS[away], random.nextInt(6), random.nextInt(5), start.plusSeconds(i)));
+        }
+        return games;
+    }
+
+    private static FinishedGamesArchive archive(FinishedGamesArchive archive, List<Game> games) {
+        for (Game game : games) {
+            archive.append(game.homeTeam(), game.awayTeam(), game.homeScore(), game.awayScore(), game.finishedAt());
+        }
+        return archive;
+    }
+
+    private static TeamGoals expectedGoals(List<Game> games, String team) {
+        long played = 0;
+        long goalsFor = 0;
+        long goalsAgainst = 0;
+        for (Game game : games) {
+            if (game.homeTeam().equals(team)) {
+                played++;
+                goalsFor += game.homeScore();
+                goalsAgainst += game.awayScore();
+            } else if (game.awayTeam().equals(team)) {
+                played++;
+                goalsFor += game.awayScore();
+                goalsAgainst += game.homeScore();
+            }
+        }
+        return new TeamGoals(team, played, goalsFor, goalsAgainst);
+    }
+
+    private record Game(String homeTeam, String awayTeam, int homeScore, int awayScore, Instant finishedAt) {}
+}
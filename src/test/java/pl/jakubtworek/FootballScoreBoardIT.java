@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -96,6 +97,39 @@ class FootballScoreBoardIT {
         assertTrue(board.getSummary().isEmpty());
     }
 
+    @Test
+    @DisplayName("Should apply a batch with one result per command")
+    void shouldApplyBatchWithPerCommandResults() {
+        // Given
+        board.startGame("A", "B");
+        final List<MatchRecord> before = board.getSummary();
+
+        // When
+        final List<CommandResult> results = board.applyBatch(List.of(
+                new ScoreCommand.Start("C", "D"),
+                new ScoreCommand.Update("A", "B", 1, 0),
+                new ScoreCommand.Update("A", "B", 1, 0),
+                new ScoreCommand.Start("A", "E"),
+                new ScoreCommand.Update("X", "Y", 1, 0),
+                new ScoreCommand.Update("C", "D", -1, 0),
+                new ScoreCommand.Finish("C", "D")
+        ));
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(
+                        CommandResult.SUCCESS,
+                        CommandResult.SUCCESS,
+                        CommandResult.UNCHANGED,
+                        CommandResult.CONFLICT,
+                        CommandResult.NOT_FOUND,
+                        CommandResult.INVALID,
+                        CommandResult.SUCCESS), results),
+                () -> assertNotSame(before, board.getSummary()),
+                () -> assertEquals(List.of(new MatchRecord("A", "B", 1, 0)), board.getSummary())
+        );
+    }
+
     @Disabled("Disabled: relies on timing-sensitive behavior.")
     @Test
     @DisplayName("Should handle concurrent updates with optimistic locking")
@@ -133,4 +167,53 @@ class FootballScoreBoardIT {
         assertEquals(1, success.get(), "Only one update should succeed");
         assertEquals(3, failed.get(), "Others should fail due to optimistic locking");
     }
+
+    @Test
+    @DisplayName("Should keep the goal timeline of a finished match")
+    void shouldKeepTimelineAfterFinish() {
+        // Given
+        board.startGame("Timeline Home", "Timeline Away");
+        final Instant kickOff = board.getTimeline("Timeline Home", "Timeline Away").getFirst().at();
+        board.updateScore("Timeline Home", "Timeline Away", 1, 0);
+        board.updateScore("Timeline Home", "Timeline Away", 1, 1);
+
+        // When
+        board.finishGame("Timeline Home", "Timeline Away");
+        final List<ScoreChange> timeline = board.getTimeline("timeline away", "TIMELINE HOME");
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(ScoreChange.Kind.START, ScoreChange.Kind.HOME_GOAL, ScoreChange.Kind.AWAY_GOAL),
+                        timeline.stream().map(ScoreChange::kind).toList()),
+                () -> assertEquals(new MatchRecord("Timeline Home", "Timeline Away", 1, 1),
+                        board.getScoreAt("Timeline Home", "Timeline Away", Instant.now())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> board.getScoreAt("Timeline Home", "Timeline Away", kickOff.minusSeconds(1))),
+                () -> assertThrows(IllegalArgumentException.class, () -> board.getTimeline("Timeline Home", "Nobody"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recently finished timelines")
+    void shouldEvictOldestFinishedTimelines() {
+        // Given
+        final int finished = MatchRepository.FINISHED_TIMELINES + 10;
+
+        // When
+        for (int i = 0; i < finished; i++) {
+            board.startGame("Evicted Home " + i, "Evicted Away " + i);
+            board.updateScore("Evicted Home " + i, "Evicted Away " + i, 1, 0);
+            board.finishGame("Evicted Home " + i, "Evicted Away " + i);
+        }
+
+        // Then
+        final int last = finished - 1;
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> board.getTimeline("Evicted Home 0", "Evicted Away 0")),
+                () -> assertThrows(IllegalArgumentException.class, () -> board.getTimeline("Evicted Home 9", "Evicted Away 9")),
+                () -> assertEquals(2, board.getTimeline("Evicted Home 10", "Evicted Away 10").size()),
+                () -> assertEquals(new MatchRecord("Evicted Home " + last, "Evicted Away " + last, 1, 0),
+                        board.getScoreAt("Evicted Home " + last, "Evicted Away " + last, Instant.now()))
+        );
+    }
 }
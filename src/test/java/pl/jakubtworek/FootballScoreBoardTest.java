@@ -7,7 +7,6 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.util.List;
-import java.util.Optional;
 
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,12 +16,14 @@ import static org.mockito.Mockito.*;
 class FootballScoreBoardTest {
 
     private MatchRepository repository;
+    private ScoreBoardEventListener listener;
     private FootballScoreBoard board;
 
     @BeforeEach
     void setup() {
         repository = mock(MatchRepository.class);
-        board = new FootballScoreBoard(repository);
+        listener = mock(ScoreBoardEventListener.class);
+        board = new FootballScoreBoard(repository, listener);
     }
 
     @Test
@@ -33,6 +34,7 @@ class FootballScoreBoardTest {
 
         // Then
         verify(repository).save(any(Match.class));
+        verify(listener).onEvent(any(ScoreBoardEvent.GameStarted.class));
     }
 
     @ParameterizedTest(name = "[{index}] homeTeam=''{0}'' awayTeam=''{1}'' → error: {2}")
@@ -58,21 +60,21 @@ class FootballScoreBoardTest {
     @DisplayName("Should update score for an existing match")
     void shouldUpdateScoreIfMatchExists() {
         // Given
-        final var match = new Match("A", "B");
-        when(repository.findBy("A", "B")).thenReturn(Optional.of(match));
+        when(repository.updateScore("A", "B", 1, 1, 0)).thenReturn(CommandResult.SUCCESS);
 
         // When
         board.updateScore("A", "B", 1, 1);
 
         // Then
-        verify(repository).update(eq(match), eq(match.withUpdatedScore(1, 1)));
+        verify(repository).updateScore("A", "B", 1, 1, 0);
+        verify(listener).onEvent(any(ScoreBoardEvent.ScoreUpdated.class));
     }
 
     @Test
     @DisplayName("Should throw if updating score of a non-existent match")
     void shouldThrowIfUpdatingMissingMatch() {
         // Given
-        when(repository.findBy("X", "Y")).thenReturn(Optional.empty());
+        when(repository.updateScore("X", "Y", 2, 2, 0)).thenReturn(CommandResult.NOT_FOUND);
 
         // When
         final var ex = assertThrows(IllegalArgumentException.class,
@@ -80,7 +82,47 @@ class FootballScoreBoardTest {
 
         // Then
         assertEquals("Match not found", ex.getMessage());
-        verify(repository, never()).update(any(), any());
+        verify(listener).onEvent(argThat(event -> event instanceof ScoreBoardEvent.OperationRejected rejected
+                && rejected.operation() == ScoreBoardEvent.Operation.UPDATE));
+    }
+
+    @Test
+    @DisplayName("Should report update outcomes as result codes instead of throwing")
+    void shouldReturnResultCodesOnTryUpdate() {
+        // Given
+        when(repository.updateScore("A", "B", 1, 0, 0)).thenReturn(CommandResult.SUCCESS);
+        when(repository.updateScore("A", "B", 0, 0, 0)).thenReturn(CommandResult.UNCHANGED);
+        when(repository.updateScore("X", "Y", 1, 0, 0)).thenReturn(CommandResult.NOT_FOUND);
+
+        // When
+        final CommandResult updated = board.tryUpdateScore("A", "B", 1, 0);
+        final CommandResult unchanged = board.tryUpdateScore("A", "B", 0, 0);
+        final CommandResult missing = board.tryUpdateScore("X", "Y", 1, 0);
+        final CommandResult invalid = board.tryUpdateScore("A", "B", -1, 0);
+
+        // Then
+        assertAll(
+                () -> assertEquals(CommandResult.SUCCESS, updated),
+                () -> assertEquals(CommandResult.UNCHANGED, unchanged),
+                () -> assertEquals(CommandResult.NOT_FOUND, missing),
+                () -> assertEquals(CommandResult.INVALID, invalid)
+        );
+        verify(repository, never()).updateScore("A", "B", -1, 0, 0);
+        verify(listener).onEvent(any(ScoreBoardEvent.ScoreUpdated.class));
+    }
+
+    @Test
+    @DisplayName("Should report a concurrent modification as a conflict on try update")
+    void shouldReturnConflictOnTryUpdate() {
+        // Given
+        when(repository.updateScore("A", "B", 1, 0, 0)).thenReturn(CommandResult.CONFLICT);
+
+        // When
+        final CommandResult result = board.tryUpdateScore("A", "B", 1, 0);
+
+        // Then
+        assertEquals(CommandResult.CONFLICT, result);
+        verify(listener).onEvent(any(ScoreBoardEvent.OperationRejected.class));
     }
 
     @ParameterizedTest
@@ -141,4 +183,39 @@ class FootballScoreBoardTest {
                 () -> assertSame(firstCall, secondCall)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should serve top summary from cached summary when present")
+    void shouldServeTopSummaryFromCache() {
+        // Given
+        final List<MatchRecord> summary = List.of(
+                new MatchRecord("A", "B", 3, 0),
+                new MatchRecord("C", "D", 1, 0),
+                new MatchRecord("E", "F", 0, 0));
+        when(repository.findAllByOrderByTotalScoreDescAddedAtDesc()).thenReturn(summary);
+        board.getSummary();
+
+        // When
+        final List<MatchRecord> top = board.getTopSummary(2);
+
+        // Then
+        assertAll(
+                () -> assertEquals(summary.subList(0, 2), top),
+                () -> verify(repository, never()).findTop(anyInt())
+        );
+    }
+
+    @Test
+    @DisplayName("Should read top summary from repository index when nothing is cached")
+    void shouldReadTopSummaryFromIndexWhenNotCached() {
+        // Given
+        when(repository.findTop(10)).thenReturn(emptyList());
+
+        // When
+        board.getTopSummary(10);
+
+        // Then
+        verify(repository).findTop(10);
+        verify(repository, never()).findAllByOrderByTotalScoreDescAddedAtDesc();
+    }
+}
@@ -0,0 +1,160 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HybridLogicalClock unit tests")
+class HybridLogicalClockTest {
+
+    private static final long WALL_CLOCK = Instant.parse("2026-06-11T19:00:00Z").toEpochMilli();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should hand out unique growing stamps to concurrent callers")
+    void shouldStampUniquelyAcrossThreads() throws InterruptedException {
+        // Given
+        final HybridLogicalClock clock = new HybridLogicalClock(7);
+        final Set<Long> stamps = ConcurrentHashMap.newKeySet();
+        final List<Thread> threads = new ArrayList<>();
+        final AtomicLong decreases = new AtomicLong();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                long previous = 0;
+                for (int i = 0; i < 20_000; i++) {
+                    final long stamp = clock.now();
+                    if (stamp <= previous) {
+                        decreases.incrementAndGet();
+                    }
+                    stamps.add(stamp);
+                    previous = stamp;
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        final long any = stamps.iterator().next();
+        assertAll(
+                () -> assertEquals(80_000, stamps.size()),
+                () -> assertEquals(0, decreases.get()),
+                () -> assertEquals(7, HybridLogicalClock.nodeOf(any)),
+                () -> assertTrue(any > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep counting when the wall clock stands still or steps back")
+    void shouldSurviveWallClockStepsBack() {
+        // Given
+        final AtomicLong wall = new AtomicLong(WALL_CLOCK);
+        final HybridLogicalClock clock = new HybridLogicalClock(1, wall::get);
+        final long first = clock.now();
+
+        // When
+        long last = first;
+        for (int i = 0; i < 5_000; i++) {
+            last = clock.now();
+        }
+        wall.addAndGet(-60_000);
+        final long afterStepBack = clock.now();
+        wall.set(WALL_CLOCK + 60_000);
+        final long afterCatchUp = clock.now();
+
+        // Then
+        final long burst = last;
+        assertAll(
+                () -> assertEquals(Instant.ofEpochMilli(WALL_CLOCK), HybridLogicalClock.physicalTime(first)),
+                () -> assertEquals(Instant.ofEpochMilli(WALL_CLOCK + 1), HybridLogicalClock.physicalTime(burst)),
+                () -> assertTrue(afterStepBack > burst),
+                () -> assertEquals(Instant.ofEpochMilli(WALL_CLOCK + 60_000), HybridLogicalClock.physicalTime(afterCatchUp))
+        );
+    }
+
+    @Test
+    @DisplayName("Should stamp after every stamp it has observed")
+    void shouldOrderAfterObservedStamps() {
+        // Given
+        final HybridLogicalClock ahead = new HybridLogicalClock(1, () -> WALL_CLOCK + 3_600_000);
+        final HybridLogicalClock behind = new HybridLogicalClock(2, () -> WALL_CLOCK);
+        final long remote = ahead.now();
+
+        // When
+        behind.observe(remote);
+        final long local = behind.now();
+
+        // Then
+        assertAll(
+                () -> assertTrue(local > remote),
+                () -> assertEquals(2, HybridLogicalClock.nodeOf(local)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new HybridLogicalClock(HybridLogicalClock.MAX_NODE_ID + 1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should refuse to observe stamps no nearby hybrid logical clock could have made")
+    void shouldRejectForeignStamps() {
+        // Given
+        final HybridLogicalClock clock = new HybridLogicalClock(3, () -> WALL_CLOCK);
+        final long before = clock.now();
+        final long farAhead = new HybridLogicalClock(4, () -> WALL_CLOCK + Duration.ofDays(2).toMillis()).now();
+
+        // When
+        final Executable negative = () -> clock.observe(-42);
+        final Executable tooFarAhead = () -> clock.observe(farAhead);
+
+        // Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, negative),
+                () -> assertThrows(IllegalArgumentException.class, tooFarAhead),
+                () -> assertTrue(clock.now() < farAhead),
+                () -> assertTrue(clock.now() > before)
+        );
+    }
+
+    @Test
+    @DisplayName("Should order matches started after a restart after the replayed ones")
+    void shouldOrderAfterJournalReplay() {
+        // Given
+        final var config = JournalConfig.of(directory, FsyncPolicy.NEVER);
+        try (var journal = MatchJournal.open(config)) {
+            final var repository = MatchRepository.journaled(journal)
+                    .withClock(new HybridLogicalClock(1, () -> WALL_CLOCK + 3_600_000));
+            new FootballScoreBoard(repository).startGame("Before Home", "Before Away");
+        }
+
+        // When
+        final List<MatchRecord> summary;
+        try (var journal = MatchJournal.open(config)) {
+            final var repository = MatchRepository.journaled(journal)
+                    .withClock(new HybridLogicalClock(1, () -> WALL_CLOCK));
+            final var board = new FootballScoreBoard(repository);
+            board.startGame("After Home", "After Away");
+            summary = board.getSummary();
+        }
+
+        // Then
+        assertEquals(List.of(
+                new MatchRecord("After Home", "After Away", 0, 0),
+                new MatchRecord("Before Home", "Before Away", 0, 0)
+        ), summary);
+    }
+}
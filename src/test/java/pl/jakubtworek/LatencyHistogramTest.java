@@ -0,0 +1,46 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram unit tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should keep every value within 1/16 of its bucket's upper end")
+    void shouldBoundBucketError() {
+        for (long value = 0; value < 1L << 36; value = value * 5 / 4 + 1) {
+            // When
+            final long highest = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+
+            // Then
+            assertTrue(highest >= value, "bucket of " + value + " ends below it");
+            assertTrue(highest - value <= value / 16, "bucket of " + value + " ends at " + highest);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report count, mean and percentiles of recorded latencies")
+    void shouldReportPercentiles() {
+        // Given
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        final LatencyStats stats = histogram.stats();
+
+        // Then
+        assertAll(
+                () -> assertEquals(1_000, stats.count()),
+                () -> assertEquals(500_500, stats.meanNanos()),
+                () -> assertEquals(500_000, stats.p50Nanos(), 500_000 / 16),
+                () -> assertEquals(990_000, stats.p99Nanos(), 990_000 / 16),
+                () -> assertTrue(stats.maxNanos() >= 1_000_000),
+                () -> assertEquals(new LatencyStats(0, 0, 0, 0, 0, 0, 0), new LatencyHistogram().stats())
+        );
+    }
+}
@@ -0,0 +1,151 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MatchJournal unit tests")
+class MatchJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should rebuild matches, scores and team reservations on restart")
+    void shouldReplayJournalOnRestart() {
+        // Given
+        try (var journal = MatchJournal.open(JournalConfig.of(directory, FsyncPolicy.EVERY_OP))) {
+            final var board = new FootballScoreBoard(MatchRepository.journaled(journal));
+            board.startGame("Mexico", "Canada");
+            board.startGame("Spain", "Brazil");
+            board.startGame("Germany", "France");
+            board.updateScore("Mexico", "Canada", 0, 5);
+            board.updateScore("Spain", "Brazil", 10, 2);
+            board.finishGame("Germany", "France");
+        }
+
+        // When
+        try (var journal = MatchJournal.open(JournalConfig.of(directory, FsyncPolicy.EVERY_OP))) {
+            final var board = new FootballScoreBoard(MatchRepository.journaled(journal));
+            final List<MatchRecord> summary = board.getSummary();
+
+            // Then
+            assertAll(
+                    () -> assertEquals(List.of(
+                            new MatchRecord("Spain", "Brazil", 10, 2),
+                            new MatchRecord("Mexico", "Canada", 0, 5)), summary),
+                    () -> assertThrows(IllegalArgumentException.class, () -> board.startGame("Mexico", "France")),
+                    () -> assertDoesNotThrow(() -> board.startGame("Germany", "France"))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll over to new segments and replay all of them")
+    void shouldReplayAcrossSegments() throws IOException {
+        // Given
+        final var config = new JournalConfig(directory, 4096, FsyncPolicy.NEVER, JournalConfig.DEFAULT_FSYNC_INTERVAL);
+        try (var journal = MatchJournal.open(config)) {
+            final var repository = MatchRepository.journaled(journal);
+            for (int i = 0; i < 500; i++) {
+                repository.save(new Match("Home " + i, "Away " + i));
+            }
+        }
+
+        // When
+        try (var journal = MatchJournal.open(config)) {
+            final var repository = MatchRepository.journaled(journal);
+
+            // Then
+            assertAll(
+                    () -> assertTrue(segmentCount() > 1),
+                    () -> assertEquals(500, repository.findAllByOrderByTotalScoreDescAddedAtDesc().size())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop at a torn record and keep appending after the last intact one")
+    void shouldRecoverFromTornTail() throws IOException {
+        // Given
+        final var config = JournalConfig.of(directory, FsyncPolicy.NEVER);
+        try (var journal = MatchJournal.open(config)) {
+            final var repository = MatchRepository.journaled(journal);
+            repository.save(new Match("A", "B"));
+            repository.save(new Match("C", "D"));
+        }
+        corruptLastRecord();
+
+        // When
+        try (var journal = MatchJournal.open(config)) {
+            MatchRepository.journaled(journal).save(new Match("E", "F"));
+        }
+        try (var journal = MatchJournal.open(config)) {
+            final List<MatchRecord> summary = MatchRepository.journaled(journal).findAllByOrderByTotalScoreDescAddedAtDesc();
+
+            // Then
+            assertEquals(List.of(new MatchRecord("E", "F", 0, 0), new MatchRecord("A", "B", 0, 0)), summary);
+        }
+    }
+
+    @Test
+    @DisplayName("Should make concurrent writes durable with group commit")
+    void shouldGroupCommitConcurrentWrites() throws InterruptedException {
+        // Given
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (var journal = MatchJournal.open(JournalConfig.of(directory, FsyncPolicy.EVERY_OP))) {
+            final var repository = MatchRepository.journaled(journal);
+
+            // When
+            for (int i = 0; i < 200; i++) {
+                final int match = i;
+                executor.execute(() -> repository.save(new Match("Home " + match, "Away " + match)));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        // Then
+        try (var journal = MatchJournal.open(JournalConfig.of(directory, FsyncPolicy.EVERY_OP))) {
+            assertEquals(200, MatchRepository.journaled(journal).findAllByOrderByTotalScoreDescAddedAtDesc().size());
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private void corruptLastRecord() throws IOException {
+        try (FileChannel file = FileChannel.open(directory.resolve("journal-0000000000000000.log"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(4);
+            int position = 0;
+            int last = 0;
+            while (true) {
+                header.clear();
+                file.read(header, position);
+                final int length = header.getInt(0);
+                if (length == 0) break;
+                last = position;
+                position += 8 + length;
+            }
+            file.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), last + 9);
+        }
+    }
+}
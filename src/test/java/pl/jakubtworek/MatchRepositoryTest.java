@@ -10,6 +10,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +41,24 @@ class MatchRepositoryTest {
 
     }
 
+    @Test
+    @DisplayName("Should find a match by team names in any case and order")
+    void shouldFindMatchIgnoringCaseAndOrder() {
+        // Given
+        repository.save(new Match("Mexico", "Canada"));
+
+        // When
+        final var swapped = repository.findBy("CANADA", "mexico");
+        final var unknown = repository.findBy("Mexico", "Never Played");
+
+        // Then
+        assertAll(
+                () -> assertMatchEquals(swapped.orElseThrow().toRecord(), "Mexico", "Canada", 0, 0),
+                () -> assertTrue(unknown.isEmpty()),
+                () -> assertFalse(repository.removeBy("Never Played", "Canada"))
+        );
+    }
+
     @Test
     @DisplayName("Should throw when match already exists")
     void shouldThrowWhenMatchAlreadyExists() {
@@ -56,6 +75,21 @@ class MatchRepositoryTest {
         assertEquals("At least one of the teams is already playing a match", ex.getMessage());
     }
 
+    @Test
+    @DisplayName("Should keep the reservation of a team that is already playing after a rejected save")
+    void shouldKeepReservationAfterRejectedSave() {
+        // Given
+        repository.save(new Match("TeamA", "TeamB"));
+        assertThrows(IllegalArgumentException.class, () -> repository.save(new Match("TeamA", "TeamC")));
+
+        // When
+        final var ex = assertThrows(IllegalArgumentException.class,
+                () -> repository.save(new Match("TeamA", "TeamD")));
+
+        // Then
+        assertEquals("At least one of the teams is already playing a match", ex.getMessage());
+    }
+
     @Test
     @DisplayName("Should return matches sorted by total score and then insertion order")
     void shouldReturnSortedMatches() {
@@ -91,6 +125,107 @@ class MatchRepositoryTest {
         );
     }
 
+    @Test
+    @DisplayName("Should keep summary order in sync with updates and removals")
+    void shouldKeepSummaryInSyncWithWrites() {
+        // Given
+        final var first = new Match("A", "B");
+        final var second = new Match("C", "D");
+        final var third = new Match("E", "F");
+        repository.save(first);
+        repository.save(second);
+        repository.save(third);
+
+        // When
+        repository.update(first, first.withUpdatedScore(3, 0));
+        repository.removeBy("E", "F");
+        final List<MatchRecord> summary = repository.findAllByOrderByTotalScoreDescAddedAtDesc();
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, summary.size()),
+                () -> assertMatchEquals(summary.get(0), "A", "B", 3, 0),
+                () -> assertMatchEquals(summary.get(1), "C", "D", 0, 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Should page through the summary with offsets and cursors")
+    void shouldPageThroughSummary() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            final var match = new Match("H" + i, "A" + i);
+            repository.save(match);
+            repository.update(match, match.withUpdatedScore(i, 0));
+        }
+
+        // When
+        final SummaryPage first = repository.findPage(0, 2);
+        final var leader = repository.findBy("H1", "A1").orElseThrow();
+        repository.update(leader, leader.withUpdatedScore(9, 0)); // jumps above the cursor
+        final SummaryPage second = repository.findPageAfter(SummaryPosition.fromCursor(first.nextCursor()), 2);
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of("H5", "H4"), first.matches().stream().map(MatchRecord::homeTeam).toList()),
+                () -> assertEquals(List.of("H3", "H2"), second.matches().stream().map(MatchRecord::homeTeam).toList()),
+                () -> assertNull(second.nextCursor()),
+                () -> assertEquals(List.of("H1", "H5"), repository.findTop(2).stream().map(MatchRecord::homeTeam).toList()),
+                () -> assertEquals(List.of("H2"), repository.findPage(4, 10).matches().stream().map(MatchRecord::homeTeam).toList()),
+                () -> assertThrows(IllegalArgumentException.class, () -> SummaryPosition.fromCursor(null))
+        );
+    }
+
+    @Test
+    @DisplayName("Should return only the matches changed since a version, with their summary positions")
+    void shouldReturnChangesSinceVersion() {
+        // Given
+        final var first = new Match("A", "B");
+        final var second = new Match("C", "D");
+        repository.save(first);
+        repository.save(second);
+        repository.save(new Match("E", "F"));
+        final long version = repository.version();
+
+        // When
+        repository.update(first, first.withUpdatedScore(2, 0));
+        repository.update(second, second.withUpdatedScore(1, 0));
+        repository.removeBy("E", "F");
+        final SummaryDelta delta = repository.findChangesSince(version);
+
+        // Then
+        assertAll(
+                () -> assertEquals(version + 3, delta.version()),
+                () -> assertFalse(delta.fullSnapshot()),
+                () -> assertEquals(List.of(
+                        new SummaryDelta.Change(0, new MatchRecord("A", "B", 2, 0)),
+                        new SummaryDelta.Change(1, new MatchRecord("C", "D", 1, 0))), delta.changed()),
+                () -> assertEquals(List.of(new MatchRecord("E", "F", 0, 0)), delta.removed()),
+                () -> assertEquals(List.of(), repository.findChangesSince(delta.version()).changed())
+        );
+    }
+
+    @Test
+    @DisplayName("Should fall back to the full summary when changes since a version are no longer known")
+    void shouldFallBackToFullSummary() {
+        // Given
+        repository.save(new Match("A", "B"));
+        final long version = repository.version();
+        repository.clear();
+        repository.save(new Match("C", "D"));
+
+        // When
+        final SummaryDelta delta = repository.findChangesSince(version);
+
+        // Then
+        assertAll(
+                () -> assertTrue(delta.fullSnapshot()),
+                () -> assertEquals(repository.version(), delta.version()),
+                () -> assertEquals(List.of(new SummaryDelta.Change(0, new MatchRecord("C", "D", 0, 0))), delta.changed()),
+                () -> assertTrue(repository.findChangesSince(delta.version() + 1).fullSnapshot())
+        );
+    }
+
     @Test
     @DisplayName("Should update match score successfully")
     void shouldUpdateMatchSuccessfully() {
@@ -107,6 +242,96 @@ class MatchRepositoryTest {
         assertMatchEquals(record, "X", "Y", 3, 2);
     }
 
+    @Test
+    @DisplayName("Should detect a stale update by version even when the scores went back to the same values")
+    void shouldRejectStaleUpdateAfterScoreReverted() {
+        // Given
+        final var original = new Match("Alpha", "Beta");
+        repository.save(original);
+        final var goal = original.withUpdatedScore(1, 0);
+        repository.update(original, goal);
+        repository.update(goal, goal.withUpdatedScore(0, 0)); // goal disallowed, back to 0:0
+
+        // When
+        final var ex = assertThrows(OptimisticLockException.class,
+                () -> repository.update(original, original.withUpdatedScore(2, 0)));
+
+        // Then
+        assertAll(
+                () -> assertEquals("Match was modified concurrently. Please retry.", ex.getMessage()),
+                () -> assertEquals(2, repository.findBy("Alpha", "Beta").orElseThrow().getVersion())
+        );
+    }
+
+    @Test
+    @DisplayName("Should apply every concurrent score update when retries are allowed")
+    void shouldRetryConcurrentScoreUpdates() throws InterruptedException {
+        // Given
+        repository.save(new Match("Alpha", "Beta"));
+        final UpdateContentionStats before = repository.contentionStats();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final AtomicInteger applied = new AtomicInteger();
+
+        // When
+        for (int thread = 0; thread < 4; thread++) {
+            final int first = thread * 1000;
+            executor.execute(() -> {
+                for (int goals = first + 1; goals <= first + 1000; goals++) {
+                    if (repository.updateScore("Alpha", "Beta", goals, 0, Integer.MAX_VALUE) == CommandResult.SUCCESS) {
+                        applied.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        final UpdateContentionStats after = repository.contentionStats();
+
+        // Then
+        assertAll(
+                () -> assertEquals(4000, applied.get()),
+                () -> assertEquals(4000, after.updates() - before.updates()),
+                () -> assertEquals(after.conflicts() - before.conflicts(), after.retries() - before.retries()),
+                () -> assertEquals(4000, repository.findBy("Alpha", "Beta").orElseThrow().getVersion()),
+                () -> assertEquals(1, repository.findAllByOrderByTotalScoreDescAddedAtDesc().size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should never leave a match out of the summary while its score changes")
+    void shouldKeepUpdatedMatchInSummary() throws InterruptedException {
+        // Given
+        repository.save(new Match("Aaa", "Bbb"));
+        repository.save(new Match("Ccc", "Ddd"));
+        repository.updateScore("Ccc", "Ddd", 3, 3, 0);
+        repository.save(new Match("Eee", "Fff"));
+        final AtomicBoolean reading = new AtomicBoolean(true);
+        final Thread updater = Thread.ofPlatform().start(() -> {
+            for (int i = 1; reading.get(); i++) {
+                repository.updateScore("Aaa", "Bbb", i % 9, 0, 0);
+            }
+        });
+
+        // When
+        int smallest = Integer.MAX_VALUE;
+        int largest = 0;
+        for (int read = 0; read < 200_000; read++) {
+            final int size = repository.findAllByOrderByTotalScoreDescAddedAtDesc().size();
+            smallest = Math.min(smallest, size);
+            largest = Math.max(largest, size);
+        }
+        reading.set(false);
+        updater.join();
+
+        // Then
+        final int fewest = smallest;
+        final int most = largest;
+        assertAll(
+                () -> assertEquals(3, fewest),
+                () -> assertEquals(3, most)
+        );
+    }
+
     @Disabled("Disabled: relies on timing-sensitive behavior.")
     @Test
     @DisplayName("Should throw OptimisticLockException on concurrent update conflict")
@@ -176,6 +401,32 @@ class MatchRepositoryTest {
         );
     }
 
+    @Test
+    @DisplayName("Should bring the board to a snapshot without emptying it first")
+    void shouldReplaceBoardWithSnapshot() {
+        // Given
+        final var kept = new Match("A", "B");
+        final var dropped = new Match("C", "D");
+        repository.save(kept);
+        repository.save(dropped);
+        final var snapshot = List.of(
+                Match.restore("A", "B", 2, 0, kept.getAddedAt(), 2),
+                Match.restore("E", "F", 1, 1, dropped.getAddedAt() + 1, 2));
+
+        // When
+        repository.recovery().onReplace(snapshot);
+        final List<MatchRecord> summary = repository.findAllByOrderByTotalScoreDescAddedAtDesc();
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, summary.size()),
+                () -> assertMatchEquals(summary.get(0), "E", "F", 1, 1),
+                () -> assertMatchEquals(summary.get(1), "A", "B", 2, 0),
+                () -> assertEquals(2, repository.findBy("A", "B").orElseThrow().getVersion()),
+                () -> assertFalse(repository.findBy("C", "D").isPresent())
+        );
+    }
+
     private void assertMatchEquals(MatchRecord record, String expectedHome, String expectedAway, int expectedHomeScore, int expectedAwayScore) {
         assertAll(
                 () -> assertEquals(expectedHome, record.homeTeam()),
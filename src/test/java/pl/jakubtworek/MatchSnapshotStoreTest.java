@@ -0,0 +1,111 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MatchSnapshotStore unit tests")
+class MatchSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should restore from the snapshot and apply only the journal tail after it")
+    void shouldRestoreSnapshotAndJournalTail() {
+        // Given
+        final var config = smallSegments();
+        try (var journal = MatchJournal.open(config); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var repository = MatchRepository.journaled(journal, snapshots);
+            final var board = new FootballScoreBoard(repository);
+            board.startGame("Mexico", "Canada");
+            board.startGame("Spain", "Brazil");
+            board.updateScore("Mexico", "Canada", 0, 5);
+            snapshots.write(repository, journal);
+            board.updateScore("Spain", "Brazil", 10, 2);
+            board.finishGame("Mexico", "Canada");
+            board.startGame("Germany", "France");
+        }
+
+        // When
+        try (var journal = MatchJournal.open(config); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var board = new FootballScoreBoard(MatchRepository.journaled(journal, snapshots));
+
+            // Then
+            assertAll(
+                    () -> assertEquals(List.of(
+                            new MatchRecord("Spain", "Brazil", 10, 2),
+                            new MatchRecord("Germany", "France", 0, 0)), board.getSummary()),
+                    () -> assertThrows(IllegalArgumentException.class, () -> board.startGame("Spain", "Canada")),
+                    () -> assertDoesNotThrow(() -> board.startGame("Mexico", "Canada"))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should prune old journal segments and still restore the full state")
+    void shouldPruneJournalBehindSnapshots() throws IOException {
+        // Given
+        final var config = smallSegments();
+        try (var journal = MatchJournal.open(config); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var repository = MatchRepository.journaled(journal, snapshots);
+            for (int i = 0; i < 300; i++) {
+                repository.save(new Match("Home " + i, "Away " + i));
+                if (i % 100 == 99) {
+                    snapshots.write(repository, journal);
+                }
+            }
+        }
+
+        // When
+        try (var journal = MatchJournal.open(config); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var repository = MatchRepository.journaled(journal, snapshots);
+
+            // Then
+            assertAll(
+                    () -> assertFalse(Files.exists(directory.resolve("journal").resolve("journal-0000000000000000.log"))),
+                    () -> assertEquals(300, repository.findAllByOrderByTotalScoreDescAddedAtDesc().size())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to the previous snapshot when the latest one is damaged")
+    void shouldFallBackWhenLatestSnapshotIsDamaged() throws IOException {
+        // Given
+        final var config = smallSegments();
+        final Path latest;
+        try (var journal = MatchJournal.open(config); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var repository = MatchRepository.journaled(journal, snapshots);
+            repository.save(new Match("A", "B"));
+            snapshots.write(repository, journal);
+            repository.save(new Match("C", "D"));
+            latest = snapshots.write(repository, journal);
+        }
+        final byte[] bytes = Files.readAllBytes(latest);
+        bytes[bytes.length - 6] ^= 0x7F;
+        Files.write(latest, bytes);
+
+        // When
+        try (var journal = MatchJournal.open(config); var snapshots = new MatchSnapshotStore(directory.resolve("snapshots"))) {
+            final var repository = MatchRepository.journaled(journal, snapshots);
+
+            // Then
+            assertAll(
+                    () -> assertEquals(2, repository.findAllByOrderByTotalScoreDescAddedAtDesc().size()),
+                    () -> assertTrue(snapshots.lastFailure().isPresent())
+            );
+        }
+    }
+
+    private JournalConfig smallSegments() {
+        return new JournalConfig(directory.resolve("journal"), 4096, FsyncPolicy.NEVER, JournalConfig.DEFAULT_FSYNC_INTERVAL);
+    }
+}
@@ -0,0 +1,160 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OffHeapMatchStore unit tests")
+class OffHeapMatchStoreTest {
+
+    @Test
+    @DisplayName("Should read back teams, start time and score from the off-heap row")
+    void shouldStoreMatchRows() {
+        // Given
+        final OffHeapMatchStore store = new OffHeapMatchStore(4);
+        final Match match = Match.restore("Row Home", "Row Away", 2, 1, 42L, 3);
+
+        // When
+        final MatchSlot inserted = store.insert(match, slot -> { });
+        final MatchSlot found = store.get(MatchKey.of("row away", "ROW HOME"));
+
+        // Then
+        assertAll(
+                () -> assertSame(inserted, found),
+                () -> assertEquals("Row Home", found.getHomeTeam()),
+                () -> assertEquals("Row Away", found.getAwayTeam()),
+                () -> assertEquals(42L, found.getAddedAt()),
+                () -> assertEquals(MatchSlot.pack(3, 2, 1), found.state()),
+                () -> assertNull(store.insert(match, slot -> fail("Duplicate key must not be inserted")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep a removed match's last values after its row is reused")
+    void shouldDetachRemovedSlotFromReusedRow() {
+        // Given
+        final OffHeapMatchStore store = new OffHeapMatchStore(1);
+        final MatchSlot first = store.insert(Match.restore("Reuse Home", "Reuse Away", 0, 0, 1L), slot -> { });
+        assertTrue(first.compareAndSetState(first.state(), MatchSlot.pack(1, 4, 4)));
+
+        // When
+        final MatchSlot removed = store.remove(first.getKey(), slot -> { });
+        final MatchSlot second = store.insert(Match.restore("Reuse Next", "Reuse Other", 0, 0, 2L), slot -> { });
+
+        // Then
+        assertAll(
+                () -> assertSame(first, removed),
+                () -> assertTrue(MatchSlot.isRemoved(first.state())),
+                () -> assertEquals(MatchSlot.pack(1, 4, 4), first.state() & ~MatchSlot.REMOVED),
+                () -> assertEquals("Reuse Home", first.getHomeTeam()),
+                () -> assertFalse(first.compareAndSetState(MatchSlot.pack(1, 4, 4), MatchSlot.pack(2, 5, 4))),
+                () -> assertEquals(MatchSlot.pack(0, 0, 0), second.state()),
+                () -> assertEquals("Reuse Next", second.getHomeTeam()),
+                () -> assertNull(store.get(first.getKey()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should leave the row's next occupant alone when writing through a removed handle")
+    void shouldIgnoreWritesThroughRemovedSlot() {
+        // Given
+        final OffHeapMatchStore store = new OffHeapMatchStore(1);
+        final MatchSlot first = store.insert(Match.restore("Stale Home", "Stale Away", 0, 0, 1L), slot -> { });
+        store.remove(first.getKey(), slot -> { });
+        final MatchSlot second = store.insert(Match.restore("Fresh Home", "Fresh Away", 0, 0, 2L), slot -> { });
+
+        // When
+        first.setState(MatchSlot.pack(7, 7, 7));
+        final boolean swapped = first.compareAndSetState(MatchSlot.pack(0, 0, 0), MatchSlot.pack(1, 1, 0));
+
+        // Then
+        assertAll(
+                () -> assertFalse(swapped),
+                () -> assertEquals(MatchSlot.pack(0, 0, 0), second.state()),
+                () -> assertTrue(second.compareAndSetState(MatchSlot.pack(0, 0, 0), MatchSlot.pack(1, 0, 1))),
+                () -> assertEquals(MatchSlot.pack(1, 0, 1), second.state()),
+                () -> assertEquals(1, store.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep finding live matches through many starts and finishes")
+    void shouldSurviveChurn() {
+        // Given
+        final OffHeapMatchStore store = new OffHeapMatchStore(8);
+        store.insert(Match.restore("Churn Anchor", "Churn Rival", 0, 0, 0L), slot -> { });
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            final Match match = Match.restore("Churn Home " + i % 50, "Churn Away " + i % 50, 0, 0, i);
+            assertNotNull(store.insert(match, slot -> { }));
+            assertNotNull(store.remove(match.getKey(), slot -> { }));
+        }
+
+        // Then
+        assertAll(
+                () -> assertNotNull(store.get(MatchKey.of("Churn Anchor", "Churn Rival"))),
+                () -> assertNull(store.get(MatchKey.of("Churn Home 7", "Churn Away 7")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject a match when every row is taken")
+    void shouldRejectWhenFull() {
+        // Given
+        final OffHeapMatchStore store = new OffHeapMatchStore(1);
+        store.insert(Match.restore("Full Home", "Full Away", 0, 0, 0L), slot -> { });
+
+        // When
+        final var exception = assertThrows(IllegalStateException.class,
+                () -> store.insert(Match.restore("Full Next", "Full Other", 0, 0, 0L), slot -> { }));
+
+        // Then
+        assertEquals("Off-heap match store is full", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should order the summary like the heap repository under concurrent updates")
+    void shouldMatchHeapRepository() throws Exception {
+        // Given
+        final MatchRepository offHeap = MatchRepository.offHeap(64);
+        final MatchRepository heap = MatchRepository.inMemory();
+        for (int i = 0; i < 32; i++) {
+            final Match match = Match.restore("Parity Home " + i, "Parity Away " + i, 0, 0, i);
+            offHeap.save(match);
+            heap.save(match);
+        }
+        final ExecutorService writers = Executors.newFixedThreadPool(4);
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            final int thread = t;
+            writers.execute(() -> {
+                for (int i = thread; i < 32; i += 4) {
+                    for (int goals = 1; goals <= i % 5 + 1; goals++) {
+                        offHeap.updateScore("Parity Home " + i, "Parity Away " + i, goals, 0, 0);
+                        heap.updateScore("Parity Home " + i, "Parity Away " + i, goals, 0, 0);
+                    }
+                }
+            });
+        }
+        writers.shutdown();
+        assertTrue(writers.awaitTermination(5, TimeUnit.SECONDS));
+        offHeap.removeBy("Parity Home 3", "Parity Away 3");
+        heap.removeBy("Parity Home 3", "Parity Away 3");
+
+        // Then
+        final List<MatchRecord> summary = offHeap.findAllByOrderByTotalScoreDescAddedAtDesc();
+        assertAll(
+                () -> assertEquals(heap.findAllByOrderByTotalScoreDescAddedAtDesc(), summary),
+                () -> assertEquals(31, summary.size()),
+                () -> assertTrue(offHeap.findBy("Parity Home 3", "Parity Away 3").isEmpty())
+        );
+    }
+}
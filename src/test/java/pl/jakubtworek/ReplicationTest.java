@@ -0,0 +1,171 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReplicatedScoreBoard tests")
+class ReplicationTest {
+
+    private static final InetSocketAddress ANY_PORT = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    private final List<ReplicatedScoreBoard> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ReplicatedScoreBoard::close);
+    }
+
+    @Test
+    @DisplayName("Should bring a late follower up to date and keep streaming to it")
+    void shouldCatchUpAndStream() {
+        // Given
+        final ReplicatedScoreBoard primary = node(ReplicatedScoreBoard.primary(ANY_PORT));
+        final FootballScoreBoard board = primary.board();
+        for (int i = 0; i < 50; i++) {
+            board.startGame("Replica Home " + i, "Replica Away " + i);
+            board.updateScore("Replica Home " + i, "Replica Away " + i, 1 + i % 7, i % 3);
+        }
+        board.finishGame("Replica Home 3", "Replica Away 3");
+
+        // When
+        final ReplicatedScoreBoard follower = node(ReplicatedScoreBoard.follower(ANY_PORT, primary.replicationAddress()));
+        awaitTrue(() -> board.getSummary().equals(follower.board().getSummary()));
+        board.updateScore("Replica Home 10", "Replica Away 10", 20, 0);
+        board.finishGame("Replica Home 11", "Replica Away 11");
+        board.startGame("Replica Late Home", "Replica Late Away");
+
+        // Then
+        awaitTrue(() -> board.getSummary().equals(follower.board().getSummary()));
+        final ReplicationStats stats = follower.getReplicationStats();
+        final List<ScoreChange> timeline = follower.board().getTimeline("Replica Home 10", "Replica Away 10");
+        assertAll(
+                () -> assertEquals(List.of(ScoreChange.Kind.START, ScoreChange.Kind.CORRECTION),
+                        timeline.stream().map(ScoreChange::kind).toList()),
+                () -> assertEquals(20, timeline.getLast().homeScore()),
+                () -> assertEquals(new MatchRecord("Replica Late Home", "Replica Late Away", 0, 0),
+                        follower.board().getScoreAt("Replica Late Home", "Replica Late Away", Instant.now())),
+                () -> assertEquals(49, follower.board().getSummary().size()),
+                () -> assertEquals(new MatchRecord("Replica Home 10", "Replica Away 10", 20, 0), follower.board().getSummary().getFirst()),
+                () -> assertFalse(follower.isPrimary()),
+                () -> assertEquals(primary.getReplicationStats().appliedSequence(), stats.appliedSequence()),
+                () -> assertEquals(0, stats.lagRecords())
+        );
+    }
+
+    @Test
+    @DisplayName("Should refuse writes on a follower")
+    void shouldRejectWritesOnFollower() {
+        // Given
+        final ReplicatedScoreBoard primary = node(ReplicatedScoreBoard.primary(ANY_PORT));
+        final ReplicatedScoreBoard follower = node(ReplicatedScoreBoard.follower(ANY_PORT, primary.replicationAddress()));
+        primary.board().startGame("Read Only Home", "Read Only Away");
+        awaitTrue(() -> follower.board().getSummary().size() == 1);
+
+        // When / Then
+        final FootballScoreBoard replica = follower.board();
+        assertAll(
+                () -> assertThrows(IllegalStateException.class, () -> replica.startGame("Other Home", "Other Away")),
+                () -> assertThrows(IllegalStateException.class, () -> replica.updateScore("Read Only Home", "Read Only Away", 1, 0)),
+                () -> assertThrows(IllegalStateException.class, () -> replica.finishGame("Read Only Home", "Read Only Away")),
+                () -> assertEquals(List.of(new MatchRecord("Read Only Home", "Read Only Away", 0, 0)), replica.getSummary())
+        );
+    }
+
+    @Test
+    @DisplayName("Should return writes only once a synchronous follower has applied them")
+    void shouldWaitForSynchronousFollower() {
+        // Given
+        final ReplicatedScoreBoard primary = node(ReplicatedScoreBoard.primary(ANY_PORT, 1, Duration.ofSeconds(10)));
+        final ReplicatedScoreBoard follower = node(ReplicatedScoreBoard.follower(ANY_PORT, primary.replicationAddress()));
+        awaitTrue(() -> primary.getReplicationStats().followers().size() == 1);
+
+        // When
+        primary.board().startGame("Sync Home", "Sync Away");
+        primary.board().updateScore("Sync Home", "Sync Away", 2, 1);
+
+        // Then
+        final ReplicationStats stats = primary.getReplicationStats();
+        assertAll(
+                () -> assertEquals(List.of(new MatchRecord("Sync Home", "Sync Away", 2, 1)), follower.board().getSummary()),
+                () -> assertEquals(2, stats.appliedSequence()),
+                () -> assertEquals(0, stats.followers().getFirst().lagRecords()),
+                () -> assertEquals(0, stats.ackTimeouts())
+        );
+    }
+
+    @Test
+    @DisplayName("Should promote a follower and let the others follow it")
+    void shouldPromoteFollower() {
+        // Given
+        final ReplicatedScoreBoard primary = node(ReplicatedScoreBoard.primary(ANY_PORT));
+        final ReplicatedScoreBoard first = node(ReplicatedScoreBoard.follower(ANY_PORT, primary.replicationAddress()));
+        final ReplicatedScoreBoard second = node(ReplicatedScoreBoard.follower(ANY_PORT, primary.replicationAddress()));
+        primary.board().startGame("Failover Home", "Failover Away");
+        primary.board().updateScore("Failover Home", "Failover Away", 1, 1);
+        awaitTrue(() -> first.board().getSummary().size() == 1 && second.board().getSummary().size() == 1);
+        primary.close();
+
+        // When
+        first.promote();
+        second.follow(first.replicationAddress());
+        first.board().updateScore("Failover Home", "Failover Away", 2, 1);
+        first.board().startGame("After Home", "After Away");
+
+        // Then
+        awaitTrue(() -> first.board().getSummary().equals(second.board().getSummary()));
+        assertAll(
+                () -> assertTrue(first.isPrimary()),
+                () -> assertEquals(List.of(
+                        new MatchRecord("Failover Home", "Failover Away", 2, 1),
+                        new MatchRecord("After Home", "After Away", 0, 0)
+                ), second.board().getSummary()),
+                () -> assertEquals(1, first.getReplicationStats().followers().size()),
+                () -> assertThrows(IllegalStateException.class, () -> second.board().startGame("Other Home", "Other Away"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep the latest connection failure while retrying an unreachable primary")
+    void shouldRecordFailuresWhileRetrying() throws IOException {
+        // Given
+        final InetSocketAddress unreachable;
+        try (ServerSocketChannel closed = ServerSocketChannel.open().bind(ANY_PORT)) {
+            unreachable = (InetSocketAddress) closed.getLocalAddress();
+        }
+
+        // When
+        try (ReplicaFeed feed = new ReplicaFeed(MatchRepository.inMemory(), unreachable)) {
+
+            // Then
+            awaitTrue(() -> feed.lastFailure().isPresent());
+            assertEquals(-1, feed.applied());
+        }
+    }
+
+    private ReplicatedScoreBoard node(ReplicatedScoreBoard node) {
+        nodes.add(node);
+        return node;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Replicas did not converge in time");
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
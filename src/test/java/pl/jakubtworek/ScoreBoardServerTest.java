@@ -0,0 +1,135 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScoreBoardServer and ScoreBoardClient tests")
+class ScoreBoardServerTest {
+
+    private final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+    private final ScoreBoardServer server = ScoreBoardServer.start(board,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Duration.ofMillis(10));
+    private final ScoreBoardClient client = ScoreBoardClient.connect(server.address());
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Should apply commands remotely and return the same summary as the board")
+    void shouldServeBoardOperations() {
+        // Given
+        client.startGame("Remote Mexico", "Remote Canada");
+        client.startGame("Remote Spain", "Remote Brazil");
+
+        // When
+        client.updateScore("Remote Spain", "Remote Brazil", 10, 2);
+        client.finishGame("Remote Mexico", "Remote Canada");
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(new MatchRecord("Remote Spain", "Remote Brazil", 10, 2)), client.getSummary()),
+                () -> assertEquals(board.getSummary(), client.getSummary())
+        );
+    }
+
+    @Test
+    @DisplayName("Should throw the board's exceptions with their messages")
+    void shouldReportRejectedCommands() {
+        // Given
+        client.startGame("Remote Home", "Remote Away");
+
+        // When / Then
+        assertAll(
+                () -> assertEquals("At least one of the teams is already playing a match",
+                        assertThrows(IllegalArgumentException.class, () -> client.startGame("Remote Home", "Remote Away")).getMessage()),
+                () -> assertEquals("Match not found",
+                        assertThrows(IllegalArgumentException.class, () -> client.finishGame("Remote Nobody", "Remote Else")).getMessage()),
+                () -> assertEquals("Score cannot be negative",
+                        assertThrows(IllegalArgumentException.class, () -> client.updateScore("Remote Home", "Remote Away", -1, 0)).getMessage())
+        );
+        assertEquals(List.of(new MatchRecord("Remote Home", "Remote Away", 0, 0)), client.getSummary());
+    }
+
+    @Test
+    @DisplayName("Should answer pipelined requests from many threads in order")
+    void shouldPipelineRequests() throws Exception {
+        // Given
+        final int matches = 8;
+        for (int i = 0; i < matches; i++) {
+            client.startGame("Pipe Home " + i, "Pipe Away " + i);
+        }
+
+        // When
+        final List<Thread> senders = new ArrayList<>();
+        final List<CompletableFuture<Void>> updates = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < matches; i++) {
+            final int match = i;
+            senders.add(Thread.ofVirtual().start(() -> {
+                for (int goal = 1; goal <= 500; goal++) {
+                    updates.add(client.updateScoreAsync("Pipe Home " + match, "Pipe Away " + match, goal, 0));
+                }
+            }));
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Then
+        final List<MatchRecord> summary = client.getSummary();
+        assertAll(
+                () -> assertEquals(matches, summary.size()),
+                () -> assertTrue(summary.stream().allMatch(match -> match.homeScore() == 500)),
+                () -> assertEquals(matches * 500L, board.getUpdateContentionStats().updates())
+        );
+    }
+
+    @Test
+    @DisplayName("Should push the summary to subscribers after changes")
+    void shouldPushSummaries() throws Exception {
+        // Given
+        final LinkedBlockingQueue<List<MatchRecord>> pushed = new LinkedBlockingQueue<>();
+        client.subscribe(pushed::add);
+        assertEquals(List.of(), pushed.poll(5, TimeUnit.SECONDS));
+
+        // When
+        board.startGame("Push Home", "Push Away");
+
+        // Then
+        assertEquals(List.of(new MatchRecord("Push Home", "Push Away", 0, 0)), pushed.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should fail pending and later requests once the server is gone")
+    void shouldFailAfterServerCloses() {
+        // Given
+        client.startGame("Closing Home", "Closing Away");
+
+        // When
+        server.close();
+
+        // Then
+        assertThrows(UncheckedIOException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                client.getSummary();
+            }
+        });
+    }
+}
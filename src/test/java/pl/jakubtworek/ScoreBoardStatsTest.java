@@ -0,0 +1,71 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScoreBoardStats unit tests")
+class ScoreBoardStatsTest {
+
+    private final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+
+    @Test
+    @DisplayName("Should count operations, conflicts, cache reads and live matches")
+    void shouldCollectStats() {
+        // Given
+        board.startGame("Stats Home", "Stats Away");
+        board.startGame("Stats Other", "Stats Third");
+        assertThrows(IllegalArgumentException.class, () -> board.startGame("Stats Home", "Stats Fourth"));
+        board.updateScore("Stats Home", "Stats Away", 1, 0);
+        board.tryUpdateScore("Stats Home", "Stats Away", 1, 0);
+        board.getSummary();
+        board.getSummary();
+        board.finishGame("Stats Other", "Stats Third");
+
+        // When
+        final ScoreBoardStats stats = board.getStats();
+
+        // Then
+        assertAll(
+                () -> assertEquals(3, stats.start().count()),
+                () -> assertEquals(2, stats.update().count()),
+                () -> assertEquals(1, stats.finish().count()),
+                () -> assertEquals(2, stats.summary().count()),
+                () -> assertEquals(1, stats.summaryRebuild().count()),
+                () -> assertTrue(stats.start().maxNanos() > 0),
+                () -> assertEquals(1, stats.reservationConflicts()),
+                () -> assertEquals(1, stats.contention().updates()),
+                () -> assertEquals(0.5, stats.summaryCacheHitRatio()),
+                () -> assertEquals(1, stats.liveMatches())
+        );
+    }
+
+    @Test
+    @DisplayName("Should publish the stats through a platform MXBean")
+    void shouldPublishMBean() throws Exception {
+        // Given
+        board.startGame("Jmx Home", "Jmx Away");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        // When
+        final ObjectName name = board.registerMBean("stats-test");
+        try {
+
+            // Then
+            final CompositeData startLatency = (CompositeData) server.getAttribute(name, "StartLatency");
+            assertAll(
+                    () -> assertEquals(1L, server.getAttribute(name, "LiveMatches")),
+                    () -> assertEquals(1L, startLatency.get("count")),
+                    () -> assertThrows(IllegalArgumentException.class, () -> board.registerMBean("stats-test"))
+            );
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ScoreTimeline unit tests")
+class ScoreTimelineTest {
+
+    private static final long KICK_OFF = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Should record goals and corrections with their times")
+    void shouldRecordChanges() {
+        // Given
+        final ScoreTimeline timeline = new ScoreTimeline("Home", "Away", MatchSlot.pack(0, 0, 0), KICK_OFF);
+
+        // When
+        timeline.record(MatchSlot.pack(1, 1, 0), KICK_OFF + 600_000);
+        timeline.record(MatchSlot.pack(2, 1, 1), KICK_OFF + 1_200_000);
+        timeline.record(MatchSlot.pack(3, 0, 1), KICK_OFF + 1_260_000);
+
+        // Then
+        assertEquals(List.of(
+                new ScoreChange(Instant.ofEpochMilli(KICK_OFF), ScoreChange.Kind.START, 0, 0),
+                new ScoreChange(Instant.ofEpochMilli(KICK_OFF + 600_000), ScoreChange.Kind.HOME_GOAL, 1, 0),
+                new ScoreChange(Instant.ofEpochMilli(KICK_OFF + 1_200_000), ScoreChange.Kind.AWAY_GOAL, 1, 1),
+                new ScoreChange(Instant.ofEpochMilli(KICK_OFF + 1_260_000), ScoreChange.Kind.CORRECTION, 0, 1)
+        ), timeline.changes());
+    }
+
+    @Test
+    @DisplayName("Should take a few bytes per goal")
+    void shouldEncodeGoalsCompactly() {
+        // Given
+        final ScoreTimeline timeline = new ScoreTimeline("Home", "Away", MatchSlot.pack(0, 0, 0), KICK_OFF);
+
+        // When
+        for (int goal = 1; goal <= 10; goal++) {
+            timeline.record(MatchSlot.pack(goal, goal, 0), KICK_OFF + goal * 300_000L);
+        }
+
+        // Then
+        assertEquals(30, timeline.sizeInBytes());
+    }
+
+    @Test
+    @DisplayName("Should put changes reported out of order back in version order")
+    void shouldReorderByVersion() {
+        // Given
+        final ScoreTimeline timeline = new ScoreTimeline("Home", "Away", MatchSlot.pack(0, 0, 0), KICK_OFF);
+
+        // When
+        timeline.record(MatchSlot.pack(2, 2, 0), KICK_OFF + 2_000);
+        timeline.record(MatchSlot.pack(1, 1, 0), KICK_OFF + 3_000);
+        timeline.record(MatchSlot.pack(1, 1, 0), KICK_OFF + 4_000);
+
+        // Then
+        final List<ScoreChange> changes = timeline.changes();
+        assertAll(
+                () -> assertEquals(3, changes.size()),
+                () -> assertEquals(ScoreChange.Kind.HOME_GOAL, changes.get(1).kind()),
+                () -> assertEquals(ScoreChange.Kind.HOME_GOAL, changes.get(2).kind()),
+                () -> assertEquals(2, changes.get(2).homeScore()),
+                () -> assertFalse(changes.get(2).at().isBefore(changes.get(1).at()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should return the score in force at an instant")
+    void shouldReturnScoreAtInstant() {
+        // Given
+        final ScoreTimeline timeline = new ScoreTimeline("Home", "Away", MatchSlot.pack(0, 0, 0), KICK_OFF);
+        timeline.record(MatchSlot.pack(1, 1, 0), KICK_OFF + 1_000);
+        timeline.record(MatchSlot.pack(2, 1, 1), KICK_OFF + 2_000);
+
+        // When / Then
+        assertAll(
+                () -> assertNull(timeline.scoreAt(Instant.ofEpochMilli(KICK_OFF - 1))),
+                () -> assertEquals(new MatchRecord("Home", "Away", 0, 0), timeline.scoreAt(Instant.ofEpochMilli(KICK_OFF + 999))),
+                () -> assertEquals(new MatchRecord("Home", "Away", 1, 0), timeline.scoreAt(Instant.ofEpochMilli(KICK_OFF + 1_000))),
+                () -> assertEquals(new MatchRecord("Home", "Away", 1, 1), timeline.scoreAt(Instant.ofEpochMilli(KICK_OFF + 9_000)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should fold the older half into the start once the buffer is full")
+    void shouldDropOldestHistoryWhenFull() {
+        // Given
+        final ScoreTimeline timeline = new ScoreTimeline("Home", "Away", MatchSlot.pack(0, 0, 0), KICK_OFF);
+
+        // When
+        for (int version = 1; version <= 100_000; version++) {
+            timeline.record(MatchSlot.pack(version, version % 2 == 0 ? 0 : 1, 0), KICK_OFF + version);
+        }
+
+        // Then
+        final List<ScoreChange> changes = timeline.changes();
+        assertAll(
+                () -> assertTrue(timeline.sizeInBytes() <= ScoreTimeline.MAX_BYTES),
+                () -> assertEquals(ScoreChange.Kind.START, changes.getFirst().kind()),
+                () -> assertTrue(changes.getFirst().at().isAfter(Instant.ofEpochMilli(KICK_OFF))),
+                () -> assertEquals(Instant.ofEpochMilli(KICK_OFF + 100_000), changes.getLast().at()),
+                () -> assertEquals(0, changes.getLast().homeScore())
+        );
+    }
+}
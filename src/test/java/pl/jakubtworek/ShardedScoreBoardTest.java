@@ -0,0 +1,65 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardedScoreBoard unit tests")
+class ShardedScoreBoardTest {
+
+    private ShardedScoreBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new ShardedScoreBoard();
+    }
+
+    @Test
+    @DisplayName("Should keep competitions independent and merge them into one ordered summary")
+    void shouldMergeCompetitions() {
+        // Given
+        final FootballScoreBoard worldCup = board.competition("World Cup");
+        final FootballScoreBoard friendlies = board.competition("Friendlies");
+        worldCup.startGame("Spain", "Brazil");
+        friendlies.startGame("Spain", "Italy");
+        worldCup.startGame("Mexico", "Canada");
+        friendlies.updateScore("Spain", "Italy", 2, 1);
+        worldCup.updateScore("Mexico", "Canada", 0, 5);
+
+        // When
+        final List<MatchRecord> summary = board.getSummary();
+
+        // Then
+        assertAll(
+                () -> assertSame(worldCup, board.competition("World Cup")),
+                () -> assertEquals(List.of(
+                        new MatchRecord("Mexico", "Canada", 0, 5),
+                        new MatchRecord("Spain", "Italy", 2, 1),
+                        new MatchRecord("Spain", "Brazil", 0, 0)), summary),
+                () -> assertEquals(List.of(new MatchRecord("Spain", "Italy", 2, 1)), friendlies.getSummary())
+        );
+    }
+
+    @Test
+    @DisplayName("Should reuse the merged summary until a competition changes")
+    void shouldCacheMergedSummary() {
+        // Given
+        board.competition("League").startGame("A", "B");
+        final List<MatchRecord> first = board.getSummary();
+
+        // When
+        final List<MatchRecord> unchanged = board.getSummary();
+        board.competition("Cup").startGame("C", "D");
+        final List<MatchRecord> changed = board.getSummary();
+
+        // Then
+        assertAll(
+                () -> assertSame(first, unchanged),
+                () -> assertEquals(2, changed.size())
+        );
+    }
+}
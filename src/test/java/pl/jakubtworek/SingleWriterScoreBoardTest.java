@@ -0,0 +1,159 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleWriterScoreBoard unit tests")
+class SingleWriterScoreBoardTest {
+
+    private SingleWriterScoreBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new SingleWriterScoreBoard();
+    }
+
+    @AfterEach
+    void tearDown() {
+        board.close();
+    }
+
+    @Test
+    @DisplayName("Should apply submitted commands in order and publish the summary")
+    void shouldApplyCommandsAndPublishSummary() {
+        // When
+        final CompletableFuture<CommandResult> started = board.submit(new ScoreCommand.Start("Mexico", "Canada"));
+        final CompletableFuture<CommandResult> scored = board.submit(new ScoreCommand.Update("Mexico", "Canada", 0, 5));
+        final CompletableFuture<CommandResult> missing = board.submit(new ScoreCommand.Finish("Spain", "Brazil"));
+
+        // Then
+        assertAll(
+                () -> assertEquals(CommandResult.SUCCESS, started.join()),
+                () -> assertEquals(CommandResult.SUCCESS, scored.join()),
+                () -> assertEquals(CommandResult.NOT_FOUND, missing.join()),
+                () -> assertEquals(List.of(new MatchRecord("Mexico", "Canada", 0, 5)), board.getSummary())
+        );
+    }
+
+    @Test
+    @DisplayName("Should never report a conflict when many threads update the same match")
+    void shouldSerializeConcurrentUpdates() throws Exception {
+        // Given
+        board.submit(new ScoreCommand.Start("A", "B")).join();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<CommandResult>> results = new ArrayList<>();
+
+        // When
+        for (int goals = 1; goals <= 200; goals++) {
+            final int home = goals;
+            results.add(executor.submit(() -> board.submit(new ScoreCommand.Update("A", "B", home, 0)).join()));
+        }
+        executor.shutdown();
+
+        // Then
+        for (Future<CommandResult> result : results) {
+            assertEquals(CommandResult.SUCCESS, result.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject commands after close")
+    void shouldRejectAfterClose() {
+        // When
+        board.close();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> board.submit(new ScoreCommand.Start("A", "B")));
+    }
+
+    @Test
+    @DisplayName("Should fail only the command that throws and keep the writer running")
+    void shouldSurviveFailingCommand() {
+        // Given
+        final ScoreBoardEventListener failing = event -> {
+            if (event instanceof ScoreBoardEvent.GameStarted started && started.homeTeam().equals("Faulty Home")) {
+                throw new IllegalStateException("Listener failed");
+            }
+        };
+        final SingleWriterScoreBoard faulty = new SingleWriterScoreBoard(MatchRepository.inMemory(), failing, 1 << 10);
+
+        // When
+        final CompletableFuture<CommandResult> bad = faulty.submit(new ScoreCommand.Start("Faulty Home", "Faulty Away"));
+        final CompletableFuture<CommandResult> invalid = faulty.submit(new ScoreCommand.Update("Faulty Home", "Faulty Away", -1, 0));
+        final CompletableFuture<CommandResult> good = faulty.submit(new ScoreCommand.Start("Healthy Home", "Healthy Away"));
+        final CommandResult later = faulty.submit(new ScoreCommand.Update("Healthy Home", "Healthy Away", 1, 0)).join();
+
+        // Then
+        try {
+            assertAll(
+                    () -> assertInstanceOf(IllegalStateException.class,
+                            assertThrows(CompletionException.class, bad::join).getCause()),
+                    () -> assertEquals(CommandResult.INVALID, invalid.join()),
+                    () -> assertEquals(CommandResult.SUCCESS, good.join()),
+                    () -> assertEquals(CommandResult.SUCCESS, later),
+                    () -> assertTrue(faulty.getSummary().contains(new MatchRecord("Healthy Home", "Healthy Away", 1, 0)))
+            );
+        } finally {
+            faulty.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply every command it accepted while closing")
+    void shouldApplyAcceptedCommandsWhileClosing() throws Exception {
+        // Given
+        final SingleWriterScoreBoard closing = new SingleWriterScoreBoard(MatchRepository.inMemory(), ScoreBoardEventListener.noOp(), 1 << 4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<List<CompletableFuture<CommandResult>>>> submitters = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            final int submitter = thread;
+            submitters.add(executor.submit(() -> {
+                final List<CompletableFuture<CommandResult>> accepted = new ArrayList<>();
+                try {
+                    for (int i = 0; ; i++) {
+                        final String team = letters(submitter) + " " + letters(i);
+                        accepted.add(closing.submit(new ScoreCommand.Start("Home " + team, "Away " + team)));
+                    }
+                } catch (IllegalStateException closed) {
+                    return accepted;
+                }
+            }));
+        }
+
+        // When
+        Thread.sleep(20);
+        closing.close();
+
+        // Then
+        final List<CompletableFuture<CommandResult>> accepted = new ArrayList<>();
+        for (Future<List<CompletableFuture<CommandResult>>> submitter : submitters) {
+            accepted.addAll(submitter.get());
+        }
+        executor.shutdown();
+        assertAll(
+                () -> assertTrue(accepted.stream().allMatch(result -> result.getNow(null) == CommandResult.SUCCESS)),
+                () -> assertEquals(accepted.size(), closing.getSummary().size())
+        );
+    }
+
+    private static String letters(int n) {
+        final StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return name.toString();
+    }
+}
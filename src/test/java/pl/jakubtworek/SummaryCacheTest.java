@@ -0,0 +1,124 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SummaryCache unit tests")
+class SummaryCacheTest {
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    @DisplayName("Should rebuild once for readers missing together")
+    void shouldRebuildOncePerVersion() throws Exception {
+        // Given
+        final SummaryCache cache = new SummaryCache(version::get, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return List.of(new MatchRecord("A", "B", 1, 0));
+        });
+        final ExecutorService readers = Executors.newFixedThreadPool(8);
+
+        // When
+        final List<Future<List<MatchRecord>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(readers.submit(cache::get));
+        }
+        loading.await();
+        Thread.sleep(50);
+        release.countDown();
+        for (Future<List<MatchRecord>> result : results) {
+            assertEquals(List.of(new MatchRecord("A", "B", 1, 0)), result.get(2, TimeUnit.SECONDS));
+        }
+        readers.shutdown();
+
+        // Then
+        assertAll(
+                () -> assertEquals(1, loads.get()),
+                () -> assertEquals(1, cache.stats().rebuilds()),
+                () -> assertEquals(8, cache.stats().hits() + cache.stats().misses())
+        );
+    }
+
+    @Test
+    @DisplayName("Should never install a summary built for an older version")
+    void shouldNotInstallOutdatedSummary() throws Exception {
+        // Given
+        final List<MatchRecord> old = List.of(new MatchRecord("Old", "Summary", 0, 0));
+        final List<MatchRecord> fresh = List.of(new MatchRecord("Fresh", "Summary", 0, 0));
+        final SummaryCache cache = new SummaryCache(version::get, () -> {
+            if (loads.incrementAndGet() == 1) {
+                loading.countDown();
+                await(release);
+                return old;
+            }
+            return fresh;
+        });
+        final CompletableFuture<List<MatchRecord>> slow = CompletableFuture.supplyAsync(cache::get);
+        loading.await();
+
+        // When
+        version.set(2);
+        final List<MatchRecord> current = cache.get();
+        release.countDown();
+        slow.get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertAll(
+                () -> assertSame(fresh, current),
+                () -> assertSame(fresh, cache.getIfCurrent()),
+                () -> assertSame(fresh, cache.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Should serve the previous summary while another reader rebuilds")
+    void shouldServeStaleSummaryDuringRebuild() throws Exception {
+        // Given
+        final List<MatchRecord> previous = List.of(new MatchRecord("A", "B", 0, 0));
+        final SummaryCache cache = new SummaryCache(version::get, () -> {
+            if (loads.incrementAndGet() == 1) {
+                return previous;
+            }
+            loading.countDown();
+            await(release);
+            return List.of(new MatchRecord("A", "B", 1, 0));
+        });
+        cache.get();
+        version.set(2);
+        final CompletableFuture<List<MatchRecord>> rebuild = CompletableFuture.supplyAsync(cache::get);
+        loading.await();
+
+        // When
+        final List<MatchRecord> stale = cache.getAllowingStale();
+        release.countDown();
+        rebuild.get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertAll(
+                () -> assertSame(previous, stale),
+                () -> assertEquals(1, cache.stats().staleReads()),
+                () -> assertEquals(List.of(new MatchRecord("A", "B", 1, 0)), cache.getAllowingStale())
+        );
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SummaryEncoder unit tests")
+class SummaryEncoderTest {
+
+    private final FootballScoreBoard board = new FootballScoreBoard(MatchRepository.inMemory());
+
+    @Test
+    @DisplayName("Should encode the summary as UTF-8 JSON")
+    void shouldEncodeJson() {
+        // Given
+        board.startGame("Mexico", "Canada");
+        board.startGame("Spain", "Brazil");
+        board.updateScore("Spain", "Brazil", 2, 1);
+
+        // When
+        final ByteBuffer encoded = board.getEncodedSummary(SummaryEncoder.JSON);
+
+        // Then
+        assertEquals("[{\"homeTeam\":\"Spain\",\"awayTeam\":\"Brazil\",\"homeScore\":2,\"awayScore\":1},"
+                + "{\"homeTeam\":\"Mexico\",\"awayTeam\":\"Canada\",\"homeScore\":0,\"awayScore\":0}]",
+                StandardCharsets.UTF_8.decode(encoded).toString());
+    }
+
+    @Test
+    @DisplayName("Should escape quotes and control characters in JSON strings")
+    void shouldEscapeJsonStrings() {
+        // Given
+        final List<MatchRecord> summary = List.of(new MatchRecord("A \"B\"", "C\\D\n", 1, 0));
+
+        // When
+        final String json = new String(SummaryEncoder.JSON.encode(summary), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals("[{\"homeTeam\":\"A \\\"B\\\"\",\"awayTeam\":\"C\\\\D\\n\",\"homeScore\":1,\"awayScore\":0}]", json);
+    }
+
+    @Test
+    @DisplayName("Should decode the binary encoding back to the same summary")
+    void shouldRoundTripBinary() {
+        // Given
+        board.startGame("Germany", "France");
+        board.startGame("Uruguay", "Italy");
+        board.updateScore("Uruguay", "Italy", 6, 6);
+        board.updateScore("Germany", "France", 2, 2);
+
+        // When
+        final ByteBuffer encoded = board.getEncodedSummary(SummaryEncoder.BINARY);
+
+        // Then
+        assertAll(
+                () -> assertEquals(board.getSummary(), BinarySummaryEncoder.decode(encoded)),
+                () -> assertFalse(encoded.hasRemaining())
+        );
+    }
+
+    @Test
+    @DisplayName("Should encode each summary version once and share the bytes")
+    void shouldEncodeOncePerVersion() {
+        // Given
+        final AtomicInteger encodings = new AtomicInteger();
+        final SummaryEncoder counting = summary -> {
+            encodings.incrementAndGet();
+            return SummaryEncoder.JSON.encode(summary);
+        };
+        board.startGame("Argentina", "Australia");
+
+        // When
+        final ByteBuffer first = board.getEncodedSummary(counting);
+        first.position(first.limit());
+        final ByteBuffer second = board.getEncodedSummary(counting);
+        board.updateScore("Argentina", "Australia", 1, 0);
+        final ByteBuffer third = board.getEncodedSummary(counting);
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, encodings.get()),
+                () -> assertTrue(second.isReadOnly()),
+                () -> assertTrue(second.isDirect()),
+                () -> assertEquals(0, second.position()),
+                () -> assertEquals(first.limit(), second.limit()),
+                () -> assertTrue(StandardCharsets.UTF_8.decode(third).toString().contains("\"homeScore\":1"))
+        );
+    }
+}
@@ -0,0 +1,161 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SummaryPublisher unit tests")
+class SummaryPublisherTest {
+
+    private FootballScoreBoard board;
+
+    @BeforeEach
+    void setUp() {
+        MatchRepository.getInstance().clear();
+        board = new FootballScoreBoard(MatchRepository.getInstance());
+        board.startGame("A", "B");
+    }
+
+    @Test
+    @DisplayName("Should push the current summary and one coalesced summary per burst of writes")
+    void shouldCoalesceBurstIntoOneNotification() throws InterruptedException {
+        // Given
+        final var subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        board.summaries(Duration.ofMillis(100)).subscribe(subscriber);
+        final List<MatchRecord> initial = subscriber.next();
+
+        // When
+        for (int goals = 1; goals <= 5; goals++) {
+            board.updateScore("A", "B", goals, 0);
+        }
+        final List<MatchRecord> pushed = subscriber.next();
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(new MatchRecord("A", "B", 0, 0)), initial),
+                () -> assertEquals(List.of(new MatchRecord("A", "B", 5, 0)), pushed),
+                () -> assertNull(subscriber.received.poll(300, TimeUnit.MILLISECONDS))
+        );
+    }
+
+    @Test
+    @DisplayName("Should hold only the newest summary for a subscriber without demand")
+    void shouldConflateForSlowSubscriber() throws InterruptedException {
+        // Given
+        final var subscriber = new RecordingSubscriber(1);
+        board.summaries(Duration.ZERO).subscribe(subscriber);
+        subscriber.next();
+
+        // When
+        board.updateScore("A", "B", 1, 0);
+        Thread.sleep(50);
+        board.updateScore("A", "B", 2, 0);
+        Thread.sleep(50);
+        board.startGame("C", "D");
+        Thread.sleep(50);
+        assertNull(subscriber.received.poll(50, TimeUnit.MILLISECONDS));
+        subscriber.subscription.request(1);
+
+        // Then
+        assertEquals(List.of(new MatchRecord("A", "B", 2, 0), new MatchRecord("C", "D", 0, 0)), subscriber.next());
+    }
+
+    @Test
+    @DisplayName("Should detach a publisher from the board once its last subscriber cancels")
+    void shouldDetachWhenLastSubscriberCancels() throws InterruptedException {
+        // Given
+        final Flow.Publisher<List<MatchRecord>> publisher = board.summaries(Duration.ofMillis(10));
+        final var first = new RecordingSubscriber(Long.MAX_VALUE);
+        final var second = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        final int attached = board.activeSummaryPublishers();
+
+        // When
+        first.subscription.cancel();
+        final int afterFirstCancel = board.activeSummaryPublishers();
+        second.subscription.cancel();
+        final int afterLastCancel = board.activeSummaryPublishers();
+        board.updateScore("A", "B", 1, 0);
+
+        // Then
+        final var late = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(late);
+        assertAll(
+                () -> assertEquals(1, attached),
+                () -> assertEquals(1, afterFirstCancel),
+                () -> assertEquals(0, afterLastCancel),
+                () -> assertEquals(1, board.activeSummaryPublishers()),
+                () -> assertEquals(List.of(new MatchRecord("A", "B", 1, 0)), late.next())
+        );
+    }
+
+    @Test
+    @DisplayName("Should signal a non-positive request as an error from the delivery thread, not the caller's")
+    void shouldSignalBadDemandAsynchronously() throws InterruptedException {
+        // Given
+        final Flow.Publisher<List<MatchRecord>> publisher = board.summaries(Duration.ofMillis(10));
+        final var subscriber = new RecordingSubscriber(1);
+        publisher.subscribe(subscriber);
+        subscriber.next();
+
+        // When
+        subscriber.subscription.request(0);
+        final Throwable error = subscriber.errors.poll(2, TimeUnit.SECONDS);
+
+        // Then
+        assertAll(
+                () -> assertInstanceOf(IllegalArgumentException.class, error),
+                () -> assertNotSame(Thread.currentThread(), subscriber.errorThread),
+                () -> assertEquals(0, board.activeSummaryPublishers())
+        );
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<List<MatchRecord>> {
+        private final BlockingQueue<List<MatchRecord>> received = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        private volatile Thread errorThread;
+        private final long initialDemand;
+        private Flow.Subscription subscription;
+
+        private RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(List<MatchRecord> item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errorThread = Thread.currentThread();
+            errors.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        List<MatchRecord> next() throws InterruptedException {
+            final List<MatchRecord> item = received.poll(2, TimeUnit.SECONDS);
+            assertNotNull(item, "Expected a summary to be pushed");
+            return item;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pl.jakubtworek;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TeamDictionary unit tests")
+class TeamDictionaryTest {
+
+    @Test
+    @DisplayName("Should resolve every spelling of a team to one id")
+    void shouldIgnoreCase() {
+        // Given
+        final var teams = new TeamDictionary(TeamDictionary.MAX_SPELLINGS);
+
+        // When
+        final int id = teams.idOf("Mexico");
+
+        // Then
+        assertAll(
+                () -> assertEquals(id, teams.idOf("MEXICO")),
+                () -> assertEquals(id, teams.find("mexico")),
+                () -> assertEquals(TeamDictionary.UNKNOWN, teams.find("Canada")),
+                () -> assertEquals("Mexico", teams.nameOf(id))
+        );
+    }
+
+    @Test
+    @DisplayName("Should stop caching spellings at the limit and keep resolving the rest")
+    void shouldBoundCachedSpellings() {
+        // Given
+        final var teams = new TeamDictionary(4);
+        final int id = teams.idOf("Spain");
+
+        // When
+        for (int i = 0; i < 32; i++) {
+            teams.idOf("Team " + i);
+        }
+        final int spelling = teams.find("sPaIn");
+
+        // Then
+        assertAll(
+                () -> assertEquals(4, teams.cachedSpellings()),
+                () -> assertEquals(id, spelling),
+                () -> assertEquals(id, teams.idOf("SPAIN"))
+        );
+    }
+}